@@ -0,0 +1,77 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and exits non-zero
+ * when any benchmark got slower than the tolerance allows.
+ * Usage: BaselineComparator baseline.json result.json [tolerance, e.g. 0.25]
+ */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        Map<String, JsonNode> baseline = readResults(new File(args[0]));
+        Map<String, JsonNode> current = readResults(new File(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+
+            // Positive = slower than baseline
+            double change = higherIsBetter ? (oldScore - newScore) / oldScore : (newScore - oldScore) / oldScore;
+            String verdict = change > tolerance ? "REGRESSION" : change < -tolerance ? "FASTER" : "OK";
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    verdict, entry.getKey(), oldScore, newScore, unit, change * 100);
+            if (change > tolerance) {
+                regressions.add(entry.getKey());
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%: %s%n",
+                    regressions.size(), tolerance * 100, regressions);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * JMH results keyed by benchmark name plus parameters
+     */
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.example.benchmark.", ""));
+            JsonNode params = result.path("params");
+            Iterator<String> names = params.fieldNames();
+            List<String> sorted = new ArrayList<>();
+            names.forEachRemaining(sorted::add);
+            Collections.sort(sorted);
+            for (String name : sorted) {
+                key.append(' ').append(name).append('=').append(params.path(name).asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmark;
+
+import com.example.model.Product;
+
+import java.util.*;
+
+/**
+ * Deterministic, realistic-looking inputs shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    static final String NAME = "  Plums   Red\n\t Small  ";
+    static final String DESCRIPTION = "Description\n      Fresh, juicy red plums   perfect for snacking\n\n or baking. "
+            + "Grown in Ontario   and picked at peak ripeness.\t\tKeep refrigerated.   ";
+
+    private BenchmarkData() {
+    }
+
+    static Map<String, Object> productFields(int i) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "  Product   " + i + "\n\t Red  Small ");
+        data.put("price", " $" + (i % 50) + ".99 ");
+        data.put("description", DESCRIPTION);
+        data.put("image", i % 10 == 0
+                ? "https://www.freshco.com/header/freshcoLogo.svg"
+                : "https://media.sobeys.com/products/" + i + "/front.jpg");
+        data.put("availability", i % 7 == 0 ? " Out of  Stock " : "");
+        return data;
+    }
+
+    static Product product(int i) {
+        return Product.builder()
+                .name("Product " + i + " Red Small")
+                .price("$" + (i % 50) + ".99")
+                .description("Fresh, juicy red plums perfect for snacking or baking, \"sweet\", item " + i)
+                .imageUrl("https://media.sobeys.com/products/" + i + "/front.jpg")
+                .availability(i % 7 == 0 ? "Out of Stock" : "In Stock")
+                .category("Fruits & Vegetables")
+                .build();
+    }
+
+    /**
+     * Product links as a listing page yields them: about a third repeat an earlier product,
+     * some with tracking parameters or a trailing slash
+     */
+    static List<String> productLinks(int count) {
+        Random random = new Random(42);
+        List<String> links = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = random.nextInt(3) == 0 && i > 0 ? random.nextInt(i) : i;
+            String link = "https://www.freshco.com/products/product-" + id;
+            switch (random.nextInt(4)) {
+                case 0 -> link += "/";
+                case 1 -> link += "?utm_source=listing";
+                default -> {
+                }
+            }
+            links.add(link);
+        }
+        return links;
+    }
+}
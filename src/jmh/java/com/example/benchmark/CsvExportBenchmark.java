@@ -0,0 +1,83 @@
+package com.example.benchmark;
+
+import com.example.model.Product;
+import com.example.model.ProductBatch;
+import com.example.service.CsvExportService;
+import com.example.util.CrawlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a full run's products to CSV
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private List<Product> products;
+    private ProductBatch batch;
+    private CsvExportService csvExportService;
+    private Path outputDir;
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        products = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            products.add(BenchmarkData.product(i));
+        }
+        batch = new ProductBatch(records);
+        batch.addAll(products);
+
+        outputDir = Files.createTempDirectory("csv-bench");
+        csvFile = outputDir.resolve("products.csv");
+        csvExportService = new CsvExportService();
+        Field outputPath = CsvExportService.class.getDeclaredField("csvOutputPath");
+        outputPath.setAccessible(true);
+        outputPath.set(csvExportService, csvFile.toString());
+        Field metrics = CsvExportService.class.getDeclaredField("crawlMetrics");
+        metrics.setAccessible(true);
+        metrics.set(csvExportService, new CrawlMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Setup(Level.Invocation)
+    public void deleteOutput() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(outputDir);
+    }
+
+    @Benchmark
+    public String exportToCsv() {
+        return csvExportService.exportToCSV(products);
+    }
+
+    @Benchmark
+    public String exportBatchToCsv() {
+        return csvExportService.exportToCSV(batch);
+    }
+
+    @Benchmark
+    public void appendToCsv() {
+        csvExportService.appendToCSV(products);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.benchmark;
+
+import com.example.util.UrlFrontier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicating the product links of a category page
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkDedupeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int links;
+
+    private List<String> hrefs;
+
+    @Setup
+    public void setUp() {
+        hrefs = BenchmarkData.productLinks(links);
+    }
+
+    /**
+     * The original approach: ArrayList.contains per link, raw hrefs
+     */
+    @Benchmark
+    public List<String> arrayListContains() {
+        List<String> unique = new ArrayList<>();
+        for (String href : hrefs) {
+            if (!unique.contains(href)) {
+                unique.add(href);
+            }
+        }
+        return unique;
+    }
+
+    @Benchmark
+    public Set<String> normalizedHashSet() {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String href : hrefs) {
+            unique.add(UrlFrontier.normalize(href));
+        }
+        return unique;
+    }
+
+    @Benchmark
+    public UrlFrontier frontierClaim() {
+        UrlFrontier frontier = new UrlFrontier();
+        for (String href : hrefs) {
+            frontier.claim(href);
+        }
+        return frontier;
+    }
+}
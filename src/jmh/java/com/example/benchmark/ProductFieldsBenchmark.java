@@ -0,0 +1,54 @@
+package com.example.benchmark;
+
+import com.example.model.Product;
+import com.example.util.ProductFields;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-field cleanup that runs on every scraped product
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductFieldsBenchmark {
+
+    private List<Map<String, Object>> fields;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fields = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            fields.add(BenchmarkData.productFields(i));
+        }
+    }
+
+    @Benchmark
+    public String cleanTextName() {
+        return ProductFields.cleanText(BenchmarkData.NAME);
+    }
+
+    @Benchmark
+    public String cleanTextDescription() {
+        return ProductFields.cleanText(BenchmarkData.DESCRIPTION);
+    }
+
+    @Benchmark
+    public boolean placeholderImageFilter() {
+        return ProductFields.isPlaceholderImage("https://media.sobeys.com/products/123456/front.jpg");
+    }
+
+    @Benchmark
+    public Product buildProduct() {
+        Map<String, Object> data = fields.get(next++ & 1023);
+        return ProductFields.buildProduct(data, "Fruits & Vegetables");
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.benchmark;
+
+import com.example.FreshcoCrawlerApplication;
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import com.example.service.ScraperService;
+import com.example.util.ReplayServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * End-to-end crawl of a recorded corpus served by {@link ReplayServer}: reports product pages
+ * fetched per second and p50/p99 per-page latency, from navigation start to extraction end,
+ * for the current scraper configuration.
+ * Usage: ReplayThroughputBenchmark [corpus-dir] [--app.scraper.some-property=value ...]
+ * System properties replay.latency-ms, replay.jitter-ms and replay.failure-rate shape the server.
+ */
+public class ReplayThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path corpus = Paths.get(args.length > 0 && !args[0].startsWith("--") ? args[0] : "./replay-corpus");
+        List<String> overrides = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                overrides.add(arg.substring(2));
+            }
+        }
+
+        try (ReplayServer server = new ReplayServer(corpus)
+                .latency(Long.getLong("replay.latency-ms", 100), Long.getLong("replay.jitter-ms", 50))
+                .failureRate(Double.parseDouble(System.getProperty("replay.failure-rate", "0")))
+                .start(0)) {
+
+            List<String> properties = new ArrayList<>(List.of(
+                    "app.scraper.base-url=" + server.getBaseUrl(),
+                    "app.scraper.headless=true",
+                    "app.scraper.replay.record=false",
+                    "app.scraper.replay.serve=false",
+                    "app.scraper.incremental.enabled=false",
+                    "app.scraper.csv-output-path=./target/replay-benchmark/products.csv"));
+            properties.addAll(overrides);
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FreshcoCrawlerApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(properties.toArray(String[]::new))
+                    .run()) {
+
+                Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+                CrawlRun run = new CrawlRun();
+                run.addListener(new CrawlRun.Listener() {
+                    @Override
+                    public void pageFetched(String category, String url, long nanos) {
+                        latencies.add(nanos / 1_000_000);
+                    }
+                });
+
+                long start = System.nanoTime();
+                List<Product> products = context.getBean(ScraperService.class).scrapeAllCategories(run);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                report(server, products.size(), seconds, new ArrayList<>(latencies), run);
+            }
+        }
+    }
+
+    private static void report(ReplayServer server, int products, double seconds, List<Long> latencies, CrawlRun run)
+            throws Exception {
+        // One latency per fetched product page; checkpointed, unchanged and listing-only products never navigate
+        int pages = latencies.size();
+        Collections.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("products", products);
+        result.put("pages", pages);
+        result.put("seconds", Math.round(seconds * 100) / 100.0);
+        result.put("pagesPerSecond", Math.round(pages / seconds * 100) / 100.0);
+        result.put("p50LatencyMs", percentile(latencies, 0.50));
+        result.put("p99LatencyMs", percentile(latencies, 0.99));
+        result.put("maxLatencyMs", latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1));
+        result.put("fetchPaths", run.getFetchPathCounts());
+        result.put("server", server.getStats());
+
+        File output = new File("target/replay-benchmark/result.json");
+        output.getParentFile().mkdirs();
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+        System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.config;
+
+import com.example.model.Product;
+import com.example.service.ProductJsonParser;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Watches the JSON the site's frontend fetches (XHR/fetch) while a product page loads, over
+ * CDP Network events, and reads the product from those responses instead of the DOM.
+ * Pages without a matching response fall back to DOM extraction; both paths are counted.
+ */
+@Component
+public class NetworkCapture {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkCapture.class);
+
+    private static final Set<String> CAPTURED_TYPES = Set.of("XHR", "Fetch");
+
+    @Value("${app.scraper.capture.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Response URLs to read (* wildcard); empty = every JSON response
+     */
+    @Value("${app.scraper.capture.url-patterns:}")
+    private List<String> urlPatterns;
+
+    @Value("${app.scraper.capture.max-body-kb:2048}")
+    private int maxBodyKb;
+
+    @Autowired
+    private ProductJsonParser productJsonParser;
+
+    private final Map<WebDriver, PageResponses> pages = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicLong networkPages = new AtomicLong();
+    private final AtomicLong domPages = new AtomicLong();
+    private final AtomicLong responsesRead = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final Map<String, AtomicLong> fallbackReasons = new ConcurrentHashMap<>();
+
+    private volatile List<Pattern> urlRegexes;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start recording JSON responses of the driver's current tab
+     */
+    public void attach(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasDevTools hasDevTools)) {
+            return;
+        }
+
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            PageResponses page = new PageResponses(devTools);
+
+            devTools.addListener(event("Network.responseReceived"), received -> onResponseReceived(page, received));
+            devTools.addListener(event("Network.loadingFinished"), finished -> {
+                Object length = finished.get("encodedDataLength");
+                CapturedResponse response = page.responses.get(String.valueOf(finished.get("requestId")));
+                if (response != null) {
+                    response.finished = !(length instanceof Number n) || n.longValue() <= maxBodyKb * 1024L;
+                }
+            });
+
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            pages.put(driver, page);
+            logger.debug("Network capture attached: urlPatterns={}", urlPatterns);
+
+        } catch (Exception e) {
+            logger.warn("Network capture unavailable, products will be read from the DOM: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forget the previous page's responses before the driver loads pageUrl
+     */
+    public void startPage(WebDriver driver, String pageUrl) {
+        PageResponses page = pages.get(driver);
+        if (page != null) {
+            page.responses.clear();
+            page.pageUrl = pageUrl;
+        }
+    }
+
+    /**
+     * The product from the JSON responses of the loaded page, or null when the page has to be
+     * read from the DOM. Call once the page is ready, so its requests have finished.
+     */
+    public Product takeProduct(WebDriver driver, String productUrl, String categoryName) {
+        if (!enabled) {
+            return null;
+        }
+        PageResponses page = pages.get(driver);
+        // Tabs opened by the pipeline are not attached; their responses are never seen
+        if (page == null || !productUrl.equals(page.pageUrl)) {
+            return fallBack("not-captured");
+        }
+
+        List<CapturedResponse> finished = new ArrayList<>();
+        synchronized (page.responses) {
+            for (CapturedResponse response : page.responses.values()) {
+                if (response.finished) {
+                    finished.add(response);
+                }
+            }
+            page.responses.clear();
+        }
+        if (finished.isEmpty()) {
+            return fallBack("no-response");
+        }
+
+        try {
+            List<Product> candidates = new ArrayList<>();
+            for (CapturedResponse response : finished) {
+                byte[] body = readBody(page.devTools, response.requestId);
+                responsesRead.incrementAndGet();
+                bytesRead.addAndGet(body.length);
+                candidates.addAll(productJsonParser.parse(body, categoryName));
+            }
+
+            Product product = productJsonParser.select(candidates, productUrl);
+            if (product == null) {
+                return fallBack(candidates.isEmpty() ? "no-product" : "no-match");
+            }
+            networkPages.incrementAndGet();
+            logger.debug("Read {} from {} JSON responses", productUrl, finished.size());
+            return product;
+
+        } catch (Exception e) {
+            logger.debug("Could not read JSON responses of {}: {}", productUrl, e.getMessage());
+            return fallBack("error");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = networkPages.get() + domPages.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("networkPages", networkPages.get());
+        stats.put("domFallbackPages", domPages.get());
+        stats.put("networkShare", total == 0 ? 0 : Math.round(networkPages.get() * 1000.0 / total) / 1000.0);
+        stats.put("responsesRead", responsesRead.get());
+        stats.put("bytesRead", bytesRead.get());
+
+        Map<String, Long> reasons = new TreeMap<>();
+        fallbackReasons.forEach((reason, count) -> reasons.put(reason, count.get()));
+        stats.put("fallbackReasons", reasons);
+        return stats;
+    }
+
+    private void onResponseReceived(PageResponses page, Map<String, Object> received) {
+        if (!CAPTURED_TYPES.contains(String.valueOf(received.get("type")))
+                || !(received.get("response") instanceof Map<?, ?> response)) {
+            return;
+        }
+        String url = String.valueOf(response.get("url"));
+        String mimeType = String.valueOf(response.get("mimeType"));
+        boolean ok = response.get("status") instanceof Number status && status.intValue() >= 200 && status.intValue() < 300;
+        if (ok && mimeType.contains("json") && isCaptured(url)) {
+            String requestId = String.valueOf(received.get("requestId"));
+            page.responses.put(requestId, new CapturedResponse(requestId));
+        }
+    }
+
+    private static byte[] readBody(DevTools devTools, String requestId) {
+        Map<String, Object> result = devTools.send(new Command<>("Network.getResponseBody", Map.of("requestId", requestId),
+                input -> input.<Map<String, Object>>read(Json.MAP_TYPE)));
+        String body = String.valueOf(result.get("body"));
+        return Boolean.TRUE.equals(result.get("base64Encoded"))
+                ? Base64.getDecoder().decode(body)
+                : body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Product fallBack(String reason) {
+        domPages.incrementAndGet();
+        fallbackReasons.computeIfAbsent(reason, r -> new AtomicLong()).incrementAndGet();
+        return null;
+    }
+
+    private boolean isCaptured(String url) {
+        if (urlRegexes == null) {
+            List<Pattern> regexes = new ArrayList<>();
+            for (String pattern : urlPatterns) {
+                if (!pattern.isBlank()) {
+                    regexes.add(globToRegex(pattern.trim()));
+                }
+            }
+            urlRegexes = regexes;
+        }
+        if (urlRegexes.isEmpty()) {
+            return true;
+        }
+        for (Pattern regex : urlRegexes) {
+            if (regex.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same wildcard syntax as the resource blocker's patterns: * matches any run of characters
+     */
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> (Map<String, Object>) input.read(Json.MAP_TYPE));
+    }
+
+    /**
+     * JSON responses of the page a driver is on, by CDP request id, in arrival order
+     */
+    private static class PageResponses {
+        private final DevTools devTools;
+        private final Map<String, CapturedResponse> responses = Collections.synchronizedMap(new LinkedHashMap<>());
+        private volatile String pageUrl;
+
+        private PageResponses(DevTools devTools) {
+            this.devTools = devTools;
+        }
+    }
+
+    private static class CapturedResponse {
+        private final String requestId;
+        private volatile boolean finished;
+
+        private CapturedResponse(String requestId) {
+            this.requestId = requestId;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.config;
+
+import com.example.util.ReplayServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Starts the offline replay site alongside the application when app.scraper.replay.serve is on.
+ * Point app.scraper.base-url at http://localhost:{port} to crawl it.
+ */
+@Component
+public class ReplayServerRunner {
+
+    @Value("${app.scraper.replay.serve:false}")
+    private boolean serve;
+
+    @Value("${app.scraper.replay.corpus-dir:./replay-corpus}")
+    private String corpusDir;
+
+    @Value("${app.scraper.replay.port:8090}")
+    private int port;
+
+    @Value("${app.scraper.replay.latency-ms:100}")
+    private long latencyMs;
+
+    @Value("${app.scraper.replay.jitter-ms:50}")
+    private long jitterMs;
+
+    @Value("${app.scraper.replay.failure-rate:0}")
+    private double failureRate;
+
+    private ReplayServer server;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (serve) {
+            server = new ReplayServer(Paths.get(corpusDir))
+                    .latency(latencyMs, jitterMs)
+                    .failureRate(failureRate)
+                    .start(port);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
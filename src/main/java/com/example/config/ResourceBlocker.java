@@ -0,0 +1,225 @@
+package com.example.config;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Intercepts browser requests over CDP and fails the ones extraction never needs
+ * (images, fonts, media, third-party analytics) before they hit the network.
+ * Allow-listed URLs always load. Blocked requests and transferred bytes are counted per page.
+ */
+@Component
+public class ResourceBlocker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBlocker.class);
+
+    // Typical transfer sizes per resource type, used to estimate what a blocked request would have cost
+    private static final Map<String, Long> TYPICAL_BYTES = Map.of(
+            "Image", 45_000L,
+            "Media", 500_000L,
+            "Font", 35_000L,
+            "Stylesheet", 25_000L,
+            "Script", 30_000L);
+    private static final long DEFAULT_TYPICAL_BYTES = 5_000L;
+
+    @Value("${app.scraper.blocking.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraper.blocking.resource-types:Image,Media,Font}")
+    private List<String> blockedTypes;
+
+    @Value("${app.scraper.blocking.url-patterns:}")
+    private List<String> blockedUrlPatterns;
+
+    @Value("${app.scraper.blocking.allow-patterns:}")
+    private List<String> allowPatterns;
+
+    @Value("${app.scraper.blocking.browser-image-setting:false}")
+    private boolean browserImageSetting;
+
+    private final Map<WebDriver, PageCounters> pages = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicLong pagesMeasured = new AtomicLong();
+    private final AtomicLong blockedRequests = new AtomicLong();
+    private final AtomicLong estimatedBytesSaved = new AtomicLong();
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    private final Map<String, AtomicLong> blockedByType = new ConcurrentHashMap<>();
+
+    private volatile List<Pattern> allowRegexes;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether images should also be switched off through Chrome's content settings.
+     * That covers every tab, but the requests never reach the interceptor and are not counted.
+     */
+    public boolean disableImagesInBrowser() {
+        return enabled && browserImageSetting;
+    }
+
+    /**
+     * Start intercepting requests of the driver's current tab
+     */
+    public void attach(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasDevTools hasDevTools)) {
+            return;
+        }
+
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            PageCounters counters = new PageCounters();
+
+            devTools.addListener(event("Fetch.requestPaused"), paused -> onRequestPaused(devTools, counters, paused));
+            devTools.addListener(event("Network.loadingFinished"), finished -> {
+                Object length = finished.get("encodedDataLength");
+                if (length instanceof Number n) {
+                    counters.bytes.addAndGet(n.longValue());
+                }
+            });
+
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", requestPatterns())));
+            pages.put(driver, counters);
+            logger.debug("Resource blocking attached: types={}, urlPatterns={}", blockedTypes, blockedUrlPatterns);
+
+        } catch (Exception e) {
+            logger.warn("Resource blocking unavailable, pages will load in full: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Close out the driver's previous page and start counting a new one
+     */
+    public void startPage(WebDriver driver) {
+        PageCounters counters = pages.get(driver);
+        if (counters == null) {
+            return;
+        }
+
+        long blocked = counters.blocked.getAndSet(0);
+        long saved = counters.savedBytes.getAndSet(0);
+        long bytes = counters.bytes.getAndSet(0);
+        if (!counters.started) {
+            counters.started = true;
+            return;
+        }
+
+        pagesMeasured.incrementAndGet();
+        blockedRequests.addAndGet(blocked);
+        estimatedBytesSaved.addAndGet(saved);
+        bytesTransferred.addAndGet(bytes);
+        logger.debug("Page finished: {} requests blocked (~{} KB saved), {} KB transferred",
+                blocked, saved / 1024, bytes / 1024);
+    }
+
+    public Map<String, Object> getStats() {
+        long n = pagesMeasured.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pages", n);
+        stats.put("blockedRequests", blockedRequests.get());
+        stats.put("estimatedBytesSaved", estimatedBytesSaved.get());
+        stats.put("bytesTransferred", bytesTransferred.get());
+        stats.put("blockedRequestsPerPage", n == 0 ? 0 : Math.round(blockedRequests.get() * 10.0 / n) / 10.0);
+        stats.put("estimatedBytesSavedPerPage", n == 0 ? 0 : estimatedBytesSaved.get() / n);
+        stats.put("bytesTransferredPerPage", n == 0 ? 0 : bytesTransferred.get() / n);
+
+        Map<String, Long> byType = new TreeMap<>();
+        blockedByType.forEach((type, count) -> byType.put(type, count.get()));
+        stats.put("blockedByType", byType);
+        return stats;
+    }
+
+    private void onRequestPaused(DevTools devTools, PageCounters counters, Map<String, Object> paused) {
+        Object requestId = paused.get("requestId");
+        String url = paused.get("request") instanceof Map<?, ?> request ? String.valueOf(request.get("url")) : "";
+        String type = String.valueOf(paused.get("resourceType"));
+
+        try {
+            if (isAllowed(url)) {
+                devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+                return;
+            }
+            devTools.send(new Command<>("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+            counters.blocked.incrementAndGet();
+            counters.savedBytes.addAndGet(TYPICAL_BYTES.getOrDefault(type, DEFAULT_TYPICAL_BYTES));
+            blockedByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        } catch (Exception e) {
+            logger.debug("Could not resolve paused request {}: {}", url, e.getMessage());
+        }
+    }
+
+    private List<Map<String, Object>> requestPatterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : blockedTypes) {
+            if (!type.isBlank()) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", type.trim(), "requestStage", "Request"));
+            }
+        }
+        for (String urlPattern : blockedUrlPatterns) {
+            if (!urlPattern.isBlank()) {
+                patterns.add(Map.of("urlPattern", urlPattern.trim(), "requestStage", "Request"));
+            }
+        }
+        return patterns;
+    }
+
+    private boolean isAllowed(String url) {
+        if (allowRegexes == null) {
+            List<Pattern> regexes = new ArrayList<>();
+            for (String pattern : allowPatterns) {
+                if (!pattern.isBlank()) {
+                    regexes.add(globToRegex(pattern.trim()));
+                }
+            }
+            allowRegexes = regexes;
+        }
+        for (Pattern regex : allowRegexes) {
+            if (regex.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same wildcard syntax as CDP url patterns: * matches any run of characters
+     */
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> (Map<String, Object>) input.read(Json.MAP_TYPE));
+    }
+
+    private static class PageCounters {
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong savedBytes = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private volatile boolean started;
+    }
+}
@@ -1,15 +1,16 @@
 package com.example.config;
 
+import com.example.util.CrawlMetrics;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class SeleniumConfig {
@@ -20,11 +21,33 @@ public class SeleniumConfig {
     @Value("${app.scraper.headless:false}")
     private boolean headless;
 
-    @Bean
-    @Scope("prototype")
-    public WebDriver webDriver() {
-        // Setup ChromeDriver using WebDriverManager
-        WebDriverManager.chromedriver().setup();
+    @Autowired
+    private ResourceBlocker resourceBlocker;
+
+    @Autowired
+    private NetworkCapture networkCapture;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    private volatile boolean driverBinaryResolved;
+
+    /**
+     * Resolve the ChromeDriver binary once per application run
+     */
+    public synchronized void resolveDriverBinary() {
+        if (!driverBinaryResolved) {
+            // Setup ChromeDriver using WebDriverManager
+            WebDriverManager.chromedriver().setup();
+            driverBinaryResolved = true;
+        }
+    }
+
+    /**
+     * Launch a new configured Chrome instance
+     */
+    public WebDriver createDriver() {
+        resolveDriverBinary();
 
         ChromeOptions options = new ChromeOptions();
 
@@ -44,7 +67,16 @@ public class SeleniumConfig {
         options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
         options.setExperimentalOption("useAutomationExtension", false);
 
-        WebDriver driver = new ChromeDriver(options);
+        if (resourceBlocker.disableImagesInBrowser()) {
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+
+        WebDriver driver = crawlMetrics.time(CrawlMetrics.DRIVER_STARTUP, () -> {
+            WebDriver started = new ChromeDriver(options);
+            resourceBlocker.attach(started);
+            networkCapture.attach(started);
+            return started;
+        });
 
         // Set timeouts
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(timeout));
@@ -53,4 +85,4 @@ public class SeleniumConfig {
 
         return driver;
     }
-}
\ No newline at end of file
+}
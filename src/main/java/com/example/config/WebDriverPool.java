@@ -0,0 +1,316 @@
+package com.example.config;
+
+import com.example.util.CrawlMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of pre-started Chrome instances with borrow/return semantics.
+ * Drivers are health-checked on borrow, recycled after max age or max uses,
+ * and have cookies and storage wiped before the next borrower gets them.
+ */
+@Component
+public class WebDriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+
+    @Autowired
+    private SeleniumConfig seleniumConfig;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    @Value("${app.scraper.pool.max-size:4}")
+    private int maxSize;
+
+    @Value("${app.scraper.pool.min-idle:1}")
+    private int minIdle;
+
+    @Value("${app.scraper.pool.max-uses:50}")
+    private int maxUses;
+
+    @Value("${app.scraper.pool.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${app.scraper.pool.borrow-timeout-seconds:120}")
+    private long borrowTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledDriver> borrowed = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+    // Drivers already quit, so a late release or invalidate does not quit them again
+    private final Set<WebDriver> retired = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    // Guards closed against drivers entering the idle deque during shutdown
+    private final Object lock = new Object();
+
+    private Semaphore permits;
+    private volatile boolean closed;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, maxSize), true);
+        crawlMetrics.gauge("scraper.pool.drivers", idle, LinkedBlockingDeque::size, "state", "idle");
+        crawlMetrics.gauge("scraper.pool.drivers", borrowed, Map::size, "state", "borrowed");
+    }
+
+    /**
+     * Resolve the driver binary and pre-start min-idle drivers without blocking startup.
+     * With min-idle 0 nothing is resolved or started until the first borrow.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (minIdle <= 0) {
+            return;
+        }
+        Thread warmUp = new Thread(() -> {
+            try {
+                seleniumConfig.resolveDriverBinary();
+                for (int i = idle.size(); i < Math.min(minIdle, maxSize) && !closed; i++) {
+                    PooledDriver pooled = new PooledDriver(seleniumConfig.createDriver());
+                    created.incrementAndGet();
+                    // Starting Chrome takes seconds; the pool may have shut down meanwhile
+                    if (!offerIdle(pooled, false)) {
+                        destroy(pooled);
+                        return;
+                    }
+                }
+                logger.info("WebDriver pool warmed up with {} idle drivers", idle.size());
+            } catch (Exception e) {
+                logger.warn("WebDriver pool warm-up failed, drivers will be started on demand: {}", e.getMessage());
+            }
+        }, "webdriver-pool-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    /**
+     * Borrow a healthy driver, starting a new one if none is idle.
+     * Throws IllegalStateException once the pool has shut down.
+     */
+    public WebDriver borrow() {
+        checkOpen();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("No WebDriver available within " + borrowTimeoutSeconds + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver", e);
+        }
+
+        try {
+            PooledDriver pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (!pooled.isExpired() && pooled.isHealthy()) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                checkOpen();
+                pooled = new PooledDriver(seleniumConfig.createDriver());
+                created.incrementAndGet();
+            }
+
+            // Shutdown quits the borrowed drivers it sees; one handed out after that would leak
+            synchronized (lock) {
+                if (closed) {
+                    destroy(pooled);
+                    checkOpen();
+                }
+                pooled.uses++;
+                borrowed.put(pooled.driver, pooled);
+            }
+            return pooled.driver;
+
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a driver to the pool, recycling it if it is worn out or cannot be reset
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        PooledDriver pooled = borrowed.remove(driver);
+        if (pooled == null) {
+            if (!retired.contains(driver)) {
+                logger.warn("Released a WebDriver that was not borrowed from the pool, quitting it");
+                quietlyQuit(driver);
+            }
+            return;
+        }
+
+        try {
+            // LIFO keeps the most recently used drivers warm
+            if (closed || pooled.isExpired() || !pooled.reset() || !offerIdle(pooled, true)) {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Discard a borrowed driver that is known to be broken
+     */
+    public void invalidate(WebDriver driver) {
+        PooledDriver pooled = borrowed.remove(driver);
+        if (pooled == null) {
+            if (!retired.contains(driver)) {
+                quietlyQuit(driver);
+            }
+            return;
+        }
+        destroy(pooled);
+        permits.release();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Map<String, Integer> getStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        stats.put("maxSize", maxSize);
+        stats.put("idle", idle.size());
+        stats.put("borrowed", borrowed.size());
+        stats.put("created", created.get());
+        stats.put("destroyed", destroyed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (lock) {
+            closed = true;
+        }
+        PooledDriver pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        synchronized (borrowed) {
+            for (PooledDriver inUse : borrowed.values()) {
+                destroy(inUse);
+            }
+            borrowed.clear();
+        }
+        logger.info("WebDriver pool shut down");
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool is shut down");
+        }
+    }
+
+    /**
+     * Put a driver in the idle deque unless the pool has shut down
+     */
+    private boolean offerIdle(PooledDriver pooled, boolean first) {
+        synchronized (lock) {
+            if (closed) {
+                return false;
+            }
+            if (first) {
+                idle.offerFirst(pooled);
+            } else {
+                idle.offerLast(pooled);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Quit a pooled driver once; later calls for the same driver do nothing
+     */
+    private void destroy(PooledDriver pooled) {
+        if (!retired.add(pooled.driver)) {
+            return;
+        }
+        destroyed.incrementAndGet();
+        quietlyQuit(pooled.driver);
+    }
+
+    private void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting WebDriver: {}", e.getMessage());
+        }
+    }
+
+    private class PooledDriver {
+        private final WebDriver driver;
+        private final long createdAt = System.currentTimeMillis();
+        private int uses;
+
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        private boolean isExpired() {
+            long ageMillis = System.currentTimeMillis() - createdAt;
+            return uses >= maxUses || ageMillis >= TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+        }
+
+        private boolean isHealthy() {
+            try {
+                driver.getWindowHandle();
+                return true;
+            } catch (Exception e) {
+                logger.debug("Pooled WebDriver failed health check: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        /**
+         * Wipe cookies and storage so the next borrower starts from a clean session
+         */
+        private boolean reset() {
+            try {
+                String mainWindow = driver.getWindowHandles().iterator().next();
+                for (String handle : driver.getWindowHandles()) {
+                    if (!handle.equals(mainWindow)) {
+                        driver.switchTo().window(handle).close();
+                    }
+                }
+                driver.switchTo().window(mainWindow);
+
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+                driver.manage().deleteAllCookies();
+                if (driver instanceof ChromiumDriver chromium) {
+                    chromium.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                }
+                driver.get("about:blank");
+                return true;
+            } catch (Exception e) {
+                logger.debug("Could not reset pooled WebDriver: {}", e.getMessage());
+                return false;
+            }
+        }
+    }
+}
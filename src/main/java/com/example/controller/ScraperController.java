@@ -1,17 +1,38 @@
 package com.example.controller;
 
-import com.example.model.Product;
+import com.example.config.NetworkCapture;
+import com.example.config.ResourceBlocker;
+import com.example.model.Availability;
+import com.example.model.CrawlJob;
+import com.example.model.CrawlRun;
+import com.example.model.HistoryRun;
+import com.example.model.Price;
+import com.example.model.ProductQuery;
+import com.example.model.SiteDiscovery;
+import com.example.service.CheckpointService;
+import com.example.service.CrawlJobService;
+import com.example.service.HtmlParsePool;
+import com.example.service.ImageDownloadService;
+import com.example.service.PolitenessScheduler;
+import com.example.service.PriceHistoryStore;
+import com.example.service.ProductIndexService;
+import com.example.service.ScrapeResultCache;
 import com.example.service.ScraperService;
+import com.example.service.SitemapDiscoveryService;
+import com.example.util.ProductIndex;
+import com.example.util.ScriptRegistry;
+import com.example.util.WaitUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/scraper")
@@ -22,6 +43,48 @@ public class ScraperController {
     @Autowired
     private ScraperService scraperService;
 
+    @Autowired
+    private WaitUtil waitUtil;
+
+    @Autowired
+    private CrawlJobService crawlJobService;
+
+    @Autowired
+    private PolitenessScheduler politenessScheduler;
+
+    @Autowired
+    private ResourceBlocker resourceBlocker;
+
+    @Autowired
+    private NetworkCapture networkCapture;
+
+    @Autowired
+    private SitemapDiscoveryService sitemapDiscoveryService;
+
+    @Autowired
+    private CheckpointService checkpointService;
+
+    @Autowired
+    private ProductIndexService productIndexService;
+
+    @Autowired
+    private ScrapeResultCache scrapeResultCache;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Autowired
+    private ImageDownloadService imageDownloadService;
+
+    @Autowired
+    private ScriptRegistry scriptRegistry;
+
+    @Autowired
+    private HtmlParsePool htmlParsePool;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_DIFF_LIMIT = 1000;
+
     /**
      * Health check endpoint
      */
@@ -38,9 +101,9 @@ public class ScraperController {
      * URL: http://localhost:8080/api/scraper/scrape
      */
     @GetMapping("/scrape")
-    public ResponseEntity<Map<String, Object>> scrapeAllCategoriesGet() {
+    public ResponseEntity<Map<String, Object>> scrapeAllCategoriesGet(@RequestParam(defaultValue = "false") boolean refresh) {
         logger.info("Starting scraping of all categories (GET request)");
-        return performScraping();
+        return performScraping(refresh);
     }
 
     /**
@@ -48,24 +111,29 @@ public class ScraperController {
      * URL: http://localhost:8080/api/scraper/scrape
      */
     @PostMapping("/scrape")
-    public ResponseEntity<Map<String, Object>> scrapeAllCategoriesPost() {
+    public ResponseEntity<Map<String, Object>> scrapeAllCategoriesPost(@RequestParam(defaultValue = "false") boolean refresh) {
         logger.info("Starting scraping of all categories (POST request)");
-        return performScraping();
+        return performScraping(refresh);
     }
 
     /**
-     * Common scraping logic
+     * Common scraping logic. Results are cached; refresh=true forces a new crawl.
      */
-    private ResponseEntity<Map<String, Object>> performScraping() {
+    private ResponseEntity<Map<String, Object>> performScraping(boolean refresh) {
         try {
-            List<Product> products = scraperService.scrapeAllCategories();
+            ScrapeResultCache.Lookup lookup = scrapeResultCache.get(ScrapeResultCache.ALL_CATEGORIES,
+                    scraperService::scrapeAllCategories, refresh);
+            CrawlRun run = lookup.result().run();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Scraping completed successfully! CSV file created.");
-            response.put("totalProducts", products.size());
+            response.put("runId", run.getId());
+            response.put("totalProducts", run.getProductsScraped());
             response.put("csvLocation", "./output/products.csv");
             response.put("note", "Check the ./output/products.csv file for all scraped data");
+            response.put("fetchPaths", run.getFetchPathCounts());
+            putCacheInfo(response, lookup);
 
             return ResponseEntity.ok(response);
 
@@ -86,33 +154,42 @@ public class ScraperController {
      * URL: http://localhost:8080/api/scraper/scrape/Snacks & Candy
      */
     @GetMapping("/scrape/{categoryName}")
-    public ResponseEntity<Map<String, Object>> scrapeSingleCategoryGet(@PathVariable String categoryName) {
+    public ResponseEntity<Map<String, Object>> scrapeSingleCategoryGet(@PathVariable String categoryName,
+                                                                       @RequestParam(defaultValue = "false") boolean refresh) {
         logger.info("Starting scraping of category: {} (GET request)", categoryName);
-        return performCategoryScraping(categoryName);
+        return performCategoryScraping(categoryName, refresh);
     }
 
     /**
      * Scrape a single category - POST
      */
     @PostMapping("/scrape/{categoryName}")
-    public ResponseEntity<Map<String, Object>> scrapeSingleCategoryPost(@PathVariable String categoryName) {
+    public ResponseEntity<Map<String, Object>> scrapeSingleCategoryPost(@PathVariable String categoryName,
+                                                                        @RequestParam(defaultValue = "false") boolean refresh) {
         logger.info("Starting scraping of category: {} (POST request)", categoryName);
-        return performCategoryScraping(categoryName);
+        return performCategoryScraping(categoryName, refresh);
     }
 
     /**
      * Common category scraping logic
      */
-    private ResponseEntity<Map<String, Object>> performCategoryScraping(String categoryName) {
+    private ResponseEntity<Map<String, Object>> performCategoryScraping(String categoryName, boolean refresh) {
         try {
-            List<Product> products = scraperService.scrapeSingleCategory(categoryName);
+            if (!scraperService.getCategories().containsKey(categoryName)) {
+                throw new IllegalArgumentException("Invalid category: " + categoryName);
+            }
+            ScrapeResultCache.Lookup lookup = scrapeResultCache.get(categoryName,
+                    run -> scraperService.scrapeSingleCategory(categoryName, run), refresh);
+            CrawlRun run = lookup.result().run();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Category scraped successfully! CSV file created.");
             response.put("category", categoryName);
-            response.put("totalProducts", products.size());
+            response.put("totalProducts", run.getProductsScraped());
             response.put("csvLocation", "./output/products.csv");
+            response.put("fetchPaths", run.getFetchPathCounts());
+            putCacheInfo(response, lookup);
 
             return ResponseEntity.ok(response);
 
@@ -135,6 +212,43 @@ public class ScraperController {
         }
     }
 
+    /**
+     * How the result was obtained: hit, stale (refresh running), miss, coalesced (joined another request's crawl)
+     */
+    private void putCacheInfo(Map<String, Object> response, ScrapeResultCache.Lookup lookup) {
+        response.put("cache", lookup.status().name().toLowerCase());
+        response.put("ageSeconds", lookup.result().ageMillis() / 1000);
+        if (lookup.status() == ScrapeResultCache.Status.HIT || lookup.status() == ScrapeResultCache.Status.STALE) {
+            response.put("message", "Served from cache; the CSV was written when this result was scraped.");
+        }
+    }
+
+    /**
+     * Result cache hit/miss/coalesced counts and the age of each cached result
+     * URL: http://localhost:8080/api/scraper/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("cache", scrapeResultCache.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Image download counts and disk usage of the content-addressed image cache
+     * URL: http://localhost:8080/api/scraper/images
+     */
+    @GetMapping("/images")
+    public ResponseEntity<Map<String, Object>> getImageStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("images", imageDownloadService.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get available categories
      * URL: http://localhost:8080/api/scraper/categories
@@ -148,6 +262,372 @@ public class ScraperController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Submit an asynchronous crawl job; returns immediately with the job id
+     * URL: POST http://localhost:8080/api/scraper/jobs?category=Bakery (omit category for all)
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestParam(required = false) String category) {
+        try {
+            CrawlJob job = crawlJobService.submit(category);
+
+            Map<String, Object> response = new HashMap<>(job.toMap());
+            response.put("success", true);
+            response.put("statusUrl", "/api/scraper/jobs/" + job.getId());
+            response.put("eventsUrl", "/api/scraper/jobs/" + job.getId() + "/events");
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("availableCategories", scraperService.getCategories().keySet());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Too many crawl jobs queued, try again later");
+
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+        }
+    }
+
+    /**
+     * List known crawl jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> listJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (CrawlJob job : crawlJobService.getJobs()) {
+            jobs.add(job.toMap());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobs", jobs);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Job status and progress
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        CrawlJob job = crawlJobService.getJob(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        return ResponseEntity.ok(job.toMap());
+    }
+
+    /**
+     * Cancel a queued or running job
+     */
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String jobId) {
+        CrawlJob job = crawlJobService.cancel(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        return ResponseEntity.ok(job.toMap());
+    }
+
+    /**
+     * Continue an interrupted all-categories crawl from its checkpoint; the job keeps the run id
+     * URL: POST http://localhost:8080/api/scraper/jobs/{jobId}/resume
+     */
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeJob(@PathVariable String jobId) {
+        try {
+            CrawlJob job = crawlJobService.resume(jobId);
+
+            Map<String, Object> response = new HashMap<>(job.toMap());
+            response.put("success", true);
+            response.put("statusUrl", "/api/scraper/jobs/" + job.getId());
+            response.put("eventsUrl", "/api/scraper/jobs/" + job.getId() + "/events");
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return jobNotFound(jobId);
+
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Too many crawl jobs queued, try again later");
+
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+        }
+    }
+
+    /**
+     * Checkpointed crawls that can be resumed, including those from before a restart
+     * URL: http://localhost:8080/api/scraper/checkpoints
+     */
+    @GetMapping("/checkpoints")
+    public ResponseEntity<Map<String, Object>> listCheckpoints() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("checkpoints", checkpointService.list());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> deleteJob(@PathVariable String jobId) {
+        return cancelJob(jobId);
+    }
+
+    /**
+     * Server-Sent-Events stream of per-category and per-product progress
+     * URL: http://localhost:8080/api/scraper/jobs/{jobId}/events
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable String jobId) {
+        SseEmitter emitter = crawlJobService.subscribe(jobId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Query the latest crawl's products from the in-memory index, never touching the browser
+     * URL: http://localhost:8080/api/scraper/products?q=red plums&category=Fruits & Vegetables&maxPrice=5&sort=price_asc
+     */
+    @GetMapping("/products")
+    public ResponseEntity<Map<String, Object>> queryProducts(@RequestParam(required = false) String q,
+                                                             @RequestParam(required = false) String category,
+                                                             @RequestParam(required = false) String availability,
+                                                             @RequestParam(required = false) String minPrice,
+                                                             @RequestParam(required = false) String maxPrice,
+                                                             @RequestParam(defaultValue = "crawl_order") String sort,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        ProductQuery query = new ProductQuery();
+        try {
+            query.setText(q);
+            query.setCategory(category);
+            if (availability != null) {
+                query.setAvailability(Availability.valueOf(availability.trim().toUpperCase().replace(' ', '_')));
+            }
+            query.setMinCents(toCents(minPrice));
+            query.setMaxCents(toCents(maxPrice));
+            query.setSort(ProductQuery.Sort.valueOf(sort.trim().toUpperCase()));
+            if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (long) page * size > Integer.MAX_VALUE - size) {
+                throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+            }
+            query.setPage(page);
+            query.setSize(size);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Invalid query: " + e.getMessage());
+            errorResponse.put("sortOptions", Arrays.stream(ProductQuery.Sort.values()).map(o -> o.name().toLowerCase()).toList());
+            errorResponse.put("availabilityOptions", Arrays.stream(Availability.values()).map(Availability::getLabel).toList());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        ProductIndex index = productIndexService.getIndex();
+        long start = System.nanoTime();
+        ProductIndex.Result result = index.search(query);
+        long tookMicros = (System.nanoTime() - start) / 1000;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("total", result.total());
+        response.put("page", page);
+        response.put("size", size);
+        response.put("products", result.products());
+        response.put("tookMicros", tookMicros);
+        response.put("indexedProducts", index.size());
+        response.put("indexedAt", index.getBuiltAt());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Crawl runs recorded in the price history, oldest first
+     * URL: http://localhost:8080/api/scraper/history/runs
+     */
+    @GetMapping("/history/runs")
+    public ResponseEntity<Map<String, Object>> listHistoryRuns() {
+        List<HistoryRun> runs = priceHistoryStore.getRuns();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("enabled", priceHistoryStore.isEnabled());
+        response.put("count", runs.size());
+        response.put("runs", runs);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Adds, removals and price or availability changes between two recorded runs,
+     * by run id or sequence number; defaults to the previous and the latest run
+     * URL: http://localhost:8080/api/scraper/history/diff?from=previous&to=latest
+     */
+    @GetMapping("/history/diff")
+    public ResponseEntity<Map<String, Object>> diffHistory(@RequestParam(defaultValue = "previous") String from,
+                                                           @RequestParam(defaultValue = "latest") String to,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        HistoryRun fromRun = priceHistoryStore.findRun(from);
+        HistoryRun toRun = priceHistoryStore.findRun(to);
+        if (fromRun == null || toRun == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Unknown run: " + (fromRun == null ? from : to));
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>(
+                priceHistoryStore.diff(fromRun, toRun, Math.max(0, Math.min(limit, MAX_DIFF_LIMIT))));
+        response.put("success", true);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Every recorded state of one product, keyed by run sequence number
+     * URL: http://localhost:8080/api/scraper/history/product?url=https://example.com/products/123
+     */
+    @GetMapping("/history/product")
+    public ResponseEntity<Map<String, Object>> productHistory(@RequestParam String url) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("product", url);
+        response.put("history", priceHistoryStore.getProductHistory(url));
+
+        return ResponseEntity.ok(response);
+    }
+
+    private Integer toCents(String price) {
+        if (price == null || price.isBlank()) {
+            return null;
+        }
+        Price parsed = Price.parse(price);
+        if (parsed == null || parsed.cents() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("not a price: " + price);
+        }
+        return (int) parsed.cents();
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound(String jobId) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Unknown job: " + jobId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /**
+     * Pages parsed off the browser by the HTML parse pool
+     * URL: http://localhost:8080/api/scraper/parsing
+     */
+    @GetMapping("/parsing")
+    public ResponseEntity<Map<String, Object>> getParseStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("parsing", htmlParsePool.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Versions of the browser scripts and how many calls used a pinned handle
+     * URL: http://localhost:8080/api/scraper/scripts
+     */
+    @GetMapping("/scripts")
+    public ResponseEntity<Map<String, Object>> getScriptStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("scripts", scriptRegistry.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * How long readiness waits actually took, per page type
+     * URL: http://localhost:8080/api/scraper/waits
+     */
+    @GetMapping("/waits")
+    public ResponseEntity<Map<String, Object>> getWaitStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("waits", waitUtil.getReadinessStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Category tree and product URL count read from the site's sitemaps
+     * URL: http://localhost:8080/api/scraper/discovery?refresh=true
+     */
+    @GetMapping("/discovery")
+    public ResponseEntity<Map<String, Object>> getDiscovery(@RequestParam(defaultValue = "false") boolean refresh) {
+        SiteDiscovery discovery = refresh ? sitemapDiscoveryService.discover() : sitemapDiscoveryService.getDiscovery();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("categoryCount", discovery.getCategories().size());
+        response.put("productUrlCount", discovery.getProductUrls().size());
+        response.put("sitemapsRead", discovery.getSitemapsRead());
+        response.put("durationMs", discovery.getDurationMs());
+        response.put("categoryTree", discovery.getCategoryTree());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Per-host rate limits, concurrency windows and congestion counters
+     * URL: http://localhost:8080/api/scraper/politeness
+     */
+    @GetMapping("/politeness")
+    public ResponseEntity<Map<String, Object>> getPoliteness() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("hosts", politenessScheduler.getSnapshot());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Requests blocked by resource interception and the bytes saved per page
+     * URL: http://localhost:8080/api/scraper/blocking
+     */
+    @GetMapping("/blocking")
+    public ResponseEntity<Map<String, Object>> getBlockingStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("blocking", resourceBlocker.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Product pages read from captured JSON responses versus the DOM, with fallback reasons
+     * URL: http://localhost:8080/api/scraper/capture
+     */
+    @GetMapping("/capture")
+    public ResponseEntity<Map<String, Object>> getCaptureStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("capture", networkCapture.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Welcome endpoint
      */
@@ -156,12 +636,32 @@ public class ScraperController {
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Welcome to FreshCo Scraper API");
         response.put("instructions", "Open this URL to start scraping: http://localhost:8080/api/scraper/scrape");
-        response.put("endpoints", Map.of(
-                "GET /api/scraper/scrape", "Scrape all categories and create CSV",
-                "GET /api/scraper/scrape/{categoryName}", "Scrape specific category",
-                "GET /api/scraper/categories", "Get available categories",
-                "GET /api/scraper/health", "Health check"
-        ));
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/scraper/scrape?refresh=", "Scrape all categories and create CSV (cached)");
+        endpoints.put("GET /api/scraper/scrape/{categoryName}?refresh=", "Scrape specific category (cached)");
+        endpoints.put("GET /api/scraper/cache", "Scrape result cache statistics");
+        endpoints.put("GET /api/scraper/images", "Image download and cache statistics");
+        endpoints.put("POST /api/scraper/jobs?category=", "Start an asynchronous crawl job");
+        endpoints.put("GET /api/scraper/jobs/{jobId}", "Job status and progress");
+        endpoints.put("GET /api/scraper/jobs/{jobId}/events", "Live job progress (Server-Sent Events)");
+        endpoints.put("POST /api/scraper/jobs/{jobId}/cancel", "Cancel a job");
+        endpoints.put("POST /api/scraper/jobs/{jobId}/resume", "Resume an interrupted crawl from its checkpoint");
+        endpoints.put("GET /api/scraper/checkpoints", "Resumable crawl checkpoints");
+        endpoints.put("GET /api/scraper/categories", "Get available categories");
+        endpoints.put("GET /api/scraper/products?q=&category=&availability=&minPrice=&maxPrice=&sort=&page=&size=",
+                "Query the latest crawl's products from the in-memory index");
+        endpoints.put("GET /api/scraper/history/runs", "Crawl runs recorded in the price history");
+        endpoints.put("GET /api/scraper/history/diff?from=&to=&limit=", "Price, stock and catalogue changes between two runs");
+        endpoints.put("GET /api/scraper/history/product?url=", "Price and availability history of one product");
+        endpoints.put("GET /api/scraper/discovery", "Category tree and product URLs from the sitemaps");
+        endpoints.put("GET /api/scraper/waits", "Readiness wait histograms per page type");
+        endpoints.put("GET /api/scraper/scripts", "Browser script versions and pinned call counts");
+        endpoints.put("GET /api/scraper/parsing", "HTML parse pool workers, queue and counts");
+        endpoints.put("GET /api/scraper/politeness", "Per-host rate limits and concurrency windows");
+        endpoints.put("GET /api/scraper/blocking", "Blocked requests and bytes saved per page");
+        endpoints.put("GET /api/scraper/capture", "Product pages read from JSON responses vs the DOM");
+        endpoints.put("GET /api/scraper/health", "Health check");
+        response.put("endpoints", endpoints);
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,50 @@
+package com.example.model;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Stock state of a product, parsed from the free-text availability shown on the site
+ */
+public enum Availability {
+    IN_STOCK("In Stock"),
+    LOW_STOCK("Low Stock"),
+    OUT_OF_STOCK("Out of Stock"),
+    UNKNOWN("Unknown");
+
+    // Negations first, so "not in stock" never reaches the positive phrases
+    private static final Pattern OUT = Pattern.compile(
+            "\\b(out of stock|sold out|unavailable|no stock|not (currently )?(in stock|available)|no longer available)\\b");
+    private static final Pattern LOW = Pattern.compile("\\b(low stock|only \\d+|\\d+ left|few left|limited)\\b");
+    private static final Pattern IN = Pattern.compile("\\b(in stock|available)\\b");
+
+    private final String label;
+
+    Availability(String label) {
+        this.label = label;
+    }
+
+    /**
+     * The text this state is exported as
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public static Availability parse(String text) {
+        if (text == null || text.isBlank()) {
+            return UNKNOWN;
+        }
+        String value = text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        if (OUT.matcher(value).find()) {
+            return OUT_OF_STOCK;
+        }
+        if (LOW.matcher(value).find()) {
+            return LOW_STOCK;
+        }
+        if (IN.matcher(value).find()) {
+            return IN_STOCK;
+        }
+        return UNKNOWN;
+    }
+}
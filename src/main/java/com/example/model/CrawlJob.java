@@ -0,0 +1,121 @@
+package com.example.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * An asynchronous crawl submitted through the job API
+ */
+public class CrawlJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final CrawlRun run;
+    private final String category;
+    private final boolean resumed;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int totalProducts;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public CrawlJob(String category) {
+        this(category, new CrawlRun(), false);
+    }
+
+    /**
+     * A job continuing the checkpointed all-categories run with the given id
+     */
+    public static CrawlJob resuming(String runId) {
+        return new CrawlJob(null, new CrawlRun(runId), true);
+    }
+
+    private CrawlJob(String category, CrawlRun run, boolean resumed) {
+        this.category = category;
+        this.run = run;
+        this.resumed = resumed;
+    }
+
+    public String getId() {
+        return run.getId();
+    }
+
+    public CrawlRun getRun() {
+        return run;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    public void markCompleted(int totalProducts) {
+        this.totalProducts = totalProducts;
+        finish(Status.COMPLETED);
+    }
+
+    public void markFailed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    public void markCancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Future<?> getFuture() {
+        return future;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", getId());
+        map.put("category", category == null ? "ALL" : category);
+        map.put("status", status);
+        map.put("resumed", resumed);
+        map.put("submittedAt", submittedAt);
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        map.put("progress", run.getProgress());
+        if (status == Status.COMPLETED) {
+            map.put("totalProducts", totalProducts);
+        }
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+
+    private void finish(Status finalStatus) {
+        finishedAt = System.currentTimeMillis();
+        status = finalStatus;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.model;
+
+import com.example.util.CrawlCheckpoint;
+import com.example.util.UrlFrontier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State shared by everything that happens during one crawl run
+ */
+public class CrawlRun {
+
+    /**
+     * Receives progress events; called from crawler threads
+     */
+    public interface Listener {
+        default void categoryStarted(String category) {
+        }
+
+        default void categoryCompleted(String category, int productCount) {
+        }
+
+        default void productScraped(String category, Product product) {
+        }
+
+        /**
+         * A product page was fetched and extracted, or failed; nanos run from navigation start to extraction end
+         */
+        default void pageFetched(String category, String url, long nanos) {
+        }
+    }
+
+    private final String id;
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, AtomicInteger> fetchPaths = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final UrlFrontier frontier = new UrlFrontier();
+    private final AtomicInteger categoriesCompleted = new AtomicInteger();
+    private final AtomicInteger productsScraped = new AtomicInteger();
+    private final Set<String> fullyCrawledCategories = ConcurrentHashMap.newKeySet();
+
+    private volatile int categoriesTotal;
+    private volatile long finishedAt;
+    private volatile boolean cancelled;
+    private volatile CrawlCheckpoint checkpoint;
+
+    public CrawlRun() {
+        this(UUID.randomUUID().toString());
+    }
+
+    /**
+     * A run continuing an earlier one keeps its id
+     */
+    public CrawlRun(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * 0 while the run is in progress
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void finish() {
+        finishedAt = System.currentTimeMillis();
+    }
+
+    public int getProductsScraped() {
+        return productsScraped.get();
+    }
+
+    /**
+     * Count a product page fetched through the given path (e.g. "http", "selenium")
+     */
+    public void recordFetchPath(String path) {
+        fetchPaths.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public Map<String, Integer> getFetchPathCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        fetchPaths.forEach((path, count) -> counts.put(path, count.get()));
+        return counts;
+    }
+
+    /**
+     * Product URLs already claimed by some category of this run
+     */
+    public UrlFrontier getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * Journal of this run, or null when it is not checkpointed
+     */
+    public CrawlCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(CrawlCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setCategoriesTotal(int categoriesTotal) {
+        this.categoriesTotal = categoriesTotal;
+    }
+
+    public void categoryStarted(String category) {
+        listeners.forEach(listener -> listener.categoryStarted(category));
+    }
+
+    public void categoryCompleted(String category, int productCount) {
+        categoriesCompleted.incrementAndGet();
+        listeners.forEach(listener -> listener.categoryCompleted(category, productCount));
+    }
+
+    /**
+     * Mark a category whose listing loaded and whose every product was scraped, without hitting
+     * the per-category limit; only such categories can tell that a product is gone
+     */
+    public void categoryCrawledInFull(String category) {
+        fullyCrawledCategories.add(category);
+    }
+
+    public Set<String> getFullyCrawledCategories() {
+        return new TreeSet<>(fullyCrawledCategories);
+    }
+
+    /**
+     * Count products carried over from a checkpoint; listeners already saw them in the earlier run
+     */
+    public void productsRestored(int count) {
+        productsScraped.addAndGet(count);
+    }
+
+    public void productScraped(String category, Product product) {
+        productsScraped.incrementAndGet();
+        listeners.forEach(listener -> listener.productScraped(category, product));
+    }
+
+    public void pageFetched(String category, String url, long nanos) {
+        listeners.forEach(listener -> listener.pageFetched(category, url, nanos));
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new TreeMap<>();
+        progress.put("categoriesTotal", categoriesTotal);
+        progress.put("categoriesCompleted", categoriesCompleted.get());
+        progress.put("productsScraped", productsScraped.get());
+        progress.put("fetchPaths", getFetchPathCounts());
+        progress.put("uniqueProductUrls", frontier.size());
+        progress.put("duplicateProductUrls", frontier.getDuplicates());
+        return progress;
+    }
+
+    /**
+     * Ask the crawl to stop at the next category or product boundary
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What we last knew about a product URL, persisted between runs
+ */
+@Data
+@NoArgsConstructor
+public class CrawlStateEntry {
+    private String url;
+    private String fingerprint;
+    private long lastSeen;
+    private long lastFetched;
+    private String etag;
+    private String lastModified;
+    private Product product;
+}
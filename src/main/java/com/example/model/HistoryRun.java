@@ -0,0 +1,21 @@
+package com.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A crawl run recorded in the price history
+ */
+@Data
+@NoArgsConstructor
+public class HistoryRun {
+    private long seq;
+    private String runId;
+    private long completedAt;
+    private int productCount;
+    // Products added, changed or removed relative to the previous state
+    private int changeCount;
+    private List<String> categories;
+}
@@ -0,0 +1,19 @@
+package com.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A downloaded image URL and the content-addressed file holding its bytes
+ */
+@Data
+@NoArgsConstructor
+public class ImageEntry {
+    private String url;
+    // Relative to the image directory, named by the SHA-256 of the content
+    private String path;
+    private long size;
+    private long lastFetched;
+    private String etag;
+    private String lastModified;
+}
@@ -0,0 +1,58 @@
+package com.example.model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A price in integer minor units (cents) and an ISO currency code
+ */
+public record Price(long cents, String currency) {
+
+    /**
+     * freshco.com prices are shown with a bare "$" and are Canadian dollars
+     */
+    public static final String DEFAULT_CURRENCY = "CAD";
+
+    private static final Pattern PRICE = Pattern.compile(
+            "^\\s*(?:(CAD|USD|C\\$|US\\$)\\s*)?\\$?\\s*(\\d{1,3}(?:,\\d{3})*|\\d+)(?:\\.(\\d{1,2}))?\\s*(CAD|USD)?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Parse display text such as "$2.49", "$1,299.00" or "CAD 4.99"; null when it is not a single price
+     */
+    public static Price parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = PRICE.matcher(text);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        long dollars = Long.parseLong(matcher.group(2).replace(",", ""));
+        String fraction = matcher.group(3);
+        long cents = fraction == null ? 0 : Long.parseLong(fraction.length() == 1 ? fraction + "0" : fraction);
+
+        String code = matcher.group(1) != null ? matcher.group(1) : matcher.group(4);
+        return new Price(dollars * 100 + cents, currencyCode(code));
+    }
+
+    /**
+     * Display text in the site's format, e.g. "$2.49"
+     */
+    public String format() {
+        String sign = cents < 0 ? "-" : "";
+        long abs = Math.abs(cents);
+        return sign + "$" + (abs / 100) + "." + (abs % 100 < 10 ? "0" : "") + (abs % 100);
+    }
+
+    private static String currencyCode(String code) {
+        if (code == null || code.equalsIgnoreCase("C$")) {
+            return DEFAULT_CURRENCY;
+        }
+        if (code.equalsIgnoreCase("US$")) {
+            return "USD";
+        }
+        return code.toUpperCase();
+    }
+}
@@ -6,7 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
@@ -16,6 +16,10 @@ public class Product {
     private String imageUrl;
     private String availability;
     private String category;
+    // Normalized product page URL, the product's identity across categories
+    private String productUrl;
+    // Retailer SKU; only known when the product came from the site's JSON API
+    private String sku;
 
     @Override
     public String toString() {
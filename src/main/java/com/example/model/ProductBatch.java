@@ -0,0 +1,266 @@
+package com.example.model;
+
+import java.util.*;
+
+/**
+ * Column-oriented, append-only list of products for large crawls. Prices are kept as
+ * cents plus a currency id, availability as an enum ordinal, category as a dictionary id,
+ * and image and product URLs as a shared prefix id (scheme, host and first path segment) plus the rest.
+ * Text that does not survive the typed form unchanged (e.g. "Price unavailable") is kept
+ * verbatim on the side, so {@link #get(int)} always returns what was added. SKUs, known only
+ * for products read from the site's JSON API, are kept on the side as well.
+ * Not thread-safe: one thread appends, and readers see it after the crawl.
+ */
+public class ProductBatch extends AbstractList<Product> implements RandomAccess {
+
+    private static final int NO_PRICE = Integer.MIN_VALUE;
+    private static final Availability[] AVAILABILITIES = Availability.values();
+
+    private final Interner categories = new Interner();
+    private final Interner currencies = new Interner();
+    private final Interner urlPrefixes = new Interner();
+    private final Map<Integer, String> rawPrices = new HashMap<>();
+    private final Map<Integer, String> rawAvailability = new HashMap<>();
+    private final Map<Integer, String> skus = new HashMap<>();
+
+    private String[] names;
+    private String[] descriptions;
+    private int[] priceCents;
+    private byte[] currencyIds;
+    private byte[] availability;
+    private int[] categoryIds;
+    private int[] imagePrefixIds;
+    private String[] imageNames;
+    private int[] urlPrefixIds;
+    private String[] urlNames;
+    private int size;
+
+    public ProductBatch() {
+        this(256);
+    }
+
+    public ProductBatch(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    @Override
+    public boolean add(Product product) {
+        if (size == names.length) {
+            allocate(names.length * 2);
+        }
+        int row = size;
+
+        names[row] = product.getName();
+        descriptions[row] = product.getDescription();
+        categoryIds[row] = categories.id(product.getCategory());
+
+        Price price = Price.parse(product.getPrice());
+        if (price != null && fitsInt(price.cents())) {
+            priceCents[row] = (int) price.cents();
+            currencyIds[row] = (byte) currencies.id(price.currency());
+            if (!price.format().equals(product.getPrice())) {
+                rawPrices.put(row, product.getPrice());
+            }
+        } else {
+            priceCents[row] = NO_PRICE;
+            rawPrices.put(row, product.getPrice());
+        }
+
+        Availability state = Availability.parse(product.getAvailability());
+        availability[row] = (byte) state.ordinal();
+        if (!state.getLabel().equals(product.getAvailability())) {
+            rawAvailability.put(row, product.getAvailability());
+        }
+
+        imagePrefixIds[row] = prefixId(product.getImageUrl());
+        imageNames[row] = suffix(product.getImageUrl());
+        urlPrefixIds[row] = prefixId(product.getProductUrl());
+        urlNames[row] = suffix(product.getProductUrl());
+        if (product.getSku() != null) {
+            skus.put(row, product.getSku());
+        }
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Product get(int index) {
+        Objects.checkIndex(index, size);
+        return Product.builder()
+                .name(names[index])
+                .price(getPriceText(index))
+                .description(descriptions[index])
+                .imageUrl(getImageUrl(index))
+                .availability(getAvailabilityText(index))
+                .category(getCategory(index))
+                .productUrl(getProductUrl(index))
+                .sku(skus.get(index))
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public String getName(int index) {
+        Objects.checkIndex(index, size);
+        return names[index];
+    }
+
+    public String getDescription(int index) {
+        Objects.checkIndex(index, size);
+        return descriptions[index];
+    }
+
+    public boolean hasPrice(int index) {
+        Objects.checkIndex(index, size);
+        return priceCents[index] != NO_PRICE;
+    }
+
+    /**
+     * Price in cents; only meaningful when {@link #hasPrice(int)}
+     */
+    public int getPriceCents(int index) {
+        Objects.checkIndex(index, size);
+        return priceCents[index];
+    }
+
+    public String getCurrency(int index) {
+        return hasPrice(index) ? currencies.value(currencyIds[index]) : null;
+    }
+
+    public Price getPrice(int index) {
+        return hasPrice(index) ? new Price(priceCents[index], currencies.value(currencyIds[index])) : null;
+    }
+
+    /**
+     * The price as it was scraped
+     */
+    public String getPriceText(int index) {
+        String raw = rawPrices.get(index);
+        return raw != null || !hasPrice(index) ? raw : getPrice(index).format();
+    }
+
+    public Availability getAvailability(int index) {
+        Objects.checkIndex(index, size);
+        return AVAILABILITIES[availability[index]];
+    }
+
+    /**
+     * The availability as it was scraped
+     */
+    public String getAvailabilityText(int index) {
+        Objects.checkIndex(index, size);
+        String raw = rawAvailability.get(index);
+        return raw != null || rawAvailability.containsKey(index) ? raw : getAvailability(index).getLabel();
+    }
+
+    public String getCategory(int index) {
+        Objects.checkIndex(index, size);
+        return categories.value(categoryIds[index]);
+    }
+
+    /**
+     * Dictionary id of the row's category, stable for the lifetime of the batch
+     */
+    public int getCategoryId(int index) {
+        Objects.checkIndex(index, size);
+        return categoryIds[index];
+    }
+
+    /**
+     * Distinct categories, indexed by category id
+     */
+    public List<String> getCategories() {
+        return categories.values();
+    }
+
+    public String getImageUrl(int index) {
+        Objects.checkIndex(index, size);
+        return join(imagePrefixIds[index], imageNames[index]);
+    }
+
+    public String getProductUrl(int index) {
+        Objects.checkIndex(index, size);
+        return join(urlPrefixIds[index], urlNames[index]);
+    }
+
+    public String getSku(int index) {
+        Objects.checkIndex(index, size);
+        return skus.get(index);
+    }
+
+    private void allocate(int capacity) {
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        descriptions = descriptions == null ? new String[capacity] : Arrays.copyOf(descriptions, capacity);
+        priceCents = priceCents == null ? new int[capacity] : Arrays.copyOf(priceCents, capacity);
+        currencyIds = currencyIds == null ? new byte[capacity] : Arrays.copyOf(currencyIds, capacity);
+        availability = availability == null ? new byte[capacity] : Arrays.copyOf(availability, capacity);
+        categoryIds = categoryIds == null ? new int[capacity] : Arrays.copyOf(categoryIds, capacity);
+        imagePrefixIds = imagePrefixIds == null ? new int[capacity] : Arrays.copyOf(imagePrefixIds, capacity);
+        imageNames = imageNames == null ? new String[capacity] : Arrays.copyOf(imageNames, capacity);
+        urlPrefixIds = urlPrefixIds == null ? new int[capacity] : Arrays.copyOf(urlPrefixIds, capacity);
+        urlNames = urlNames == null ? new String[capacity] : Arrays.copyOf(urlNames, capacity);
+    }
+
+    private int prefixId(String url) {
+        return url == null ? -1 : urlPrefixes.id(url.substring(0, prefixLength(url)));
+    }
+
+    private static String suffix(String url) {
+        return url == null ? null : url.substring(prefixLength(url));
+    }
+
+    /**
+     * "https://media.sobeys.com/products/" of ".../products/123/front.jpg": shared by all product images of a host
+     */
+    private static int prefixLength(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return 0;
+        }
+        int hostEnd = url.indexOf('/', scheme + 3);
+        if (hostEnd < 0) {
+            return 0;
+        }
+        int segmentEnd = url.indexOf('/', hostEnd + 1);
+        return segmentEnd < 0 ? hostEnd + 1 : segmentEnd + 1;
+    }
+
+    private String join(int prefixId, String suffix) {
+        return prefixId < 0 ? null : urlPrefixes.value(prefixId).concat(suffix);
+    }
+
+    private static boolean fitsInt(long cents) {
+        return cents > NO_PRICE && cents <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Interns values to dense ids; null is its own entry
+     */
+    private static final class Interner {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String value(int id) {
+            return values.get(id);
+        }
+
+        List<String> values() {
+            return Collections.unmodifiableList(values);
+        }
+    }
+}
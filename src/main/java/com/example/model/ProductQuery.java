@@ -0,0 +1,22 @@
+package com.example.model;
+
+import lombok.Data;
+
+/**
+ * Filters, sort order and page of a product index query; null filters match everything
+ */
+@Data
+public class ProductQuery {
+
+    public enum Sort { CRAWL_ORDER, PRICE_ASC, PRICE_DESC, NAME }
+
+    // Every token must appear in the name or description
+    private String text;
+    private String category;
+    private Availability availability;
+    private Integer minCents;
+    private Integer maxCents;
+    private Sort sort = Sort.CRAWL_ORDER;
+    private int page = 0;
+    private int size = 20;
+}
@@ -0,0 +1,47 @@
+package com.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * The tracked state of one product as of some run; removed marks a product that disappeared
+ */
+@Data
+@NoArgsConstructor
+public class ProductSnapshot {
+    private String name;
+    private String price;
+    private Long priceCents;
+    private String availability;
+    private String category;
+    private boolean removed;
+
+    public static ProductSnapshot of(Product product) {
+        ProductSnapshot snapshot = new ProductSnapshot();
+        snapshot.setName(product.getName());
+        snapshot.setPrice(product.getPrice());
+        Price price = Price.parse(product.getPrice());
+        snapshot.setPriceCents(price != null ? price.cents() : null);
+        snapshot.setAvailability(product.getAvailability());
+        snapshot.setCategory(product.getCategory());
+        return snapshot;
+    }
+
+    public static ProductSnapshot removed(ProductSnapshot last) {
+        ProductSnapshot snapshot = new ProductSnapshot();
+        snapshot.setName(last.getName());
+        snapshot.setCategory(last.getCategory());
+        snapshot.setRemoved(true);
+        return snapshot;
+    }
+
+    public boolean priceDiffers(ProductSnapshot other) {
+        return !Objects.equals(price, other.price);
+    }
+
+    public boolean availabilityDiffers(ProductSnapshot other) {
+        return !Objects.equals(availability, other.availability);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Categories and product URLs enumerated from the site's sitemaps
+ */
+@Data
+@NoArgsConstructor
+public class SiteDiscovery {
+    // Leaf category display name ("Parent > Child") -> category path relative to the base URL
+    private Map<String, String> categories = new LinkedHashMap<>();
+    // Nested category names; leaves map to their path
+    private Map<String, Object> categoryTree = new LinkedHashMap<>();
+    private Set<String> productUrls = new LinkedHashSet<>();
+    private int sitemapsRead;
+    private long discoveredAt;
+    private long durationMs;
+}
@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.model.CrawlRun;
+import com.example.util.CrawlCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Creates, reopens and lists the checkpoint journals of all-category crawls,
+ * one file per run id in the checkpoint directory.
+ */
+@Service
+public class CheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointService.class);
+
+    private static final String SUFFIX = ".jsonl";
+
+    @Value("${app.scraper.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraper.checkpoint.dir:./output/checkpoints}")
+    private String checkpointDir;
+
+    /**
+     * Keep the journal of a run that finished; otherwise it is deleted once the CSV is complete
+     */
+    @Value("${app.scraper.checkpoint.keep-completed:false}")
+    private boolean keepCompleted;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start journaling a new run; returns null when checkpointing is disabled
+     */
+    public CrawlCheckpoint start(CrawlRun run, Map<String, String> categories) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            CrawlCheckpoint checkpoint = CrawlCheckpoint.create(pathFor(run.getId()), run.getId(), categories);
+            logger.info("Checkpointing crawl {} to {}", run.getId(), checkpoint.getFile());
+            return checkpoint;
+        } catch (IOException e) {
+            logger.error("Error creating checkpoint for crawl {}", run.getId(), e);
+            throw new RuntimeException("Failed to create checkpoint", e);
+        }
+    }
+
+    public boolean exists(String runId) {
+        return isValidRunId(runId) && Files.isRegularFile(pathFor(runId));
+    }
+
+    /**
+     * Reopen the journal of an earlier run for appending.
+     * Throws IllegalArgumentException when there is no checkpoint for the run.
+     */
+    public CrawlCheckpoint resume(String runId) {
+        if (!exists(runId)) {
+            throw new IllegalArgumentException("No checkpoint for crawl: " + runId);
+        }
+        try {
+            CrawlCheckpoint checkpoint = CrawlCheckpoint.open(pathFor(runId));
+            logger.info("Resuming crawl {}: {} of {} categories and {} products already done", runId,
+                    checkpoint.getCompletedCategories().size(), checkpoint.getCategories().size(),
+                    checkpoint.getProductCount());
+            return checkpoint;
+        } catch (IOException e) {
+            logger.error("Error reading checkpoint for crawl {}", runId, e);
+            throw new RuntimeException("Failed to read checkpoint", e);
+        }
+    }
+
+    /**
+     * Mark the run finished and drop its journal unless keep-completed is set
+     */
+    public void complete(CrawlCheckpoint checkpoint) {
+        checkpoint.recordFinished();
+        checkpoint.close();
+        if (keepCompleted) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(checkpoint.getFile());
+        } catch (IOException e) {
+            logger.warn("Could not delete checkpoint {}: {}", checkpoint.getFile(), e.getMessage());
+        }
+    }
+
+    /**
+     * Summary of every journal in the checkpoint directory
+     */
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> checkpoints = new ArrayList<>();
+        Path dir = Paths.get(checkpointDir);
+        if (!Files.isDirectory(dir)) {
+            return checkpoints;
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).sorted().toList()) {
+                try {
+                    CrawlCheckpoint checkpoint = CrawlCheckpoint.read(file);
+                    Map<String, Object> summary = new LinkedHashMap<>();
+                    summary.put("runId", checkpoint.getRunId());
+                    summary.put("finished", checkpoint.isFinished());
+                    summary.put("categoriesTotal", checkpoint.getCategories().size());
+                    summary.put("categoriesCompleted", checkpoint.getCompletedCategories());
+                    summary.put("productsScraped", checkpoint.getProductCount());
+                    summary.put("lastModified", Files.getLastModifiedTime(file).toMillis());
+                    checkpoints.add(summary);
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable checkpoint {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Error listing checkpoints in {}", dir, e);
+        }
+        return checkpoints;
+    }
+
+    private Path pathFor(String runId) {
+        return Paths.get(checkpointDir, runId + SUFFIX);
+    }
+
+    private boolean isValidRunId(String runId) {
+        // Run ids are UUIDs; anything else could escape the checkpoint directory
+        return runId != null && runId.matches("[0-9a-fA-F-]{1,64}");
+    }
+}
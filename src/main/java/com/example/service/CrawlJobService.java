@@ -0,0 +1,276 @@
+package com.example.service;
+
+import com.example.model.CrawlJob;
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs crawls as background jobs on a dedicated bounded executor, so API requests
+ * return immediately and never tie up servlet threads.
+ */
+@Service
+public class CrawlJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlJobService.class);
+
+    @Autowired
+    private ScraperService scraperService;
+
+    @Autowired
+    private CheckpointService checkpointService;
+
+    @Value("${app.scraper.jobs.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${app.scraper.jobs.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${app.scraper.jobs.retained:100}")
+    private int retainedJobs;
+
+    @Value("${app.scraper.jobs.sse-timeout-minutes:60}")
+    private long sseTimeoutMinutes;
+
+    private final Map<String, CrawlJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "crawl-job-" + threadCount.incrementAndGet()));
+    }
+
+    /**
+     * Queue a crawl of one category, or all categories when category is null.
+     * Throws RejectedExecutionException when the job queue is full.
+     */
+    public CrawlJob submit(String category) {
+        if (category != null && !scraperService.getCategories().containsKey(category)) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+
+        CrawlJob job = new CrawlJob(category);
+        enqueue(job);
+        logger.info("Submitted crawl job {} for {}", job.getId(), category == null ? "all categories" : category);
+        return job;
+    }
+
+    /**
+     * Queue the continuation of an interrupted all-categories crawl from its checkpoint.
+     * The new job keeps the run's id. Throws IllegalArgumentException when there is no
+     * checkpoint and IllegalStateException while the run is still active.
+     */
+    public CrawlJob resume(String runId) {
+        if (!checkpointService.exists(runId)) {
+            throw new IllegalArgumentException("No checkpoint for crawl: " + runId);
+        }
+        CrawlJob previous = jobs.get(runId);
+        if (previous != null && !previous.isFinished()) {
+            throw new IllegalStateException("Crawl " + runId + " is still " + previous.getStatus());
+        }
+
+        CrawlJob job = CrawlJob.resuming(runId);
+        enqueue(job);
+        logger.info("Submitted resume of crawl {}", runId);
+        return job;
+    }
+
+    private void enqueue(CrawlJob job) {
+        job.getRun().addListener(new ProgressPublisher(job));
+        CrawlJob previous = jobs.put(job.getId(), job);
+
+        try {
+            job.setFuture(executor.submit(() -> execute(job)));
+        } catch (RejectedExecutionException e) {
+            if (previous != null) {
+                jobs.put(job.getId(), previous);
+            } else {
+                jobs.remove(job.getId());
+            }
+            throw e;
+        }
+
+        pruneFinishedJobs();
+    }
+
+    public CrawlJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public List<CrawlJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Cancel a job. Queued jobs never start; running jobs stop at the next product boundary.
+     */
+    public CrawlJob cancel(String jobId) {
+        CrawlJob job = jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return job;
+        }
+
+        job.getRun().cancel();
+        if (job.getStatus() == CrawlJob.Status.QUEUED && job.getFuture() != null && job.getFuture().cancel(false)) {
+            // Free its queue slot now rather than when a worker would have dequeued it
+            executor.remove((Runnable) job.getFuture());
+            job.markCancelled();
+            publish(job, "status", job.toMap());
+            completeEmitters(job);
+        }
+        logger.info("Cancellation requested for crawl job {}", jobId);
+        return job;
+    }
+
+    /**
+     * Server-Sent-Events stream of a job's progress
+     */
+    public SseEmitter subscribe(String jobId) {
+        CrawlJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        SseEmitter emitter = newEmitter();
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        send(emitter, "status", job.toMap());
+        if (job.isFinished()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Emitter for one subscriber; package-private so tests can record what is sent
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(TimeUnit.MINUTES.toMillis(sseTimeoutMinutes));
+    }
+
+    private void execute(CrawlJob job) {
+        CrawlRun run = job.getRun();
+        if (run.isCancelled()) {
+            job.markCancelled();
+            completeEmitters(job);
+            return;
+        }
+
+        job.markRunning();
+        publish(job, "status", job.toMap());
+
+        try {
+            if (job.isResumed()) {
+                scraperService.resumeAllCategories(run);
+            } else if (job.getCategory() == null) {
+                scraperService.scrapeAllCategories(run);
+            } else {
+                scraperService.scrapeSingleCategory(job.getCategory(), run);
+            }
+            // Counted as scraped, so it holds when the crawl keeps no product list
+            job.markCompleted(run.getProductsScraped());
+        } catch (Exception e) {
+            if (run.isCancelled()) {
+                job.markCancelled();
+            } else {
+                logger.error("Crawl job {} failed", job.getId(), e);
+                job.markFailed(e.getMessage());
+            }
+        }
+
+        logger.info("Crawl job {} finished with status {}", job.getId(), job.getStatus());
+        publish(job, "status", job.toMap());
+        completeEmitters(job);
+    }
+
+    private void publish(CrawlJob job, String event, Object data) {
+        List<SseEmitter> jobEmitters = emitters.get(job.getId());
+        if (jobEmitters != null) {
+            for (SseEmitter emitter : jobEmitters) {
+                send(emitter, event, data);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the completion callback removes the emitter
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void completeEmitters(CrawlJob job) {
+        List<SseEmitter> jobEmitters = emitters.remove(job.getId());
+        if (jobEmitters != null) {
+            jobEmitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= retainedJobs) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(CrawlJob::isFinished)
+                .sorted(Comparator.comparingLong(CrawlJob::getFinishedAt))
+                .limit(jobs.size() - retainedJobs)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.getRun().cancel());
+        executor.shutdownNow();
+    }
+
+    /**
+     * Forwards crawl progress to the job's SSE subscribers
+     */
+    private class ProgressPublisher implements CrawlRun.Listener {
+        private final CrawlJob job;
+
+        private ProgressPublisher(CrawlJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void categoryStarted(String category) {
+            publish(job, "category-started", Map.of("category", category));
+        }
+
+        @Override
+        public void categoryCompleted(String category, int productCount) {
+            publish(job, "category-completed", Map.of("category", category, "products", productCount,
+                    "progress", job.getRun().getProgress()));
+        }
+
+        @Override
+        public void productScraped(String category, Product product) {
+            publish(job, "product", Map.of("category", category,
+                    "name", String.valueOf(product.getName()), "price", String.valueOf(product.getPrice())));
+        }
+    }
+}
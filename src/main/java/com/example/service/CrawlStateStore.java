@@ -0,0 +1,181 @@
+package com.example.service;
+
+import com.example.model.CrawlStateEntry;
+import com.example.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent per-URL crawl state used by incremental runs. Backed by an MVStore file,
+ * so entries are paged in on demand instead of being held on the heap.
+ */
+@Service
+public class CrawlStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlStateStore.class);
+
+    private static final int CACHE_SIZE_MB = 16;
+
+    @Value("${app.scraper.incremental.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.scraper.incremental.store-path:./output/crawl-state.mv}")
+    private String storePath;
+
+    @Value("${app.scraper.incremental.revalidate-hours:24}")
+    private long revalidateHours;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MVStore store;
+    private MVMap<String, String> entries;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fingerprint of a listing tile: changes whenever the visible tile data changes
+     */
+    public String fingerprint(Map<String, Object> tile) {
+        String content = tile.get("name") + "|" + tile.get("price") + "|" + tile.get("image") + "|" + tile.get("availability");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public CrawlStateEntry get(String url) {
+        String json = entries().get(url);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, CrawlStateEntry.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Discarding unreadable crawl state for {}", url);
+            return null;
+        }
+    }
+
+    /**
+     * Unchanged listing tile and fetched recently enough that the page need not be revisited
+     */
+    public boolean isFresh(CrawlStateEntry entry, String fingerprint) {
+        return isUnchanged(entry, fingerprint)
+                && System.currentTimeMillis() - entry.getLastFetched() < TimeUnit.HOURS.toMillis(revalidateHours);
+    }
+
+    public boolean isUnchanged(CrawlStateEntry entry, String fingerprint) {
+        return entry != null && entry.getProduct() != null && fingerprint != null
+                && fingerprint.equals(entry.getFingerprint());
+    }
+
+    /**
+     * Record a freshly scraped product
+     */
+    public void recordFetched(String url, String fingerprint, Product product) {
+        CrawlStateEntry entry = get(url);
+        if (entry == null) {
+            entry = new CrawlStateEntry();
+            entry.setUrl(url);
+        }
+        long now = System.currentTimeMillis();
+        entry.setFingerprint(fingerprint);
+        entry.setProduct(product);
+        entry.setLastSeen(now);
+        entry.setLastFetched(now);
+        put(entry);
+    }
+
+    /**
+     * Record that an unchanged URL was seen again; validated=true when the page itself was rechecked
+     */
+    public void recordSeen(CrawlStateEntry entry, boolean validated) {
+        long now = System.currentTimeMillis();
+        entry.setLastSeen(now);
+        if (validated) {
+            entry.setLastFetched(now);
+        }
+        put(entry);
+    }
+
+    /**
+     * Remember HTTP validators so the page can later be checked with a conditional request
+     */
+    public void recordValidators(String url, String etag, String lastModified) {
+        if (etag == null && lastModified == null) {
+            return;
+        }
+        CrawlStateEntry entry = get(url);
+        if (entry == null) {
+            entry = new CrawlStateEntry();
+            entry.setUrl(url);
+        }
+        entry.setEtag(etag);
+        entry.setLastModified(lastModified);
+        put(entry);
+    }
+
+    public long size() {
+        return entries().sizeAsLong();
+    }
+
+    private void put(CrawlStateEntry entry) {
+        try {
+            entries().put(entry.getUrl(), objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not persist crawl state for {}", entry.getUrl(), e);
+        }
+    }
+
+    private synchronized MVMap<String, String> entries() {
+        if (entries == null) {
+            try {
+                Path path = Paths.get(storePath);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create crawl state directory", e);
+            }
+            store = new MVStore.Builder()
+                    .fileName(storePath)
+                    .cacheSize(CACHE_SIZE_MB)
+                    .compress()
+                    .open();
+            entries = store.openMap("products");
+            logger.info("Opened crawl state store {} with {} entries", storePath, entries.sizeAsLong());
+        }
+        return entries;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (store != null) {
+            store.close();
+            store = null;
+            entries = null;
+        }
+    }
+}
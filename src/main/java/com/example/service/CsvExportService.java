@@ -1,10 +1,13 @@
 package com.example.service;
 
 import com.example.model.Product;
+import com.example.model.ProductBatch;
+import com.example.util.CrawlMetrics;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,16 +16,113 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class CsvExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvExportService.class);
 
+    static final String[] HEADERS = {
+            "Product Name", "Price", "Description", "Image URL", "Availability", "Category"
+    };
+
+    static final String IMAGE_PATH_HEADER = "Image Path";
+
     @Value("${app.scraper.csv-output-path:./output/Products_ALl_Task_.csv}")
     private String csvOutputPath;
 
+    @Value("${app.scraper.export.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.scraper.export.flush-batch-size:50}")
+    private int flushBatchSize;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    @Autowired
+    private ImageDownloadService imageDownloadService;
+
+    /**
+     * Open a streaming export to the configured CSV path.
+     * Records are written as they arrive and the file is replaced on completion.
+     */
+    public CsvExportStream openStream() {
+        try {
+            return new CsvExportStream(Paths.get(csvOutputPath), queueCapacity, flushBatchSize, crawlMetrics, imagePaths());
+        } catch (IOException e) {
+            logger.error("Error opening CSV export stream", e);
+            throw new RuntimeException("Failed to export CSV", e);
+        }
+    }
+
+    /**
+     * Column headers; with image downloads on, an Image Path column follows the fixed columns
+     */
+    static String[] headers(Function<String, String> imagePaths) {
+        if (imagePaths == null) {
+            return HEADERS;
+        }
+        String[] headers = Arrays.copyOf(HEADERS, HEADERS.length + 1);
+        headers[HEADERS.length] = IMAGE_PATH_HEADER;
+        return headers;
+    }
+
+    /**
+     * Write one product as a CSV record in column order; imagePaths maps an image URL to its local file
+     */
+    static void printProduct(CSVPrinter csvPrinter, Product product, Function<String, String> imagePaths) throws IOException {
+        printRecord(csvPrinter, imagePaths,
+                product.getName(),
+                product.getPrice(),
+                product.getDescription(),
+                product.getImageUrl(),
+                product.getAvailability(),
+                product.getCategory()
+        );
+    }
+
+    /**
+     * Write all products; a ProductBatch is read column by column without building Product objects
+     */
+    static void printAll(CSVPrinter csvPrinter, List<Product> products, Function<String, String> imagePaths) throws IOException {
+        if (products instanceof ProductBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                printRecord(csvPrinter, imagePaths,
+                        batch.getName(i),
+                        batch.getPriceText(i),
+                        batch.getDescription(i),
+                        batch.getImageUrl(i),
+                        batch.getAvailabilityText(i),
+                        batch.getCategory(i)
+                );
+            }
+            return;
+        }
+        for (Product product : products) {
+            printProduct(csvPrinter, product, imagePaths);
+        }
+    }
+
+    private static void printRecord(CSVPrinter csvPrinter, Function<String, String> imagePaths, String name, String price,
+                                    String description, String imageUrl, String availability, String category) throws IOException {
+        if (imagePaths == null) {
+            csvPrinter.printRecord(name, price, description, imageUrl, availability, category);
+        } else {
+            csvPrinter.printRecord(name, price, description, imageUrl, availability, category, imagePaths.apply(imageUrl));
+        }
+    }
+
+    /**
+     * Resolver for the Image Path column, or null when images are not downloaded
+     */
+    private Function<String, String> imagePaths() {
+        return imageDownloadService != null && imageDownloadService.isEnabled() ? imageDownloadService.pathResolver() : null;
+    }
+
     /**
      * Export products to CSV file
      */
@@ -31,35 +131,24 @@ public class CsvExportService {
             logger.warn("No products to export");
             return null;
         }
+        return crawlMetrics.time(CrawlMetrics.CSV_EXPORT, () -> writeCSV(products), "mode", "batch");
+    }
 
+    private String writeCSV(List<Product> products) {
         try {
             // Create output directory if it doesn't exist
             Path outputPath = Paths.get(csvOutputPath);
             Files.createDirectories(outputPath.getParent());
 
-            // Define CSV headers - 6 columns now
-            String[] headers = {
-                    "Product Name", "Price", "Description", "Image URL", "Availability", "Category"
-            };
-
             // Create CSV printer
             try (FileWriter writer = new FileWriter(csvOutputPath);
                  CSVPrinter csvPrinter = new CSVPrinter(writer,
                          CSVFormat.DEFAULT.builder()
-                                 .setHeader(headers)
+                                 .setHeader(headers(imagePaths()))
                                  .build())) {
 
-                // Write product data - 6 fields now
-                for (Product product : products) {
-                    csvPrinter.printRecord(
-                            product.getName(),
-                            product.getPrice(),
-                            product.getDescription(),
-                            product.getImageUrl(),
-                            product.getAvailability(),
-                            product.getCategory()
-                    );
-                }
+                // Write product data - 6 fields, plus the image path when images are downloaded
+                printAll(csvPrinter, products, imagePaths());
 
                 csvPrinter.flush();
                 logger.info("Successfully exported {} products to {}", products.size(), csvOutputPath);
@@ -79,7 +168,10 @@ public class CsvExportService {
         if (products == null || products.isEmpty()) {
             return;
         }
+        crawlMetrics.time(CrawlMetrics.CSV_EXPORT, () -> appendCSV(products), "mode", "append");
+    }
 
+    private void appendCSV(List<Product> products) {
         try {
             Path outputPath = Paths.get(csvOutputPath);
             boolean fileExists = Files.exists(outputPath);
@@ -91,19 +183,10 @@ public class CsvExportService {
                                  .build())) {
 
                 if (!fileExists) {
-                    csvPrinter.printRecord("Product Name", "Price", "Description", "Image URL", "Availability", "Category");
+                    csvPrinter.printRecord((Object[]) headers(imagePaths()));
                 }
 
-                for (Product product : products) {
-                    csvPrinter.printRecord(
-                            product.getName(),
-                            product.getPrice(),
-                            product.getDescription(),
-                            product.getImageUrl(),
-                            product.getAvailability(),
-                            product.getCategory()
-                    );
-                }
+                printAll(csvPrinter, products, imagePaths());
 
                 csvPrinter.flush();
                 logger.info("Appended {} products to CSV", products.size());
@@ -0,0 +1,215 @@
+package com.example.service;
+
+import com.example.model.Product;
+import com.example.util.CrawlMetrics;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Streams products to CSV while the crawl is still running. Producers hand records to a
+ * bounded queue (blocking when the writer falls behind); a single writer thread appends
+ * them to a temp file, flushing every batch, and the temp file is atomically renamed onto
+ * the target when the run completes. After a crash the temp file holds everything flushed so far.
+ * Each stream has its own temp file next to the target, so concurrent crawls never share one.
+ */
+public class CsvExportStream implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvExportStream.class);
+
+    private static final Product END_OF_STREAM = new Product();
+
+    private final Path target;
+    private final Path tempFile;
+    private final int batchSize;
+    private final BlockingQueue<Product> queue;
+    private final Thread writerThread;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final CrawlMetrics metrics;
+    private final Function<String, String> imagePaths;
+
+    private volatile Exception writerError;
+    private volatile boolean finished;
+
+    public CsvExportStream(Path target, int queueCapacity, int batchSize) throws IOException {
+        this(target, queueCapacity, batchSize, null);
+    }
+
+    /**
+     * metrics may be null; when set, each batch write is timed as the csv-export stage
+     */
+    public CsvExportStream(Path target, int queueCapacity, int batchSize, CrawlMetrics metrics) throws IOException {
+        this(target, queueCapacity, batchSize, metrics, null);
+    }
+
+    /**
+     * imagePaths may be null; when set, an Image Path column is written and the writer thread
+     * resolves each product's image path, so producers never block on a download directly
+     */
+    public CsvExportStream(Path target, int queueCapacity, int batchSize, CrawlMetrics metrics,
+                           Function<String, String> imagePaths) throws IOException {
+        this.target = target;
+        this.metrics = metrics;
+        this.imagePaths = imagePaths;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.tempFile = Files.createTempFile(directory, target.getFileName() + ".", ".tmp");
+        BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8);
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                .setHeader(CsvExportService.headers(imagePaths))
+                .build());
+
+        this.writerThread = new Thread(() -> drain(printer), "csv-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a product for writing; blocks while the queue is full
+     */
+    public void write(Product product) {
+        checkWriter();
+        try {
+            if (!queue.offer(product)) {
+                stalls.incrementAndGet();
+                queue.put(product);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing product for export", e);
+        }
+    }
+
+    public void writeAll(List<Product> products) {
+        for (Product product : products) {
+            write(product);
+        }
+    }
+
+    /**
+     * Flush remaining records and move the temp file onto the target.
+     * Returns the target path, or null when nothing was written.
+     */
+    public String complete() {
+        stopWriter();
+        checkWriter();
+
+        try {
+            if (written.get() == 0) {
+                Files.deleteIfExists(tempFile);
+                logger.warn("No products to export");
+                return null;
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to finalize CSV export", e);
+        }
+
+        logger.info("Successfully exported {} products to {} (producers waited on the writer {} times)",
+                written.get(), target, stalls.get());
+        return target.toString();
+    }
+
+    /**
+     * Stop writing but keep the partial temp file for inspection or recovery
+     */
+    public void abort() {
+        stopWriter();
+        logger.warn("CSV export aborted after {} products; partial output kept at {}", written.get(), tempFile);
+    }
+
+    public Path getTempFile() {
+        return tempFile;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    @Override
+    public void close() {
+        if (!finished) {
+            abort();
+        }
+    }
+
+    private void drain(CSVPrinter printer) {
+        List<Product> batch = new ArrayList<>(batchSize);
+        try (printer) {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                long start = System.nanoTime();
+
+                boolean end = false;
+                for (Product product : batch) {
+                    if (product == END_OF_STREAM) {
+                        end = true;
+                        break;
+                    }
+                    CsvExportService.printProduct(printer, product, imagePaths);
+                    written.incrementAndGet();
+                }
+                printer.flush();
+                batch.clear();
+                if (metrics != null) {
+                    metrics.record(CrawlMetrics.CSV_EXPORT, System.nanoTime() - start, "mode", "stream");
+                }
+
+                if (end) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            writerError = e;
+            logger.error("CSV writer failed", e);
+            // Unblock producers waiting on a full queue
+            queue.clear();
+        }
+    }
+
+    private void stopWriter() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            if (writerError == null) {
+                queue.put(END_OF_STREAM);
+            }
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+        }
+    }
+
+    private void checkWriter() {
+        if (writerError != null) {
+            throw new RuntimeException("Failed to export CSV", writerError);
+        }
+    }
+}
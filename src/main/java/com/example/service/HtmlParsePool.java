@@ -0,0 +1,143 @@
+package com.example.service;
+
+import com.example.model.Product;
+import com.example.util.CrawlMetrics;
+import com.example.util.ProductFields;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parse stage of the split product pipeline. The browser only captures each rendered page's
+ * HTML and moves on; these CPU workers parse it with ProductHtmlParser, the Java port of the
+ * in-page extraction script. When the bounded queue is full the capturing thread parses the
+ * page itself, which slows the browser to the parsers' pace instead of buffering pages.
+ */
+@Service
+public class HtmlParsePool {
+
+    private static final Logger logger = LoggerFactory.getLogger(HtmlParsePool.class);
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
+    @Value("${app.scraper.parse.offload:false}")
+    private boolean enabled;
+
+    /**
+     * Parse threads; 0 = one per available core
+     */
+    @Value("${app.scraper.parse.workers:0}")
+    private int workers;
+
+    @Value("${app.scraper.parse.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Autowired
+    private ProductHtmlParser productHtmlParser;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong parsedByCaller = new AtomicLong();
+    private final AtomicLong capturedBytes = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "html-parse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    parsedByCaller.incrementAndGet();
+                    task.run();
+                });
+        logger.info("Parsing product pages on {} worker threads", threads);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Parse a captured product page; completes with null when the page cannot be parsed,
+     * never exceptionally
+     */
+    public CompletableFuture<Product> parse(String html, String productUrl, String categoryName) {
+        capturedBytes.addAndGet(html.length());
+        return CompletableFuture.supplyAsync(() -> parseNow(html, productUrl, categoryName), executor);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("workers", executor != null ? executor.getMaximumPoolSize() : 0);
+        stats.put("queued", executor != null ? executor.getQueue().size() : 0);
+        stats.put("parsed", parsed.get());
+        stats.put("failed", failed.get());
+        stats.put("parsedByCaller", parsedByCaller.get());
+        stats.put("capturedBytes", capturedBytes.get());
+        return stats;
+    }
+
+    /**
+     * Let the workers finish the queue for a while, then parse what is left on this thread.
+     * The workers are daemon threads, so nothing else would wait for them, and a dropped
+     * parse would leave its crawl waiting forever.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> leftover = executor.shutdownNow();
+        logger.warn("Parsing {} queued product pages during shutdown", leftover.size());
+        leftover.forEach(Runnable::run);
+    }
+
+    private Product parseNow(String html, String productUrl, String categoryName) {
+        try {
+            Map<String, Object> data = crawlMetrics.time(CrawlMetrics.EXTRACTION,
+                    () -> productHtmlParser.extract(Jsoup.parse(html, productUrl)), "page", "product-parse");
+            Product product = ProductFields.buildProduct(data, categoryName);
+            product.setProductUrl(productUrl);
+            parsed.incrementAndGet();
+            return product;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            logger.error("Error parsing product page {}: {}", productUrl, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches pages with a plain HTTP client, without starting a browser
+ */
+@Service
+public class HttpFetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpFetchService.class);
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final PolitenessScheduler politenessScheduler;
+
+    public HttpFetchService(@Value("${app.scraper.timeout:30}") int timeoutSeconds,
+                            PolitenessScheduler politenessScheduler) {
+        this.politenessScheduler = politenessScheduler;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Fetch and parse an HTML page. Returns null when the page could not be fetched.
+     */
+    public Document fetchDocument(String url) {
+        HttpPage page = fetchPage(url);
+        return page != null ? page.document() : null;
+    }
+
+    /**
+     * Fetch and parse an HTML page along with its cache validators.
+     * Returns null when the page could not be fetched.
+     */
+    public HttpPage fetchPage(String url) {
+        HttpRequest request = newRequest(url).build();
+        PolitenessScheduler.Permit permit = politenessScheduler.acquire(url);
+        int status = PolitenessScheduler.UNKNOWN;
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+
+            try (InputStream body = decode(response)) {
+                if (response.statusCode() != 200) {
+                    logger.debug("HTTP {} for {}", response.statusCode(), url);
+                    return null;
+                }
+                return new HttpPage(Jsoup.parse(body, null, url),
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null));
+            }
+
+        } catch (IOException e) {
+            logger.debug("HTTP fetch failed for {}: {}", url, e.getMessage());
+            status = PolitenessScheduler.FAILED;
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            politenessScheduler.release(permit, status);
+        }
+    }
+
+    /**
+     * Open a raw response body for streaming, with transfer compression already decoded.
+     * Returns null on any status other than 200; the caller closes the stream.
+     * The host's politeness permit is held until then, since the body is still being downloaded.
+     */
+    public InputStream openStream(String url) throws IOException {
+        PolitenessScheduler.Permit permit = politenessScheduler.acquire(url);
+        int status = PolitenessScheduler.UNKNOWN;
+        try {
+            long sent = System.nanoTime();
+            HttpResponse<InputStream> response = httpClient.send(newRequest(url).setHeader("Accept", "*/*").build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            if (status != 200) {
+                response.body().close();
+                logger.debug("HTTP {} for {}", status, url);
+                return null;
+            }
+            // Rate the host on time to the response headers, not on how long the caller reads
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+            InputStream body = releasingOnClose(decode(response), permit, status, latencyMs);
+            permit = null;
+            return body;
+        } catch (IOException e) {
+            status = PolitenessScheduler.FAILED;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + url, e);
+        } finally {
+            if (permit != null) {
+                politenessScheduler.release(permit, status);
+            }
+        }
+    }
+
+    private InputStream releasingOnClose(InputStream body, PolitenessScheduler.Permit permit, int status, long latencyMs) {
+        return new FilterInputStream(body) {
+            private boolean released;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!released) {
+                        released = true;
+                        politenessScheduler.release(permit, status, latencyMs);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Conditional GET with stored validators; true when the server answers 304 Not Modified
+     */
+    public boolean isNotModified(String url, String etag, String lastModified) {
+        if (etag == null && lastModified == null) {
+            return false;
+        }
+
+        HttpRequest.Builder builder = newRequest(url);
+        if (etag != null) builder.header("If-None-Match", etag);
+        if (lastModified != null) builder.header("If-Modified-Since", lastModified);
+
+        PolitenessScheduler.Permit permit = politenessScheduler.acquire(url);
+        int status = PolitenessScheduler.UNKNOWN;
+        try {
+            HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+            return status == 304;
+        } catch (IOException e) {
+            logger.debug("Conditional request failed for {}: {}", url, e.getMessage());
+            status = PolitenessScheduler.FAILED;
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            politenessScheduler.release(permit, status);
+        }
+    }
+
+    /**
+     * Conditional GET of a binary resource such as an image. Returns the response with its body
+     * open on 200, without a body on 304, or null on any other status; the caller closes it.
+     * Like {@link #openStream(String)}, the host's permit is held until the body is closed.
+     */
+    public HttpResource fetchResource(String url, String etag, String lastModified) throws IOException {
+        HttpRequest.Builder builder = newRequest(url).setHeader("Accept", "image/*,*/*;q=0.8");
+        if (etag != null) builder.header("If-None-Match", etag);
+        if (lastModified != null) builder.header("If-Modified-Since", lastModified);
+
+        PolitenessScheduler.Permit permit = politenessScheduler.acquire(url);
+        int status = PolitenessScheduler.UNKNOWN;
+        try {
+            long sent = System.nanoTime();
+            HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            if (status == 304) {
+                response.body().close();
+                return new HttpResource(status, null, null, etag, lastModified);
+            }
+            if (status != 200) {
+                response.body().close();
+                logger.debug("HTTP {} for {}", status, url);
+                return null;
+            }
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+            HttpResource resource = new HttpResource(status, releasingOnClose(decode(response), permit, status, latencyMs),
+                    response.headers().firstValue("Content-Type").orElse(null),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+            permit = null;
+            return resource;
+        } catch (IOException e) {
+            status = PolitenessScheduler.FAILED;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + url, e);
+        } finally {
+            if (permit != null) {
+                politenessScheduler.release(permit, status);
+            }
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+    }
+
+    private InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (encoding.equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(response.body());
+        }
+        return response.body();
+    }
+
+    public record HttpPage(Document document, String etag, String lastModified) {
+    }
+
+    /**
+     * A fetched resource; body is null when the server answered 304 Not Modified
+     */
+    public record HttpResource(int status, InputStream body, String contentType, String etag,
+                               String lastModified) implements AutoCloseable {
+        public boolean isNotModified() {
+            return status == 304;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+}
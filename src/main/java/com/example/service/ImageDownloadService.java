@@ -0,0 +1,474 @@
+package com.example.service;
+
+import com.example.model.CrawlRun;
+import com.example.model.ImageEntry;
+import com.example.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads product images on an I/O executor while the crawl continues. Files are named by
+ * the SHA-256 of their content, so images shared by several products or URLs are stored once.
+ * Known URLs are revalidated with conditional requests, and the least recently used files
+ * are evicted when the directory outgrows its disk budget.
+ */
+@Service
+public class ImageDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDownloadService.class);
+
+    private static final int CACHE_SIZE_MB = 4;
+    private static final String INDEX_FILE = "images.mv";
+    private static final Pattern URL_EXTENSION = Pattern.compile("\\.(jpe?g|png|webp|gif|avif|svg)(?:[?#]|$)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Outcome of one image request; REVALIDATED is a stale image the server confirmed unchanged (304)
+     */
+    public enum Outcome { DOWNLOADED, DEDUPLICATED, REVALIDATED, CACHED, FAILED }
+
+    @Value("${app.scraper.images.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.scraper.images.dir:./output/images}")
+    private String imageDir;
+
+    @Value("${app.scraper.images.threads:8}")
+    private int threads;
+
+    @Value("${app.scraper.images.max-disk-mb:1024}")
+    private long maxDiskMb;
+
+    @Value("${app.scraper.images.revalidate-hours:24}")
+    private long revalidateHours;
+
+    /**
+     * Total time one CSV export may spend waiting for images still downloading; once it is
+     * used up, rows of unfinished downloads get the remote image URL instead of a local path
+     */
+    @Value("${app.scraper.images.wait-seconds:30}")
+    private long waitSeconds;
+
+    @Autowired
+    private HttpFetchService httpFetchService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Outcome, AtomicLong> counts = new EnumMap<>(Outcome.class);
+    private final AtomicLong bytesDownloaded = new AtomicLong();
+    private final AtomicLong evictedFiles = new AtomicLong();
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    private Path directory;
+    private ExecutorService executor;
+    private MVStore store;
+    // image URL -> ImageEntry
+    private MVMap<String, String> urls;
+    // stored file, relative to the directory -> last used (epoch millis)
+    private MVMap<String, Long> files;
+
+    public ImageDownloadService() {
+        for (Outcome outcome : Outcome.values()) {
+            counts.put(outcome, new AtomicLong());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start downloading each product's image as soon as the run scrapes it
+     */
+    public void track(CrawlRun run) {
+        if (!enabled) {
+            return;
+        }
+        run.addListener(new CrawlRun.Listener() {
+            @Override
+            public void productScraped(String category, Product product) {
+                submit(product.getImageUrl());
+            }
+        });
+    }
+
+    /**
+     * Queue an image download; completes with the local file path, or null when the image
+     * could not be fetched. Concurrent requests for the same URL share one download.
+     */
+    public CompletableFuture<String> submit(String imageUrl) {
+        String url = normalize(imageUrl);
+        if (!enabled || url == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        open();
+
+        CompletableFuture<String> running = inFlight.get(url);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(url, mine);
+        if (running != null) {
+            return running;
+        }
+
+        try {
+            executor.execute(() -> {
+                String path = null;
+                try {
+                    path = download(url);
+                } catch (RuntimeException e) {
+                    logger.warn("Image download failed for {}: {}", url, e.getMessage());
+                    counts.get(Outcome.FAILED).incrementAndGet();
+                } finally {
+                    // Leave the in-flight map first, so later callers never join a finished download
+                    inFlight.remove(url, mine);
+                    mine.complete(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(url, mine);
+            mine.complete(null);
+        }
+        return mine;
+    }
+
+    /**
+     * Local path of an image, downloading it first if needed; empty when unavailable
+     */
+    public String awaitPath(String imageUrl) {
+        try {
+            String path = submit(imageUrl).get(waitSeconds, TimeUnit.SECONDS);
+            return path != null ? path : "";
+        } catch (TimeoutException e) {
+            logger.debug("Image {} still downloading after {}s", imageUrl, waitSeconds);
+            return "";
+        } catch (ExecutionException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+
+    /**
+     * Image Path resolver for one export. Finished downloads give their local path; running ones
+     * are waited for out of a single wait-seconds budget shared by the whole export, so a slow
+     * image host cannot stall the CSV writer for every row. Unfinished downloads give the remote URL.
+     */
+    public Function<String, String> pathResolver() {
+        AtomicLong budgetNanos = new AtomicLong(TimeUnit.SECONDS.toNanos(waitSeconds));
+        return imageUrl -> {
+            String stored = freshPath(imageUrl);
+            if (stored != null) {
+                return stored;
+            }
+            CompletableFuture<String> download = submit(imageUrl);
+            long start = System.nanoTime();
+            try {
+                String path = download.isDone() ? download.getNow(null)
+                        : download.get(Math.max(0, budgetNanos.get()), TimeUnit.NANOSECONDS);
+                return path != null ? path : "";
+            } catch (TimeoutException e) {
+                logger.debug("Image {} still downloading; writing its remote URL", imageUrl);
+                return imageUrl;
+            } catch (ExecutionException e) {
+                return "";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return imageUrl;
+            } finally {
+                budgetNanos.addAndGet(-(System.nanoTime() - start));
+            }
+        };
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        counts.forEach((outcome, count) -> stats.put(outcome.name().toLowerCase(), count.get()));
+        stats.put("inFlight", inFlight.size());
+        stats.put("bytesDownloaded", bytesDownloaded.get());
+        stats.put("evictedFiles", evictedFiles.get());
+        stats.put("diskBytes", diskBytes.get());
+        stats.put("maxDiskBytes", maxDiskBytes());
+        stats.put("files", files != null ? files.size() : 0);
+        return stats;
+    }
+
+    /**
+     * Local path of an image stored and still fresh, e.g. downloaded earlier in the crawl; null otherwise
+     */
+    private String freshPath(String imageUrl) {
+        String url = normalize(imageUrl);
+        if (!enabled || url == null) {
+            return null;
+        }
+        open();
+        ImageEntry entry = readEntry(url);
+        return entry != null && isFresh(entry, System.currentTimeMillis()) ? directory.resolve(entry.getPath()).toString() : null;
+    }
+
+    private boolean isFresh(ImageEntry entry, long now) {
+        return entry.getPath() != null && Files.isRegularFile(directory.resolve(entry.getPath()))
+                && now - entry.getLastFetched() < TimeUnit.HOURS.toMillis(revalidateHours);
+    }
+
+    private String download(String url) {
+        ImageEntry entry = readEntry(url);
+        Path file = entry != null && entry.getPath() != null ? directory.resolve(entry.getPath()) : null;
+        boolean cached = file != null && Files.isRegularFile(file);
+        long now = System.currentTimeMillis();
+
+        if (cached && isFresh(entry, now)) {
+            files.put(entry.getPath(), now);
+            counts.get(Outcome.CACHED).incrementAndGet();
+            return file.toString();
+        }
+
+        try (HttpFetchService.HttpResource resource = httpFetchService.fetchResource(url,
+                cached ? entry.getEtag() : null, cached ? entry.getLastModified() : null)) {
+            if (resource == null) {
+                counts.get(Outcome.FAILED).incrementAndGet();
+                return cached ? file.toString() : null;
+            }
+            if (resource.isNotModified()) {
+                entry.setLastFetched(now);
+                putEntry(entry);
+                files.put(entry.getPath(), now);
+                counts.get(Outcome.REVALIDATED).incrementAndGet();
+                return file.toString();
+            }
+
+            ImageEntry stored = storeContent(url, resource);
+            stored.setLastFetched(now);
+            putEntry(stored);
+            return directory.resolve(stored.getPath()).toString();
+        } catch (IOException e) {
+            logger.debug("Image download failed for {}: {}", url, e.getMessage());
+            counts.get(Outcome.FAILED).incrementAndGet();
+            return cached ? file.toString() : null;
+        }
+    }
+
+    /**
+     * Stream the body to a temp file while hashing it, then move it to its content address
+     */
+    private ImageEntry storeContent(String url, HttpFetchService.HttpResource resource) throws IOException {
+        Path temp = Files.createTempFile(directory, "download-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(resource.body(), digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            bytesDownloaded.addAndGet(size);
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relative = hash.substring(0, 2) + "/" + hash + extension(resource.contentType(), url);
+            counts.get(commitFile(temp, relative, size) ? Outcome.DOWNLOADED : Outcome.DEDUPLICATED).incrementAndGet();
+
+            ImageEntry entry = new ImageEntry();
+            entry.setUrl(url);
+            entry.setPath(relative);
+            entry.setSize(size);
+            entry.setEtag(resource.etag());
+            entry.setLastModified(resource.lastModified());
+            return entry;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Move a downloaded file into place; false when identical content was already stored
+     */
+    private synchronized boolean commitFile(Path temp, String relative, long size) throws IOException {
+        Path target = directory.resolve(relative);
+        files.put(relative, System.currentTimeMillis());
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target);
+        if (diskBytes.addAndGet(size) > maxDiskBytes()) {
+            evict();
+        }
+        return true;
+    }
+
+    /**
+     * Delete least recently used files until usage is back under 90% of the budget
+     */
+    private void evict() {
+        long target = maxDiskBytes() * 9 / 10;
+        List<Map.Entry<String, Long>> byLastUse = new ArrayList<>(files.entrySet());
+        byLastUse.sort(Map.Entry.comparingByValue());
+
+        int evicted = 0;
+        for (Map.Entry<String, Long> file : byLastUse) {
+            if (diskBytes.get() <= target) {
+                break;
+            }
+            Path path = directory.resolve(file.getKey());
+            try {
+                long size = Files.exists(path) ? Files.size(path) : 0;
+                Files.deleteIfExists(path);
+                files.remove(file.getKey());
+                diskBytes.addAndGet(-size);
+                evicted++;
+            } catch (IOException e) {
+                logger.warn("Could not evict image {}: {}", path, e.getMessage());
+            }
+        }
+        evictedFiles.addAndGet(evicted);
+        logger.info("Evicted {} images; image cache now {} bytes", evicted, diskBytes.get());
+    }
+
+    private long maxDiskBytes() {
+        return maxDiskMb * 1024 * 1024;
+    }
+
+    private static String normalize(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String trimmed = url.trim();
+        if (trimmed.startsWith("//")) {
+            return "https:" + trimmed;
+        }
+        return trimmed.startsWith("http://") || trimmed.startsWith("https://") ? trimmed : null;
+    }
+
+    private static String extension(String contentType, String url) {
+        if (contentType != null) {
+            switch (contentType.split(";")[0].trim().toLowerCase()) {
+                case "image/jpeg", "image/jpg":
+                    return ".jpg";
+                case "image/png":
+                    return ".png";
+                case "image/webp":
+                    return ".webp";
+                case "image/gif":
+                    return ".gif";
+                case "image/avif":
+                    return ".avif";
+                case "image/svg+xml":
+                    return ".svg";
+                default:
+                    break;
+            }
+        }
+        Matcher matcher = URL_EXTENSION.matcher(url);
+        if (matcher.find()) {
+            String extension = matcher.group(1).toLowerCase();
+            return extension.equals("jpeg") ? ".jpg" : "." + extension;
+        }
+        return ".img";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ImageEntry readEntry(String url) {
+        String json = urls.get(url);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ImageEntry.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Discarding unreadable image entry for {}", url);
+            return null;
+        }
+    }
+
+    private void putEntry(ImageEntry entry) {
+        try {
+            urls.put(entry.getUrl(), objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not persist image entry for {}", entry.getUrl(), e);
+        }
+    }
+
+    private synchronized void open() {
+        if (store != null) {
+            return;
+        }
+        directory = Paths.get(imageDir);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create image directory", e);
+        }
+        store = new MVStore.Builder()
+                .fileName(directory.resolve(INDEX_FILE).toString())
+                .cacheSize(CACHE_SIZE_MB)
+                .compress()
+                .open();
+        urls = store.openMap("urls");
+        files = store.openMap("files");
+
+        long total = 0;
+        for (String relative : new ArrayList<>(files.keySet())) {
+            Path path = directory.resolve(relative);
+            try {
+                total += Files.size(path);
+            } catch (IOException e) {
+                files.remove(relative);
+            }
+        }
+        diskBytes.set(total);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "image-download-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Opened image cache {} with {} files ({} bytes)", directory, files.size(), total);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+}
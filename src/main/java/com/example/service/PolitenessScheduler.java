@@ -0,0 +1,268 @@
+package com.example.service;
+
+import com.example.util.CrawlMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gatekeeper between the crawl loop and every page or HTTP fetch. Each host gets a
+ * token bucket (requests per second) and a concurrency window, both tuned with AIMD:
+ * they grow additively while responses are healthy and halve on slow responses,
+ * 429s, 5xx or failed connections (at most once per observed round trip).
+ * Requests whose outcome is unknown only give their slot back.
+ */
+@Service
+public class PolitenessScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolitenessScheduler.class);
+
+    /**
+     * Status for a request whose outcome is unknown, e.g. a tab that never loaded; neither healthy nor congested
+     */
+    public static final int UNKNOWN = 0;
+
+    /**
+     * Status for a request the host never answered: connection refused, reset or timed out
+     */
+    public static final int FAILED = -1;
+
+    private static final String NAVIGATION_OUTCOME_SCRIPT =
+            "var n = performance.getEntriesByType('navigation')[0];" +
+            "return n ? [n.responseStatus || 0, Math.round(n.responseStart - n.requestStart)] : null;";
+
+    @Value("${app.scraper.politeness.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraper.politeness.requests-per-second:2}")
+    private double initialRate;
+
+    @Value("${app.scraper.politeness.min-requests-per-second:0.2}")
+    private double minRate;
+
+    @Value("${app.scraper.politeness.max-requests-per-second:10}")
+    private double maxRate;
+
+    @Value("${app.scraper.politeness.rate-increase:0.1}")
+    private double rateIncrease;
+
+    @Value("${app.scraper.politeness.burst:4}")
+    private double burst;
+
+    @Value("${app.scraper.politeness.initial-concurrency:2}")
+    private double initialConcurrency;
+
+    @Value("${app.scraper.politeness.max-concurrency:8}")
+    private double maxConcurrency;
+
+    @Value("${app.scraper.politeness.slow-response-ms:5000}")
+    private long slowResponseMs;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Block until the URL's host may receive another request
+     */
+    public Permit acquire(String url) {
+        if (!enabled) {
+            return new Permit(null, System.nanoTime());
+        }
+
+        HostState state = hosts.computeIfAbsent(hostOf(url), this::newHostState);
+        long waitStart = System.nanoTime();
+        try {
+            state.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + state.host, e);
+        }
+        long acquired = System.nanoTime();
+        crawlMetrics.record(CrawlMetrics.POLITENESS_WAIT, acquired - waitStart, "host", state.host);
+        return new Permit(state, acquired);
+    }
+
+    /**
+     * A permit if the URL's host may receive another request right now, else null. For callers
+     * that already hold permits for the host and would deadlock waiting for one more.
+     */
+    public Permit tryAcquire(String url) {
+        if (!enabled) {
+            return new Permit(null, System.nanoTime());
+        }
+        HostState state = hosts.computeIfAbsent(hostOf(url), this::newHostState);
+        return state.tryAcquire() ? new Permit(state, System.nanoTime()) : null;
+    }
+
+    /**
+     * Report the outcome of a request: an HTTP status, {@link #UNKNOWN} or {@link #FAILED};
+     * latency is measured from acquire.
+     */
+    public void release(Permit permit, int statusCode) {
+        release(permit, statusCode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - permit.startNanos));
+    }
+
+    public void release(Permit permit, int statusCode, long latencyMs) {
+        if (permit.state != null) {
+            permit.state.release(statusCode, latencyMs);
+        }
+    }
+
+    /**
+     * Release after a browser navigation, using the page's Navigation Timing entry for the
+     * HTTP status and server response time when the browser exposes them
+     */
+    public void releaseAfterNavigation(Permit permit, WebDriver driver) {
+        if (permit.state == null) {
+            return;
+        }
+        try {
+            Object outcome = ((JavascriptExecutor) driver).executeScript(NAVIGATION_OUTCOME_SCRIPT);
+            if (outcome instanceof List<?> values && values.size() == 2) {
+                release(permit, ((Number) values.get(0)).intValue(), ((Number) values.get(1)).longValue());
+                return;
+            }
+        } catch (Exception e) {
+            logger.debug("Navigation timing unavailable: {}", e.getMessage());
+        }
+        release(permit, UNKNOWN);
+    }
+
+    /**
+     * Current limits, concurrency windows and counters per host
+     */
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        hosts.forEach((host, state) -> snapshot.put(host, state.snapshot()));
+        return snapshot;
+    }
+
+    private HostState newHostState(String host) {
+        HostState state = new HostState(host);
+        crawlMetrics.gauge("scraper.politeness.requests.per.second", state, HostState::rate, "host", host);
+        crawlMetrics.gauge("scraper.politeness.concurrency.window", state, HostState::window, "host", host);
+        return state;
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    public static final class Permit {
+        private final HostState state;
+        private final long startNanos;
+
+        private Permit(HostState state, long startNanos) {
+            this.state = state;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private class HostState {
+        private final String host;
+        private double rate = initialRate;
+        private double tokens = burst;
+        private long lastRefillNanos = System.nanoTime();
+        private double window = initialConcurrency;
+        private int inFlight;
+        private long requests;
+        private long congestionSignals;
+        private double latencyEwmaMs;
+        private long lastDecreaseMs;
+
+        private HostState(String host) {
+            this.host = host;
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            while (!tryAcquire()) {
+                long waitMs = windowOpen() ? (long) Math.ceil((1 - tokens) / rate * 1000) : 100;
+                wait(Math.max(1, waitMs));
+            }
+        }
+
+        synchronized boolean tryAcquire() {
+            refill();
+            if (windowOpen() && tokens >= 1) {
+                tokens -= 1;
+                inFlight++;
+                requests++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean windowOpen() {
+            return inFlight < Math.max(1, (int) window);
+        }
+
+        synchronized void release(int statusCode, long latencyMs) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (statusCode == UNKNOWN) {
+                notifyAll();
+                return;
+            }
+            latencyEwmaMs = latencyEwmaMs == 0 ? latencyMs : 0.8 * latencyEwmaMs + 0.2 * latencyMs;
+
+            boolean congested = statusCode == FAILED || statusCode == 429 || statusCode >= 500
+                    || latencyMs > slowResponseMs;
+            long now = System.currentTimeMillis();
+            if (congested) {
+                congestionSignals++;
+                // Only back off once per round trip so one burst of slow responses counts once
+                if (now - lastDecreaseMs > Math.max(latencyEwmaMs, 1000)) {
+                    window = Math.max(1, window / 2);
+                    rate = Math.max(minRate, rate / 2);
+                    lastDecreaseMs = now;
+                    logger.info("Backing off {}: status={}, latency={}ms -> {} req/s, window {}",
+                            host, statusCode, latencyMs, String.format("%.2f", rate), String.format("%.1f", window));
+                }
+            } else {
+                window = Math.min(maxConcurrency, window + 1 / window);
+                rate = Math.min(maxRate, rate + rateIncrease);
+            }
+            notifyAll();
+        }
+
+        synchronized double rate() {
+            return rate;
+        }
+
+        synchronized double window() {
+            return window;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * rate);
+            lastRefillNanos = now;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("requestsPerSecond", Math.round(rate * 100) / 100.0);
+            snapshot.put("concurrencyWindow", Math.round(window * 10) / 10.0);
+            snapshot.put("inFlight", inFlight);
+            snapshot.put("requests", requests);
+            snapshot.put("congestionSignals", congestionSignals);
+            snapshot.put("latencyEwmaMs", Math.round(latencyEwmaMs));
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.service;
+
+import com.example.model.HistoryRun;
+import com.example.model.Product;
+import com.example.model.ProductSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Append-only price and availability history across crawl runs, in an MVStore file.
+ * Each run writes only the products that were added, changed or removed since their last
+ * recorded state, so storage grows with the changes rather than with full copies.
+ * History entries are keyed by product then run, which makes "state as of run N" a single
+ * floor lookup; a per-run change list lets diffs touch only the products that changed.
+ */
+@Service
+public class PriceHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+    private static final char SEPARATOR = '\u0000';
+    private static final int CACHE_SIZE_MB = 16;
+
+    @Value("${app.scraper.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraper.history.store-path:./output/price-history.mv}")
+    private String storePath;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MVStore store;
+    // seq -> HistoryRun
+    private MVMap<Long, String> runs;
+    // product key \0 seq -> ProductSnapshot as of that run
+    private MVMap<String, String> history;
+    // seq \0 product key -> "" for every product the run changed
+    private MVMap<String, String> runChanges;
+    // product key -> latest ProductSnapshot, to compute the next run's changes
+    private MVMap<String, String> latest;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a finished run where every missing product of the complete categories is gone
+     */
+    public HistoryRun recordRun(String runId, List<Product> products, Collection<String> completeCategories) {
+        return recordRun(runId, products, completeCategories, key -> false);
+    }
+
+    /**
+     * Record a finished run. Products missing from the run are recorded as removed only when
+     * their last category was crawled in full (completeCategories) and stillListed does not
+     * report them listed under another category this run; everything else is left untouched,
+     * so a failed, capped or skipped category does not look like a mass removal.
+     */
+    public synchronized HistoryRun recordRun(String runId, List<Product> products, Collection<String> completeCategories,
+                                             Predicate<String> stillListed) {
+        if (!enabled) {
+            return null;
+        }
+        open();
+
+        long seq = runs.isEmpty() ? 1 : runs.lastKey() + 1;
+        Set<String> complete = new HashSet<>(completeCategories);
+        Set<String> crawledCategories = new HashSet<>(completeCategories);
+        Set<String> seen = new HashSet<>();
+        int changes = 0;
+
+        for (Product product : products) {
+            String key = productKey(product);
+            if (!seen.add(key)) {
+                continue;
+            }
+            ProductSnapshot snapshot = ProductSnapshot.of(product);
+            crawledCategories.add(product.getCategory());
+            if (!snapshot.equals(read(latest.get(key)))) {
+                writeChange(seq, key, snapshot);
+                changes++;
+            }
+        }
+
+        // Streams the latest-state map from disk; only this run's keys are held in memory
+        List<String> removedKeys = new ArrayList<>();
+        for (Iterator<String> keys = latest.keyIterator(null); keys.hasNext(); ) {
+            String key = keys.next();
+            if (!seen.contains(key)) {
+                ProductSnapshot last = read(latest.get(key));
+                if (last != null && complete.contains(last.getCategory()) && !stillListed.test(key)) {
+                    removedKeys.add(key);
+                }
+            }
+        }
+        for (String key : removedKeys) {
+            writeChange(seq, key, ProductSnapshot.removed(read(latest.get(key))));
+            latest.remove(key);
+            changes++;
+        }
+
+        HistoryRun run = new HistoryRun();
+        run.setSeq(seq);
+        run.setRunId(runId);
+        run.setCompletedAt(System.currentTimeMillis());
+        run.setProductCount(seen.size());
+        run.setChangeCount(changes);
+        run.setCategories(new ArrayList<>(new TreeSet<>(crawledCategories)));
+        runs.put(seq, write(run));
+        store.commit();
+
+        logger.info("Price history run {}: {} products, {} changes ({} removed)", seq, seen.size(), changes, removedKeys.size());
+        return run;
+    }
+
+    public synchronized List<HistoryRun> getRuns() {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+        open();
+        List<HistoryRun> result = new ArrayList<>();
+        for (String json : runs.values()) {
+            result.add(readRun(json));
+        }
+        return result;
+    }
+
+    /**
+     * A run by run id or sequence number; "latest" and "previous" are also accepted
+     */
+    public synchronized HistoryRun findRun(String ref) {
+        if (!enabled) {
+            return null;
+        }
+        open();
+        if (runs.isEmpty()) {
+            return null;
+        }
+        if ("latest".equalsIgnoreCase(ref)) {
+            return readRun(runs.get(runs.lastKey()));
+        }
+        if ("previous".equalsIgnoreCase(ref)) {
+            Long previous = runs.lowerKey(runs.lastKey());
+            return previous != null ? readRun(runs.get(previous)) : null;
+        }
+        if (ref.chars().allMatch(Character::isDigit) && ref.length() < 18) {
+            String json = runs.get(Long.parseLong(ref));
+            if (json != null) {
+                return readRun(json);
+            }
+        }
+        for (String json : runs.values()) {
+            HistoryRun run = readRun(json);
+            if (ref.equals(run.getRunId())) {
+                return run;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds, removals and price or availability changes between two runs. Only the change
+     * lists of the runs in between are scanned, and each touched product costs two lookups.
+     */
+    public synchronized Map<String, Object> diff(HistoryRun from, HistoryRun to, int limit) {
+        open();
+        long fromSeq = Math.min(from.getSeq(), to.getSeq());
+        long toSeq = Math.max(from.getSeq(), to.getSeq());
+
+        Set<String> touched = new TreeSet<>();
+        for (long seq = fromSeq + 1; seq <= toSeq; seq++) {
+            String prefix = pad(seq) + SEPARATOR;
+            for (Iterator<String> keys = runChanges.keyIterator(prefix); keys.hasNext(); ) {
+                String change = keys.next();
+                if (!change.startsWith(prefix)) {
+                    break;
+                }
+                touched.add(change.substring(prefix.length()));
+            }
+        }
+
+        List<Map<String, Object>> added = new ArrayList<>();
+        List<Map<String, Object>> removed = new ArrayList<>();
+        List<Map<String, Object>> priceChanged = new ArrayList<>();
+        List<Map<String, Object>> availabilityChanged = new ArrayList<>();
+        int[] counts = new int[4];
+
+        for (String key : touched) {
+            ProductSnapshot before = stateAt(key, fromSeq);
+            ProductSnapshot after = stateAt(key, toSeq);
+            boolean existedBefore = before != null && !before.isRemoved();
+            boolean existsAfter = after != null && !after.isRemoved();
+
+            if (!existedBefore && existsAfter) {
+                addLimited(added, counts, 0, change(key, null, after), limit);
+            } else if (existedBefore && !existsAfter) {
+                addLimited(removed, counts, 1, change(key, before, null), limit);
+            } else if (existedBefore) {
+                if (before.priceDiffers(after)) {
+                    addLimited(priceChanged, counts, 2, change(key, before, after), limit);
+                }
+                if (before.availabilityDiffers(after)) {
+                    addLimited(availabilityChanged, counts, 3, change(key, before, after), limit);
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("added", counts[0]);
+        summary.put("removed", counts[1]);
+        summary.put("priceChanged", counts[2]);
+        summary.put("availabilityChanged", counts[3]);
+
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("from", from);
+        diff.put("to", to);
+        diff.put("counts", summary);
+        diff.put("added", added);
+        diff.put("removed", removed);
+        diff.put("priceChanged", priceChanged);
+        diff.put("availabilityChanged", availabilityChanged);
+        return diff;
+    }
+
+    /**
+     * Every recorded state of one product, oldest first, keyed by run sequence number
+     */
+    public synchronized Map<Long, ProductSnapshot> getProductHistory(String productKey) {
+        Map<Long, ProductSnapshot> states = new LinkedHashMap<>();
+        if (!enabled) {
+            return states;
+        }
+        open();
+        String prefix = productKey + SEPARATOR;
+        for (Iterator<String> keys = history.keyIterator(prefix); keys.hasNext(); ) {
+            String entry = keys.next();
+            if (!entry.startsWith(prefix)) {
+                break;
+            }
+            states.put(Long.parseLong(entry.substring(prefix.length())), read(history.get(entry)));
+        }
+        return states;
+    }
+
+    /**
+     * Products are tracked by page URL; products without one (e.g. loaded from CSV) by category and name
+     */
+    public static String productKey(Product product) {
+        if (product.getProductUrl() != null && !product.getProductUrl().isEmpty()) {
+            return product.getProductUrl();
+        }
+        return product.getCategory() + " | " + product.getName();
+    }
+
+    private void writeChange(long seq, String key, ProductSnapshot snapshot) {
+        String json = write(snapshot);
+        history.put(key + SEPARATOR + pad(seq), json);
+        runChanges.put(pad(seq) + SEPARATOR + key, "");
+        if (!snapshot.isRemoved()) {
+            latest.put(key, json);
+        }
+    }
+
+    private ProductSnapshot stateAt(String key, long seq) {
+        String floor = history.floorKey(key + SEPARATOR + pad(seq));
+        if (floor == null || !floor.startsWith(key + SEPARATOR)) {
+            return null;
+        }
+        return read(history.get(floor));
+    }
+
+    private Map<String, Object> change(String key, ProductSnapshot before, ProductSnapshot after) {
+        ProductSnapshot current = after != null ? after : before;
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("product", key);
+        change.put("name", current.getName());
+        change.put("category", current.getCategory());
+        if (before != null) {
+            change.put("priceBefore", before.getPrice());
+            change.put("availabilityBefore", before.getAvailability());
+        }
+        if (after != null) {
+            change.put("priceAfter", after.getPrice());
+            change.put("availabilityAfter", after.getAvailability());
+        }
+        if (before != null && after != null && before.getPriceCents() != null && after.getPriceCents() != null) {
+            change.put("priceChangeCents", after.getPriceCents() - before.getPriceCents());
+        }
+        return change;
+    }
+
+    private static void addLimited(List<Map<String, Object>> list, int[] counts, int index, Map<String, Object> change, int limit) {
+        counts[index]++;
+        if (list.size() < limit) {
+            list.add(change);
+        }
+    }
+
+    private static String pad(long seq) {
+        return String.format("%012d", seq);
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ProductSnapshot read(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ProductSnapshot.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Discarding unreadable price history entry");
+            return null;
+        }
+    }
+
+    private HistoryRun readRun(String json) {
+        try {
+            return objectMapper.readValue(json, HistoryRun.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable price history run", e);
+        }
+    }
+
+    private void open() {
+        if (store != null) {
+            return;
+        }
+        try {
+            Path path = Paths.get(storePath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create price history directory", e);
+        }
+        store = new MVStore.Builder()
+                .fileName(storePath)
+                .cacheSize(CACHE_SIZE_MB)
+                .compress()
+                .open();
+        runs = store.openMap("runs");
+        history = store.openMap("history");
+        runChanges = store.openMap("runChanges");
+        latest = store.openMap("latest");
+        logger.info("Opened price history {} with {} runs", storePath, runs.sizeAsLong());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+}
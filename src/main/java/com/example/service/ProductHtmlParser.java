@@ -0,0 +1,70 @@
+package com.example.service;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Java port of the selector chain in scripts/extract-product.js, for pages fetched over
+ * HTTP and pages captured from the browser for the parse pool.
+ * Returns the same keys: name, price, description, image, availability
+ */
+@Component
+public class ProductHtmlParser {
+
+    private static final String[] DESCRIPTION_SELECTORS = {
+            "#description-panel span.font-normal", "div.p-4 span.font-normal", "div[class*='description']",
+            "div[class*='prose']", "section[id*='description']", "div.product-description", "div.product__description"
+    };
+
+    public Map<String, Object> extract(Document doc) {
+        Map<String, Object> data = new HashMap<>();
+
+        // name
+        Element nameEl = doc.selectFirst("h1.text-brandBlack.font-bold, h2.text-brandBlack.font-bold, h2[class*='text-xl']");
+        if (nameEl == null) nameEl = doc.selectFirst("h1, h2");
+        data.put("name", nameEl != null ? nameEl.text().trim() : "");
+
+        // price
+        Element priceEl = doc.selectFirst("span.text-red200.font-bold, span.font-bold.text-xl, span[class*='font-bold'][class*='text-xl'], div[class*='price']");
+        data.put("price", priceEl != null ? priceEl.text().trim() : "");
+
+        // description - first selector whose first match has text
+        String description = "";
+        for (String selector : DESCRIPTION_SELECTORS) {
+            Element el = doc.selectFirst(selector);
+            if (el != null && !el.text().isBlank()) {
+                description = el.text().trim();
+                break;
+            }
+        }
+        data.put("description", description.replaceFirst("(?i)^Description\\s*", "").trim());
+
+        // image - prefer og:image then first non-logo image
+        String image = "";
+        Element metaOg = doc.selectFirst("meta[property='og:image'], meta[name='og:image']");
+        if (metaOg != null) image = metaOg.attr("content");
+        if (image.isEmpty()) {
+            for (Element img : doc.select("img[src]")) {
+                String src = img.absUrl("src");
+                if (src.isEmpty()) src = img.attr("data-src");
+                if (src.isEmpty()) src = img.attr("srcset");
+                if (src.isEmpty()) continue;
+                if (src.contains("logo") || src.contains("icon") || src.contains("freshcoLogo") || src.contains("/header/")) continue;
+                image = src;
+                break;
+            }
+        }
+        data.put("image", image);
+
+        // availability
+        Element availEl = doc.selectFirst("button.add-to-cart, div[class*='availability'], span[class*='availability'], strong");
+        String avail = availEl != null ? availEl.text().trim() : "";
+        data.put("availability", avail.toLowerCase().contains("out") ? "Out of Stock" : (avail.isEmpty() ? "In Stock" : avail));
+
+        return data;
+    }
+}
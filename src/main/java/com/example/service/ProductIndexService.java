@@ -0,0 +1,131 @@
+package com.example.service;
+
+import com.example.model.Product;
+import com.example.model.ProductBatch;
+import com.example.util.ProductIndex;
+import com.example.util.UrlFrontier;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Holds the index of the latest crawl's products for the query API. Each finished crawl of
+ * all categories swaps in a new index, a crawl of some categories is merged into it; on
+ * startup the last exported CSV is loaded so queries work before the first crawl.
+ */
+@Service
+public class ProductIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexService.class);
+
+    @Value("${app.scraper.csv-output-path:./output/Products_ALl_Task_.csv}")
+    private String csvOutputPath;
+
+    @Value("${app.scraper.index.load-on-startup:true}")
+    private boolean loadOnStartup;
+
+    private volatile ProductIndex index = ProductIndex.build(List.of());
+
+    @PostConstruct
+    void init() {
+        if (loadOnStartup) {
+            loadFromCsv(Paths.get(csvOutputPath));
+        }
+    }
+
+    public ProductIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Replace the index with a crawl's products
+     */
+    public synchronized void publish(List<Product> products) {
+        long start = System.currentTimeMillis();
+        ProductIndex built = ProductIndex.build(products);
+        index = built;
+        logger.info("Indexed {} products ({} tokens) in {} ms", built.size(), built.getTokenCount(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Merge a partial crawl into the index: its products replace indexed ones with the same URL
+     * (or category and name), and indexed products of the completeCategories it did not find
+     * again are dropped. Products of every other category stay as they are.
+     */
+    public synchronized void merge(List<Product> products, Collection<String> completeCategories) {
+        Set<String> replaced = new HashSet<>();
+        for (Product product : products) {
+            if (product.getProductUrl() != null) {
+                replaced.add(urlKey(product));
+            }
+            replaced.add(nameKey(product));
+        }
+        Set<String> complete = new HashSet<>();
+        completeCategories.forEach(category -> complete.add(category.toLowerCase(Locale.ROOT)));
+
+        ProductBatch merged = new ProductBatch(index.size() + products.size());
+        for (Product indexed : index.getProducts()) {
+            if ((indexed.getProductUrl() == null || !replaced.contains(urlKey(indexed)))
+                    && !replaced.contains(nameKey(indexed))
+                    && !complete.contains(String.valueOf(indexed.getCategory()).toLowerCase(Locale.ROOT))) {
+                merged.add(indexed);
+            }
+        }
+        merged.addAll(products);
+        publish(merged);
+    }
+
+    private static String urlKey(Product product) {
+        return UrlFrontier.normalize(product.getProductUrl());
+    }
+
+    private static String nameKey(Product product) {
+        return (product.getCategory() + " | " + product.getName()).toLowerCase(Locale.ROOT);
+    }
+
+    void loadFromCsv(Path csvFile) {
+        if (!Files.isRegularFile(csvFile)) {
+            return;
+        }
+
+        ProductBatch products = new ProductBatch();
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.builder()
+                     .setHeader(CsvExportService.HEADERS)
+                     .setSkipHeaderRecord(true)
+                     .build()
+                     .parse(reader)) {
+
+            for (CSVRecord record : parser) {
+                products.add(Product.builder()
+                        .name(record.get("Product Name"))
+                        .price(record.get("Price"))
+                        .description(record.get("Description"))
+                        .imageUrl(record.get("Image URL"))
+                        .availability(record.get("Availability"))
+                        .category(record.get("Category"))
+                        .build());
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException | IllegalStateException e) {
+            logger.warn("Could not load {} into the product index: {}", csvFile, e.getMessage());
+            return;
+        }
+
+        publish(products);
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.service;
+
+import com.example.model.Availability;
+import com.example.model.Price;
+import com.example.model.Product;
+import com.example.util.ProductFields;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jsoup.Jsoup;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming reader for the JSON responses the site's frontend fetches to render product pages.
+ * Any object with a name and a price or SKU becomes a Product; nested price objects
+ * ({"value": 4.99}) and image lists are folded into the object that holds them.
+ * API field names vary, so each field is matched against a list of common aliases.
+ */
+@Component
+public class ProductJsonParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Aliases in order of preference, normalized: lower case without '_' or '-'
+    private static final List<String> NAME_FIELDS = List.of("name", "productname", "displayname", "title");
+    private static final List<String> PRICE_FIELDS = List.of("saleprice", "currentprice", "finalprice", "price", "regularprice", "listprice");
+    private static final List<String> CENTS_FIELDS = List.of("pricecents", "priceincents", "centamount");
+    private static final List<String> SKU_FIELDS = List.of("sku", "articlenumber", "productcode", "productid", "upc", "gtin");
+    private static final List<String> DESCRIPTION_FIELDS = List.of("description", "longdescription", "shortdescription");
+    private static final List<String> IMAGE_FIELDS = List.of("image", "imageurl", "images", "thumbnail", "thumbnailurl");
+    private static final List<String> AVAILABILITY_FIELDS = List.of("stockstatus", "availability", "instock", "available", "isavailable");
+    private static final List<String> URL_FIELDS = List.of("url", "producturl", "slug", "path");
+
+    // What a nested object stands for in its parent, e.g. {"value": 4.99} or {"url": "..."}
+    private static final List<String> AMOUNT_FIELDS = List.of("value", "amount", "current", "price");
+    private static final List<String> VALUE_FIELDS = List.of("url", "src", "href", "value", "status", "label", "text");
+
+    // Article numbers in product URLs, e.g. the 20145873 of .../red-plums-1lb-20145873
+    private static final Pattern SKU_TOKEN = Pattern.compile("\\d{5,}");
+
+    /**
+     * Every product-like object in the document, innermost first. Product URLs are the
+     * API's own (often relative or a bare slug); {@link #select} resolves them against the page.
+     */
+    public List<Product> parse(byte[] json, String categoryName) throws IOException {
+        List<Product> products = new ArrayList<>();
+        Frame top = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> top = new Frame(fieldOf(parser, top), token == JsonToken.START_ARRAY, top);
+                    case END_OBJECT -> {
+                        Product product = toProduct(top.values, categoryName);
+                        if (product != null) {
+                            products.add(product);
+                        } else {
+                            foldIntoOwner(top, reduce(top));
+                        }
+                        top = top.parent;
+                    }
+                    case END_ARRAY -> top = top.parent;
+                    case FIELD_NAME -> {
+                    }
+                    default -> {
+                        if (top == null || token == JsonToken.VALUE_NULL) {
+                            break;
+                        }
+                        if (top.array) {
+                            // ["a.jpg", "b.jpg"]: the first element stands for the list
+                            foldIntoOwner(top, parser.getText());
+                        } else {
+                            top.values.putIfAbsent(normalize(parser.currentName()), parser.getText());
+                        }
+                    }
+                }
+            }
+        }
+        return products;
+    }
+
+    /**
+     * The candidate describing the product page at pageUrl: the one whose URL or SKU matches
+     * the page's last path segment, else the only SKU seen when the page URL carries no SKU
+     * of its own. Null when that is ambiguous or the product has no price, so the page is
+     * read from the DOM instead.
+     */
+    public Product select(List<Product> candidates, String pageUrl) {
+        String segment = lastSegment(pageUrl);
+        Product match = null;
+        for (Product candidate : candidates) {
+            if (matchesPage(candidate, segment)) {
+                match = candidate;
+                break;
+            }
+        }
+        if (match == null) {
+            // A lone product in a recommendations or cart response must not stand in for this page
+            if (SKU_TOKEN.matcher(segment).find()) {
+                return null;
+            }
+            Map<String, Product> bySku = new LinkedHashMap<>();
+            for (Product candidate : candidates) {
+                if (candidate.getSku() != null) {
+                    bySku.putIfAbsent(candidate.getSku(), candidate);
+                }
+            }
+            if (bySku.size() != 1) {
+                return null;
+            }
+            match = bySku.values().iterator().next();
+        }
+        if (Price.parse(match.getPrice()) == null) {
+            return null;
+        }
+        return match.toBuilder()
+                .productUrl(pageUrl)
+                .imageUrl(resolve(pageUrl, match.getImageUrl()))
+                .build();
+    }
+
+    private static Product toProduct(Map<String, String> values, String categoryName) {
+        String name = first(values, NAME_FIELDS);
+        String price = price(values);
+        String sku = first(values, SKU_FIELDS);
+        if (name == null || name.isBlank() || (price == null && sku == null)) {
+            return null;
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", name);
+        data.put("price", price);
+        data.put("description", description(first(values, DESCRIPTION_FIELDS)));
+        data.put("image", first(values, IMAGE_FIELDS));
+        data.put("availability", availability(first(values, AVAILABILITY_FIELDS)));
+        Product product = ProductFields.buildProduct(data, categoryName);
+        product.setSku(sku);
+        product.setProductUrl(first(values, URL_FIELDS));
+        return product;
+    }
+
+    /**
+     * The scalar a nested object stands for in its parent, by the key it sits under
+     */
+    private static String reduce(Frame frame) {
+        if (frame.field == null) {
+            return null;
+        }
+        if (PRICE_FIELDS.contains(frame.field)) {
+            String amount = first(frame.values, AMOUNT_FIELDS);
+            if (amount != null) {
+                return amount;
+            }
+            String cents = first(frame.values, CENTS_FIELDS);
+            return cents != null ? centsToDecimal(cents) : null;
+        }
+        return first(frame.values, VALUE_FIELDS);
+    }
+
+    /**
+     * Give a value to the object this frame belongs to, through an enclosing array if there is one
+     */
+    private static void foldIntoOwner(Frame frame, String value) {
+        if (value == null || frame.field == null) {
+            return;
+        }
+        Frame owner = frame.parent;
+        if (owner != null && owner.array && owner.field != null && owner.field.equals(frame.field)) {
+            owner = owner.parent;
+        }
+        if (owner != null && !owner.array) {
+            owner.values.putIfAbsent(frame.field, value);
+        }
+    }
+
+    private static String price(Map<String, String> values) {
+        for (String field : PRICE_FIELDS) {
+            Price price = toPrice(values.get(field));
+            if (price != null) {
+                return price.format();
+            }
+        }
+        String cents = first(values, CENTS_FIELDS);
+        Price price = cents != null ? toPrice(centsToDecimal(cents)) : null;
+        return price != null ? price.format() : null;
+    }
+
+    private static Price toPrice(String text) {
+        if (text == null) {
+            return null;
+        }
+        Price price = Price.parse(text);
+        if (price != null) {
+            return price;
+        }
+        try {
+            // Unit prices such as 0.333
+            long cents = new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+            return new Price(cents, Price.DEFAULT_CURRENCY);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static String centsToDecimal(String cents) {
+        try {
+            return BigDecimal.valueOf(Long.parseLong(cents.trim()), 2).toPlainString();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String description(String text) {
+        return text != null && text.indexOf('<') >= 0 ? Jsoup.parse(text).text() : text;
+    }
+
+    /**
+     * true/false flags and codes such as "OUT_OF_STOCK" or "https://schema.org/InStock" as site labels
+     */
+    private static String availability(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.equals("true") || value.equals("false")) {
+            return (value.equals("true") ? Availability.IN_STOCK : Availability.OUT_OF_STOCK).getLabel();
+        }
+        String words = value.substring(value.lastIndexOf('/') + 1)
+                .replaceAll("([a-z])([A-Z])", "$1 $2")
+                .replace('_', ' ');
+        Availability state = Availability.parse(words);
+        return state != Availability.UNKNOWN ? state.getLabel() : value;
+    }
+
+    private static boolean matchesPage(Product candidate, String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        if (candidate.getProductUrl() != null && lastSegment(candidate.getProductUrl()).equals(segment)) {
+            return true;
+        }
+        String sku = candidate.getSku();
+        return sku != null && sku.length() >= 4 && Arrays.asList(segment.split("[-_.]")).contains(sku.toLowerCase(Locale.ROOT));
+    }
+
+    private static String lastSegment(String url) {
+        String path = url.replaceAll("[?#].*$", "").replaceAll("/+$", "");
+        return path.substring(path.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String resolve(String pageUrl, String imageUrl) {
+        if (imageUrl == null || imageUrl.equals("N/A") || imageUrl.contains("://")) {
+            return imageUrl;
+        }
+        try {
+            return URI.create(pageUrl).resolve(imageUrl).toString();
+        } catch (IllegalArgumentException e) {
+            return imageUrl;
+        }
+    }
+
+    private static String fieldOf(JsonParser parser, Frame top) throws IOException {
+        if (top != null && top.array) {
+            // Elements of "images": [...] belong to "images"
+            return top.field;
+        }
+        return top == null ? null : normalize(parser.currentName());
+    }
+
+    private static String normalize(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT).replace("_", "").replace("-", "");
+    }
+
+    private static String first(Map<String, String> values, List<String> fields) {
+        for (String field : fields) {
+            String value = values.get(field);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An open object or array; arrays hand their key down to their elements
+     */
+    private static final class Frame {
+        private final String field;
+        private final boolean array;
+        private final Frame parent;
+        private final Map<String, String> values = new HashMap<>();
+
+        private Frame(String field, boolean array, Frame parent) {
+            this.field = field;
+            this.array = array;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.service;
+
+import com.example.util.ReplayServer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Captures the rendered DOM of crawled category and product pages into a snapshot corpus
+ * that {@link ReplayServer} can serve. Scripts are stripped (the DOM is already rendered)
+ * and links to the live site are made relative, so a replayed crawl never leaves the corpus.
+ */
+@Service
+public class ReplayRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayRecorder.class);
+
+    @Value("${app.scraper.replay.record:false}")
+    private boolean enabled;
+
+    @Value("${app.scraper.replay.corpus-dir:./replay-corpus}")
+    private String corpusDir;
+
+    @Value("${app.scraper.base-url}")
+    private String baseUrl;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Store one page's HTML under its path and query
+     */
+    public void record(String url, String html) {
+        if (!enabled || html == null) {
+            return;
+        }
+
+        try {
+            URI uri = URI.create(url);
+            String key = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+            String file = "pages/" + sha1(key) + ".html";
+
+            Path corpus = Paths.get(corpusDir);
+            Files.createDirectories(corpus.resolve("pages"));
+            Files.writeString(corpus.resolve(file), snapshot(html, url), StandardCharsets.UTF_8);
+            synchronized (this) {
+                Files.writeString(corpus.resolve(ReplayServer.INDEX_FILE), key + "\t" + file + "\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            logger.debug("Recorded {} -> {}", key, file);
+
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not record {}: {}", url, e.getMessage());
+        }
+    }
+
+    private String snapshot(String html, String url) {
+        Document doc = Jsoup.parse(html, url);
+        doc.select("script:not([type=application/ld+json]), link[rel=preload][as=script], link[rel=modulepreload], noscript").remove();
+        doc.select("[data-crawled]").removeAttr("data-crawled");
+
+        String site = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        for (Element link : doc.select("a[href], link[href]")) {
+            String href = link.attr("href");
+            if (href.startsWith(site + "/")) {
+                link.attr("href", href.substring(site.length()));
+            }
+        }
+        return doc.outerHtml();
+    }
+
+    private static String sha1(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.service;
+
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * TTL cache in front of the synchronous scrape endpoints. Concurrent requests for the same
+ * key share one in-flight crawl (single flight) instead of each starting Chrome. Within the
+ * stale window an expired result is still served while one background refresh runs.
+ */
+@Service
+public class ScrapeResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeResultCache.class);
+
+    public static final String ALL_CATEGORIES = "ALL";
+
+    public enum Status { HIT, STALE, MISS, COALESCED, BYPASS }
+
+    /**
+     * A crawl's products and the run that produced them
+     */
+    public record Result(List<Product> products, CrawlRun run, long completedAt) {
+        public long ageMillis() {
+            return System.currentTimeMillis() - completedAt;
+        }
+    }
+
+    public record Lookup(Result result, Status status) {
+    }
+
+    @Value("${app.scraper.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraper.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * How long after expiry a result may still be served while it is refreshed; 0 = never serve stale
+     */
+    @Value("${app.scraper.cache.stale-seconds:1800}")
+    private long staleSeconds;
+
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Status, AtomicLong> counts = new EnumMap<>(Status.class);
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    void init() {
+        for (Status status : Status.values()) {
+            counts.put(status, new AtomicLong());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "scrape-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Cached result for key, or the result of a crawl shared with every concurrent caller.
+     * forceRefresh skips the cache but still joins a crawl already in flight.
+     */
+    public Lookup get(String key, Function<CrawlRun, List<Product>> crawl, boolean forceRefresh) {
+        if (!enabled) {
+            CrawlRun run = new CrawlRun();
+            return lookup(new Result(crawl.apply(run), run, System.currentTimeMillis()), Status.BYPASS);
+        }
+
+        Result cached = results.get(key);
+        if (cached != null && !forceRefresh) {
+            long age = cached.ageMillis();
+            if (age < TimeUnit.SECONDS.toMillis(ttlSeconds)) {
+                return lookup(cached, Status.HIT);
+            }
+            if (age < TimeUnit.SECONDS.toMillis(ttlSeconds + staleSeconds)) {
+                refreshInBackground(key, crawl);
+                return lookup(cached, Status.STALE);
+            }
+        }
+
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            logger.info("Joining the crawl of {} already in flight", key);
+            return lookup(await(running), Status.COALESCED);
+        }
+        return lookup(load(key, crawl, mine), Status.MISS);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        counts.forEach((status, count) -> stats.put(status.name().toLowerCase(), count.get()));
+        stats.put("inFlight", new TreeSet<>(inFlight.keySet()));
+
+        Map<String, Long> ages = new TreeMap<>();
+        results.forEach((key, result) -> ages.put(key, result.ageMillis() / 1000));
+        stats.put("cachedAgeSeconds", ages);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("staleSeconds", staleSeconds);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private void refreshInBackground(String key, Function<CrawlRun, List<Product>> crawl) {
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        logger.info("Serving stale {} while it is refreshed", key);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, crawl, mine);
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh of {} failed: {}", key, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Run the crawl, publish its result to the cache and to every caller waiting on the future
+     */
+    private Result load(String key, Function<CrawlRun, List<Product>> crawl, CompletableFuture<Result> future) {
+        try {
+            CrawlRun run = new CrawlRun();
+            Result result = new Result(Collections.unmodifiableList(crawl.apply(run)), run, System.currentTimeMillis());
+            results.put(key, result);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Result await(CompletableFuture<Result> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Scraping failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a crawl in flight", e);
+        }
+    }
+
+    private Lookup lookup(Result result, Status status) {
+        counts.get(status).incrementAndGet();
+        return new Lookup(result, status);
+    }
+}
@@ -1,16 +1,28 @@
 package com.example.service;
 
+import com.example.config.NetworkCapture;
+import com.example.config.ResourceBlocker;
+import com.example.config.WebDriverPool;
+import com.example.model.CrawlRun;
+import com.example.model.CrawlStateEntry;
 import com.example.model.Product;
+import com.example.model.ProductBatch;
+import com.example.util.CrawlCheckpoint;
+import com.example.util.CrawlMetrics;
+import com.example.util.ProductFields;
+import com.example.util.ScriptRegistry;
+import com.example.util.UrlFrontier;
 import com.example.util.WaitUtil;
 import org.openqa.selenium.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ScraperService {
@@ -18,7 +30,7 @@ public class ScraperService {
     private static final Logger logger = LoggerFactory.getLogger(ScraperService.class);
 
     @Autowired
-    private ApplicationContext context;
+    private WebDriverPool driverPool;
 
     @Autowired
     private WaitUtil waitUtil;
@@ -26,12 +38,113 @@ public class ScraperService {
     @Autowired
     private CsvExportService csvExportService;
 
+    @Autowired
+    private HttpFetchService httpFetchService;
+
+    @Autowired
+    private ProductHtmlParser productHtmlParser;
+
+    @Autowired
+    private CrawlStateStore crawlStateStore;
+
+    @Autowired
+    private PolitenessScheduler politenessScheduler;
+
+    @Autowired
+    private ResourceBlocker resourceBlocker;
+
+    @Autowired
+    private NetworkCapture networkCapture;
+
+    @Autowired
+    private SitemapDiscoveryService sitemapDiscoveryService;
+
+    @Autowired
+    private ReplayRecorder replayRecorder;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    @Autowired
+    private CheckpointService checkpointService;
+
+    @Autowired
+    private ProductIndexService productIndexService;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Autowired
+    private ImageDownloadService imageDownloadService;
+
+    @Autowired
+    private ScriptRegistry scriptRegistry;
+
+    @Autowired
+    private HtmlParsePool htmlParsePool;
+
     @Value("${app.scraper.base-url}")
     private String baseUrl;
 
-    private static final int MAX_PRODUCTS_PER_CATEGORY = 15;
+    @Value("${app.scraper.parallelism:1}")
+    private int parallelism;
+
+    /**
+     * selenium = every product page in Chrome; http = plain HTTP first, Chrome only as fallback
+     */
+    @Value("${app.scraper.fetch-mode:selenium}")
+    private String fetchMode;
+
+    @Value("${app.scraper.tabs-per-driver:1}")
+    private int tabsPerDriver;
+
+    /**
+     * detail = open every product page; listing = build products from the category grid tiles
+     */
+    @Value("${app.scraper.extraction-mode:detail}")
+    private String extractionMode;
+
+    @Value("${app.scraper.listing.fetch-descriptions:false}")
+    private boolean listingFetchDescriptions;
+
+    /**
+     * static = the built-in category map; sitemap = categories and product URLs from the site's sitemaps
+     */
+    @Value("${app.scraper.discovery.mode:static}")
+    private String discoveryMode;
+
+    @Value("${app.scraper.discovery.scrape-unlisted-products:true}")
+    private boolean scrapeUnlistedProducts;
+
+    /**
+     * Products scraped per category in detail mode; 0 = unlimited
+     */
+    @Value("${app.scraper.category.max-products:15}")
+    private int maxProductsPerCategory;
+
+    /**
+     * false = products only go to the CSV, written as they are scraped; the crawl keeps no list
+     * of them, so the query index and price history are not updated
+     */
+    @Value("${app.scraper.export.retain-products:true}")
+    private boolean retainProducts;
+
+    @Value("${app.scraper.category.max-pages:50}")
+    private int maxCategoryPages;
+
+    @Value("${app.scraper.category.max-scrolls-per-page:200}")
+    private int maxScrollsPerPage;
+
+    // Scrolls in a row without new tiles or page growth before a page counts as exhausted
+    private static final int SCROLL_IDLE_ROUNDS = 2;
 
-    private final Map<String, String> categories = new HashMap<>() {{
+    private static final String PRODUCT_LINK_SELECTOR = "a[href*='/products/'][class*='absolute']";
+
+    private static final String UNLISTED_CATEGORY = "Unlisted";
+    // Sitemap URLs a driver takes from the frontier at a time
+    private static final int UNLISTED_BATCH_SIZE = 25;
+
+    private final Map<String, String> staticCategories = new HashMap<>() {{
         put("Fruits & Vegetables", "/products/category/Fresh__Fruits__&__Vegetables/Fruits");
         put("Snacks & Candy", "/products/category/Snacks__&__Candy");
         put("Dairy & Eggs", "/products/category/Dairy__&__Eggs");
@@ -43,234 +156,920 @@ public class ScraperService {
 
 
     public List<Product> scrapeAllCategories() {
-        List<Product> allProducts = new ArrayList<>();
-        WebDriver driver = context.getBean(WebDriver.class);
+        return scrapeAllCategories(new CrawlRun());
+    }
+
+    /**
+     * Each product is streamed to the CSV as soon as it is scraped, so a crash mid-run
+     * keeps everything scraped up to that point. The run is also
+     * journaled to a checkpoint, from which {@link #resumeAllCategories(String)} continues it.
+     */
+    public List<Product> scrapeAllCategories(CrawlRun run) {
+        CrawlCheckpoint checkpoint = run.getCheckpoint();
+        Map<String, String> categories = checkpoint != null ? checkpoint.getCategories() : getCategories();
+        if (checkpoint == null) {
+            checkpoint = checkpointService.start(run, categories);
+            attachCheckpoint(run, checkpoint);
+        }
+        crawlMetrics.track(run);
+        imageDownloadService.track(run);
+        run.setCategoriesTotal(categories.size() + (isSitemapDiscovery() && scrapeUnlistedProducts ? 1 : 0));
+        if (isSitemapDiscovery()) {
+            // Categories claim what their listings link to; the rest is drained as Unlisted
+            for (String url : sitemapDiscoveryService.getDiscovery().getProductUrls()) {
+                if (scrapeUnlistedProducts) {
+                    run.getFrontier().enqueue(url);
+                } else {
+                    run.getFrontier().markListed(url);
+                }
+            }
+        }
+
+        CsvExportStream export = csvExportService.openStream();
+        CrawlRun.Listener exporter = exportTo(export);
+        run.addListener(exporter);
+        try (export) {
+            List<Product> allProducts = parallelism > 1
+                    ? scrapeAllCategoriesParallel(categories, run, export)
+                    : scrapeAllCategoriesSequential(categories, run, export);
+            if (!run.isCancelled()) {
+                retain(allProducts, scrapeUnlistedProducts(run, export));
+            }
+
+            if (run.isCancelled()) {
+                // Leaves the partial export in its temp file
+                throw new CancellationException("Crawl " + run.getId() + " cancelled");
+            }
+
+            String csvPath = export.complete();
+            if (checkpoint != null) {
+                checkpointService.complete(checkpoint);
+            }
+            if (retainProducts) {
+                productIndexService.publish(allProducts);
+                recordHistory(run, allProducts);
+            }
+            logger.info("Total products scraped: {}. Saved to: {}", export.getWrittenCount(), csvPath);
+            logger.info("Product pages by fetch path: {}", run.getFetchPathCounts());
+
+            return allProducts;
+        } finally {
+            run.removeListener(exporter);
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+            run.finish();
+            crawlMetrics.untrack(run);
+        }
+    }
+
+    /**
+     * Stream every product the run announces to the export as it is scraped
+     */
+    private static CrawlRun.Listener exportTo(CsvExportStream export) {
+        return new CrawlRun.Listener() {
+            @Override
+            public void productScraped(String category, Product product) {
+                export.write(product);
+            }
+        };
+    }
+
+    /**
+     * Keep a category's products for the index and history, unless the crawl only exports them
+     */
+    private void retain(List<Product> allProducts, List<Product> categoryProducts) {
+        if (retainProducts) {
+            allProducts.addAll(categoryProducts);
+        }
+    }
+
+    public List<Product> resumeAllCategories(String runId) {
+        return resumeAllCategories(new CrawlRun(runId));
+    }
+
+    /**
+     * Continue an interrupted all-categories run from its checkpoint. Completed categories
+     * are restored from the journal, products already scraped are not fetched again,
+     * and the full CSV is written as the original run would have.
+     */
+    public List<Product> resumeAllCategories(CrawlRun run) {
+        CrawlCheckpoint checkpoint = checkpointService.resume(run.getId());
+        attachCheckpoint(run, checkpoint);
+        // Claims of finished categories must hold, or other categories would pick up their products
+        for (String category : checkpoint.getCompletedCategories()) {
+            checkpoint.getClaimedUrls(category).forEach(run.getFrontier()::claim);
+        }
+        return scrapeAllCategories(run);
+    }
+
+    private void attachCheckpoint(CrawlRun run, CrawlCheckpoint checkpoint) {
+        if (checkpoint != null) {
+            run.setCheckpoint(checkpoint);
+            run.addListener(checkpoint);
+        }
+    }
+
+    /**
+     * Products of a category the checkpoint already has in full, or null when it has to be scraped.
+     * They were exported by the interrupted run's temp file, not this one's, so they are written again.
+     */
+    private List<Product> restoreFromCheckpoint(String categoryName, CrawlRun run, CsvExportStream export) {
+        CrawlCheckpoint checkpoint = run.getCheckpoint();
+        if (checkpoint == null || !checkpoint.isCompleted(categoryName)) {
+            return null;
+        }
+        List<Product> products = checkpoint.getCompletedProducts(categoryName);
+        products.forEach(product -> run.recordFetchPath("checkpoint"));
+        export.writeAll(products);
+        run.productsRestored(products.size());
+        logger.info("Restored {} products of {} from checkpoint", products.size(), categoryName);
+        return products;
+    }
+
+    private void completeInCheckpoint(String categoryName, List<Product> products, CrawlRun run) {
+        if (run.getCheckpoint() != null && !run.isCancelled()) {
+            run.getCheckpoint().recordCategory(categoryName, products);
+        }
+    }
+
+    private List<Product> scrapeAllCategoriesSequential(Map<String, String> categories, CrawlRun run,
+                                                       CsvExportStream export) {
+        List<Product> allProducts = new ProductBatch();
+        WebDriver driver = driverPool.borrow();
 
         try {
             for (Map.Entry<String, String> category : categories.entrySet()) {
+                if (run.isCancelled()) {
+                    break;
+                }
                 logger.info("Scraping category: {}", category.getKey());
-                List<Product> categoryProducts = scrapeCategoryPages(driver, category.getValue());
-                allProducts.addAll(categoryProducts);
+                run.categoryStarted(category.getKey());
+                List<Product> categoryProducts = scrapeCategoryPages(driver, category.getKey(), category.getValue(), run, export);
+                retain(allProducts, categoryProducts);
+                run.categoryCompleted(category.getKey(), categoryProducts.size());
                 logger.info("Scraped {} products from {}", categoryProducts.size(), category.getKey());
             }
 
-            String csvPath = csvExportService.exportToCSV(allProducts);
-            logger.info("Total products scraped: {}. Saved to: {}", allProducts.size(), csvPath);
-
         } catch (Exception e) {
             logger.error("Error during scraping", e);
             throw new RuntimeException("Scraping failed", e);
         } finally {
-            if (driver != null) {
-                driver.quit();
+            driverPool.release(driver);
+        }
+
+        return allProducts;
+    }
+
+    /**
+     * Scrape categories on several WebDrivers at once. Each worker owns one driver
+     * and pulls categories from a shared queue; results are merged in category order.
+     */
+    private List<Product> scrapeAllCategoriesParallel(Map<String, String> categories, CrawlRun run,
+                                                     CsvExportStream export) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>(categories.entrySet());
+        Queue<Map.Entry<String, String>> pending = new ConcurrentLinkedQueue<>(entries);
+        Map<String, List<Product>> results = new ConcurrentHashMap<>();
+
+        int workers = Math.min(Math.min(parallelism, driverPool.getMaxSize()), entries.size());
+        logger.info("Scraping {} categories with {} parallel drivers", entries.size(), workers);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "crawler-" + threadCount.incrementAndGet()));
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> crawlCategories(pending, results, run, export)));
+            }
+
+            int failedWorkers = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failedWorkers++;
+                    logger.error("Crawler worker failed", e.getCause());
+                }
+            }
+            if (failedWorkers == workers) {
+                throw new RuntimeException("Scraping failed: no crawler worker could start");
             }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scraping interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Product> allProducts = new ProductBatch();
+        for (Map.Entry<String, String> category : entries) {
+            allProducts.addAll(results.getOrDefault(category.getKey(), Collections.emptyList()));
         }
 
         return allProducts;
     }
 
+    /**
+     * Worker loop: drain the category queue on a dedicated driver
+     */
+    private void crawlCategories(Queue<Map.Entry<String, String>> pending, Map<String, List<Product>> results,
+                                 CrawlRun run, CsvExportStream export) {
+        WebDriver driver = driverPool.borrow();
+
+        try {
+            Map.Entry<String, String> category;
+            while (!run.isCancelled() && !Thread.currentThread().isInterrupted()
+                    && (category = pending.poll()) != null) {
+                logger.info("Scraping category: {}", category.getKey());
+                run.categoryStarted(category.getKey());
+                List<Product> categoryProducts = scrapeCategoryPages(driver, category.getKey(), category.getValue(), run, export);
+                if (retainProducts) {
+                    results.put(category.getKey(), categoryProducts);
+                }
+                run.categoryCompleted(category.getKey(), categoryProducts.size());
+                logger.info("Scraped {} products from {}", categoryProducts.size(), category.getKey());
+            }
+        } finally {
+            driverPool.release(driver);
+        }
+    }
+
     public List<Product> scrapeSingleCategory(String categoryName) {
-        String categoryUrl = categories.get(categoryName);
+        return scrapeSingleCategory(categoryName, new CrawlRun());
+    }
+
+    public List<Product> scrapeSingleCategory(String categoryName, CrawlRun run) {
+        String categoryUrl = getCategories().get(categoryName);
         if (categoryUrl == null) {
             throw new IllegalArgumentException("Invalid category: " + categoryName);
         }
 
-        WebDriver driver = context.getBean(WebDriver.class);
+        crawlMetrics.track(run);
+        imageDownloadService.track(run);
+        WebDriver driver = driverPool.borrow();
         List<Product> products = new ArrayList<>();
+        CsvExportStream export = null;
+        CrawlRun.Listener exporter = null;
 
         try {
-            products = scrapeCategoryPages(driver, categoryUrl);
-            csvExportService.exportToCSV(products);
+            export = csvExportService.openStream();
+            exporter = exportTo(export);
+            run.addListener(exporter);
+            run.setCategoriesTotal(1);
+            run.categoryStarted(categoryName);
+            List<Product> categoryProducts = scrapeCategoryPages(driver, categoryName, categoryUrl, run, export);
+            if (run.isCancelled()) {
+                throw new CancellationException("Crawl " + run.getId() + " cancelled");
+            }
+            export.complete();
+            retain(products, categoryProducts);
+            if (retainProducts) {
+                productIndexService.merge(products, run.getFullyCrawledCategories());
+                recordHistory(run, products);
+            }
+            run.categoryCompleted(categoryName, categoryProducts.size());
+            logger.info("Product pages by fetch path: {}", run.getFetchPathCounts());
         } finally {
-            if (driver != null) {
-                driver.quit();
+            if (exporter != null) {
+                run.removeListener(exporter);
+            }
+            if (export != null) {
+                export.close();
             }
+            driverPool.release(driver);
+            run.finish();
+            crawlMetrics.untrack(run);
         }
 
         return products;
     }
 
-    private List<Product> scrapeCategoryPages(WebDriver driver, String categoryUrl) {
+    /**
+     * A failure to record price history is logged rather than failing the finished crawl.
+     * Only categories crawled in full may record removals, and never for a product that
+     * another category of the run still listed.
+     */
+    private void recordHistory(CrawlRun run, List<Product> products) {
+        try {
+            priceHistoryStore.recordRun(run.getId(), products, run.getFullyCrawledCategories(),
+                    run.getFrontier()::isListed);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record run {} in the price history: {}", run.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * In sitemap discovery mode, drain the sitemap's product URLs that no category page linked to.
+     * They were queued on the run's frontier up front, so the per-category limit does not apply;
+     * each driver of the crawl takes batches from the frontier until it is empty.
+     */
+    private List<Product> scrapeUnlistedProducts(CrawlRun run, CsvExportStream export) {
+        if (!isSitemapDiscovery() || !scrapeUnlistedProducts) {
+            return Collections.emptyList();
+        }
+
+        List<Product> restored = restoreFromCheckpoint(UNLISTED_CATEGORY, run, export);
+        if (restored != null) {
+            run.categoryCompleted(UNLISTED_CATEGORY, restored.size());
+            return restored;
+        }
+
+        run.categoryStarted(UNLISTED_CATEGORY);
+        List<String> claimed = Collections.synchronizedList(new ArrayList<>());
+        List<Product> products = Collections.synchronizedList(new ArrayList<>());
+        int workers = Math.max(1, Math.min(parallelism, driverPool.getMaxSize()));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "unlisted-" + threadCount.incrementAndGet()));
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> drainUnlistedProducts(run, claimed, products)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("Unlisted product worker failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scraping interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Scraped {} of {} products listed only in the sitemap", products.size(), claimed.size());
+        if (run.getCheckpoint() != null) {
+            run.getCheckpoint().expect(UNLISTED_CATEGORY, claimed);
+        }
+        completeInCheckpoint(UNLISTED_CATEGORY, products, run);
+        run.categoryCompleted(UNLISTED_CATEGORY, products.size());
+        return new ArrayList<>(products);
+    }
+
+    /**
+     * Worker loop: claim batches of queued sitemap URLs and scrape them on a dedicated driver
+     */
+    private void drainUnlistedProducts(CrawlRun run, List<String> claimed, List<Product> products) {
+        WebDriver driver = driverPool.borrow();
+
+        try {
+            while (!run.isCancelled() && !Thread.currentThread().isInterrupted()) {
+                List<String> batch = new ArrayList<>(UNLISTED_BATCH_SIZE);
+                for (String url; batch.size() < UNLISTED_BATCH_SIZE && (url = run.getFrontier().pollUnclaimed()) != null; ) {
+                    batch.add(url);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                claimed.addAll(batch);
+                if (run.getCheckpoint() != null) {
+                    run.getCheckpoint().recordClaimed(UNLISTED_CATEGORY, batch);
+                }
+                for (Product product : scrapeChangedProductDetails(driver, batch, Collections.emptyMap(), UNLISTED_CATEGORY, run)) {
+                    if (product != null) {
+                        products.add(product);
+                    }
+                }
+            }
+        } finally {
+            driverPool.release(driver);
+        }
+    }
+
+    private List<Product> scrapeCategoryPages(WebDriver driver, String categoryName, String categoryUrl, CrawlRun run,
+                                              CsvExportStream export) {
+        List<Product> restored = restoreFromCheckpoint(categoryName, run, export);
+        if (restored != null) {
+            return restored;
+        }
+
         List<Product> allProducts = new ArrayList<>();
+        CategoryTiles tiles = new CategoryTiles(Collections.emptyList(), false);
+        boolean loaded = false;
 
         try {
             String fullUrl = baseUrl + categoryUrl;
             logger.info("Navigating to: {}", fullUrl);
-            driver.get(fullUrl);
+            navigate(driver, fullUrl);
 
-            // Extract category name from URL
-            String categoryName = extractCategoryName(categoryUrl);
-
-            // Reduced waits for speed
-            waitUtil.waitForPageLoad(driver, 5);
-            waitUtil.sleep(1000);
+            // Wait for the product grid instead of a fixed delay
+            waitUtil.awaitReady(driver, "category", PRODUCT_LINK_SELECTOR);
 
             handleCookiePopup(driver);
-            scrollToLoadAllProducts(driver);
+            tiles = claimNewTiles(collectCategoryTiles(driver), categoryName, run);
 
-            List<Product> products = scrapeProductsFromPage(driver, categoryName);
+            List<Product> products = scrapeProductsFromPage(driver, tiles.tiles(), categoryName, run);
             allProducts.addAll(products);
 
             logger.info("Scraped {} products", products.size());
+            crawlMetrics.categoryFinished(categoryName, true);
+            completeInCheckpoint(categoryName, allProducts, run);
+            loaded = true;
 
         } catch (Exception e) {
             logger.error("Error scraping category: {}", categoryUrl, e);
+            crawlMetrics.categoryFinished(categoryName, false);
         }
 
+        int released = releaseUnscraped(tiles.tiles(), allProducts, run);
+        if (loaded && tiles.complete() && released == 0 && !run.isCancelled()) {
+            run.categoryCrawledInFull(categoryName);
+        }
         return allProducts;
     }
 
-    private List<Product> scrapeProductsFromPage(WebDriver driver, String categoryName) {
+    /**
+     * Claim the tiles this category will actually visit: those no other category of this run
+     * has claimed, up to the per-category limit of detail-page mode. Tiles past the limit stay
+     * free for later categories, and leave the category incomplete.
+     */
+    private CategoryTiles claimNewTiles(CategoryTiles tiles, String categoryName, CrawlRun run) {
+        int limit = "listing".equalsIgnoreCase(extractionMode) ? 0 : maxProductsPerCategory;
+        List<Map<String, Object>> claimed = new ArrayList<>();
+        List<String> claimedUrls = new ArrayList<>();
+        int alreadyClaimed = 0;
+        boolean capped = false;
+        for (Map<String, Object> tile : tiles.tiles()) {
+            String url = ProductFields.safeToString(tile.get("url"));
+            if (limit > 0 && claimed.size() >= limit) {
+                run.getFrontier().markListed(url);
+                capped = true;
+                continue;
+            }
+            if (run.getFrontier().claim(url)) {
+                claimed.add(tile);
+                claimedUrls.add(url);
+            } else {
+                alreadyClaimed++;
+            }
+        }
+        if (run.getCheckpoint() != null) {
+            run.getCheckpoint().recordClaimed(categoryName, claimedUrls);
+        }
+        if (alreadyClaimed > 0) {
+            logger.info("Skipping {} products already scraped in another category", alreadyClaimed);
+        }
+        return new CategoryTiles(claimed, tiles.complete() && !capped);
+    }
+
+    /**
+     * Hand back claims of tiles that produced no product (failed pages, a cancelled run),
+     * so a later category that lists the same product can still scrape it. Returns how many.
+     */
+    private int releaseUnscraped(List<Map<String, Object>> tiles, List<Product> products, CrawlRun run) {
+        Set<String> scraped = new HashSet<>();
+        for (Product product : products) {
+            scraped.add(UrlFrontier.normalize(product.getProductUrl()));
+        }
+        int released = 0;
+        for (Map<String, Object> tile : tiles) {
+            String url = ProductFields.safeToString(tile.get("url"));
+            if (!scraped.contains(UrlFrontier.normalize(url))) {
+                run.getFrontier().release(url);
+                released++;
+            }
+        }
+        if (released > 0) {
+            logger.info("Released {} product URLs that were not scraped", released);
+        }
+        return released;
+    }
+
+    private List<Product> scrapeProductsFromPage(WebDriver driver, List<Map<String, Object>> tiles,
+                                                 String categoryName, CrawlRun run) {
+        if ("listing".equalsIgnoreCase(extractionMode)) {
+            return scrapeProductsFromListing(driver, tiles, categoryName, run);
+        }
+
         List<Product> products = new ArrayList<>();
 
         try {
-            waitUtil.sleep(800);
-
-            List<WebElement> productLinks = driver.findElements(
-                    By.cssSelector("a[href*='/products/'][class*='absolute']")
-            );
+            int productsToScrape = maxProductsPerCategory > 0
+                    ? Math.min(tiles.size(), maxProductsPerCategory)
+                    : tiles.size();
+            logger.info("Will scrape {} products (limited from {})", productsToScrape, tiles.size());
+
+            List<String> productUrls = new ArrayList<>(productsToScrape);
+            Map<String, String> fingerprints = new HashMap<>();
+            for (Map<String, Object> tile : tiles.subList(0, productsToScrape)) {
+                String url = ProductFields.safeToString(tile.get("url"));
+                productUrls.add(url);
+                if (crawlStateStore.isEnabled()) {
+                    fingerprints.put(url, crawlStateStore.fingerprint(tile));
+                }
+            }
 
-            logger.info("Found {} product links", productLinks.size());
+            if (run.getCheckpoint() != null) {
+                run.getCheckpoint().expect(categoryName, productUrls);
+            }
 
-            List<String> productUrls = new ArrayList<>();
-            for (WebElement link : productLinks) {
-                try {
-                    String href = link.getAttribute("href");
-                    if (href != null && !href.isEmpty() && !productUrls.contains(href)) {
-                        productUrls.add(href);
-                    }
-                } catch (StaleElementReferenceException e) {
-                    logger.debug("Stale element, skipping");
+            List<Product> details = scrapeChangedProductDetails(driver, productUrls, fingerprints, categoryName, run);
+            for (int i = 0; i < details.size(); i++) {
+                Product product = details.get(i);
+                if (product != null) {
+                    products.add(product);
+                    logger.info("Scraped product {}/{}: {}", i + 1, productsToScrape, product.getName());
                 }
             }
 
-            logger.info("Extracted {} unique product URLs", productUrls.size());
+        } catch (Exception e) {
+            logger.error("Error scraping products from page", e);
+        }
 
-            int productsToScrape = Math.min(productUrls.size(), MAX_PRODUCTS_PER_CATEGORY);
-            logger.info("Will scrape {} products (limited from {})", productsToScrape, productUrls.size());
+        return products;
+    }
 
-            for (int i = 0; i < productsToScrape; i++) {
-                try {
-                    Product product = scrapeProductDetails(driver, productUrls.get(i), categoryName);
-                    if (product != null) {
-                        products.add(product);
-                        logger.info("Scraped product {}/{}: {}", i + 1, productsToScrape, product.getName());
+    /**
+     * Build products straight from the listing tiles.
+     * Detail pages are visited only when descriptions are requested.
+     */
+    private List<Product> scrapeProductsFromListing(WebDriver driver, List<Map<String, Object>> tiles,
+                                                    String categoryName, CrawlRun run) {
+        List<Product> products = new ArrayList<>();
+
+        try {
+            logger.info("Building {} products from listing tiles", tiles.size());
+
+            List<String> productUrls = new ArrayList<>();
+            Map<String, String> fingerprints = new HashMap<>();
+            for (Map<String, Object> tile : tiles) {
+                String url = ProductFields.safeToString(tile.get("url"));
+                Product product = ProductFields.buildProduct(tile, categoryName);
+                product.setProductUrl(url);
+                products.add(product);
+                productUrls.add(url);
+                fingerprints.put(url, crawlStateStore.fingerprint(tile));
+            }
+            if (run.getCheckpoint() != null) {
+                run.getCheckpoint().expect(categoryName, productUrls);
+            }
+
+            if (listingFetchDescriptions) {
+                // The detail product is what was announced, exported and journaled, so it is also what the
+                // index and history get; the tile only stands in when the detail page failed
+                List<Product> details = scrapeChangedProductDetails(driver, productUrls, fingerprints, categoryName, run);
+                for (int i = 0; i < details.size(); i++) {
+                    if (details.get(i) != null) {
+                        products.set(i, details.get(i));
+                    } else if (!run.isCancelled()) {
+                        announce(products.get(i), categoryName, run);
                     }
-                } catch (Exception e) {
-                    logger.error("Error scraping product at index {}: {}", i, e.getMessage());
+                }
+            } else {
+                for (Product product : products) {
+                    run.recordFetchPath("listing");
+                    announce(product, categoryName, run);
                 }
             }
 
         } catch (Exception e) {
-            logger.error("Error scraping products from page", e);
+            logger.error("Error extracting products from listing", e);
         }
 
         return products;
     }
 
-    private Product scrapeProductDetails(WebDriver driver, String productUrl, String categoryName) {
-        try {
-            logger.debug("Visiting product: {}", productUrl);
-            driver.get(productUrl);
+    /**
+     * Reuse products this run's checkpoint already holds and, in incremental mode, stored
+     * products whose listing tile is unchanged; only visit the rest. Stale but unchanged pages
+     * are revalidated with a conditional request when validators are known.
+     * Results are aligned with the input URLs.
+     */
+    private List<Product> scrapeChangedProductDetails(WebDriver driver, List<String> productUrls,
+                                                      Map<String, String> fingerprints, String categoryName, CrawlRun run) {
+        CrawlCheckpoint checkpoint = run.getCheckpoint();
+        boolean resuming = checkpoint != null && checkpoint.getProductCount() > 0;
+        if (!crawlStateStore.isEnabled() && !resuming) {
+            return scrapeProductDetails(driver, productUrls, categoryName, run);
+        }
+
+        Product[] results = new Product[productUrls.size()];
+        List<Integer> changedIndexes = new ArrayList<>();
+        List<String> changedUrls = new ArrayList<>();
+
+        for (int i = 0; i < productUrls.size(); i++) {
+            String url = productUrls.get(i);
+            String fingerprint = fingerprints.get(url);
+
+            Product stored = resuming ? checkpoint.getProduct(url) : null;
+            if (stored != null) {
+                run.recordFetchPath("checkpoint");
+            } else if (crawlStateStore.isEnabled()) {
+                CrawlStateEntry entry = crawlStateStore.get(url);
+                if (crawlStateStore.isFresh(entry, fingerprint)) {
+                    crawlStateStore.recordSeen(entry, false);
+                    run.recordFetchPath("unchanged");
+                    stored = entry.getProduct();
+                } else if (crawlStateStore.isUnchanged(entry, fingerprint)
+                        && httpFetchService.isNotModified(url, entry.getEtag(), entry.getLastModified())) {
+                    crawlStateStore.recordSeen(entry, true);
+                    run.recordFetchPath("not-modified");
+                    stored = entry.getProduct();
+                }
+            }
 
-            // Reduced waits
-            waitUtil.waitForPageLoad(driver, 5);
-            waitUtil.sleep(600);
+            if (stored != null) {
+                stored.setCategory(categoryName);
+                stored.setProductUrl(url);
+                results[i] = stored;
+                announce(stored, categoryName, run);
+            } else {
+                changedIndexes.add(i);
+                changedUrls.add(url);
+            }
+        }
 
-            Product product = Product.builder().build();
-            product.setCategory(categoryName);
+        logger.info("Incremental: {} reused, {} to scrape", productUrls.size() - changedUrls.size(), changedUrls.size());
 
-            // Extract all data with a single JS call
-            Map<String, Object> data = extractAllDataAtOnce((JavascriptExecutor) driver);
-
-            // Name
-            String name = safeToString(data.get("name"));
-            product.setName(name.isEmpty() ? "N/A" : cleanText(name));
-
-            // Price
-            String price = safeToString(data.get("price"));
-            product.setPrice(price.isEmpty() ? "N/A" : cleanText(price));
-
-            // Description: if empty -> "No Description Available"
-            String desc = safeToString(data.get("description"));
-            desc = cleanText(desc);
-            product.setDescription(desc.isEmpty() ? "No Description Available" : desc);
-
-            // Image: prefer value returned; filter logos; if empty -> "N/A"
-            String imgUrl = safeToString(data.get("image"));
-            imgUrl = (imgUrl == null) ? "" : imgUrl.trim();
-            if (imgUrl.isEmpty() || imgUrl.contains("freshcoLogo") || imgUrl.contains("logo") || imgUrl.contains("icon")) {
-                product.setImageUrl("N/A");
+        List<Product> scraped = scrapeProductDetails(driver, changedUrls, categoryName, run);
+        for (int i = 0; i < changedIndexes.size(); i++) {
+            Product product = scraped.get(i);
+            if (product != null) {
+                if (crawlStateStore.isEnabled()) {
+                    crawlStateStore.recordFetched(changedUrls.get(i), fingerprints.get(changedUrls.get(i)), product);
+                }
+                results[changedIndexes.get(i)] = product;
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Visit product detail pages. Results are aligned with the input URLs; failed pages are null.
+     * With parse offloading, the browser moves on as soon as a page's HTML is captured and
+     * the parse pool fills in the products.
+     */
+    private List<Product> scrapeProductDetails(WebDriver driver, List<String> productUrls, String categoryName, CrawlRun run) {
+        if (tabsPerDriver > 1) {
+            return scrapeProductsPipelined(driver, productUrls, categoryName, run);
+        }
+
+        List<CompletableFuture<Product>> results = new ArrayList<>();
+        for (String productUrl : productUrls) {
+            if (run.isCancelled()) {
+                results.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            try {
+                results.add(scrapeProductDetails(driver, productUrl, categoryName, run)
+                        .thenApply(product -> announce(product, categoryName, run)));
+            } catch (Exception e) {
+                logger.error("Error scraping product {}: {}", productUrl, e.getMessage());
+                results.add(CompletableFuture.completedFuture(null));
+            }
+        }
+        return joinAll(results);
+    }
+
+    /**
+     * Scrape product pages with several tabs loading at once on the same driver
+     */
+    private List<Product> scrapeProductsPipelined(WebDriver driver, List<String> productUrls, String categoryName, CrawlRun run) {
+        Product[] results = new Product[productUrls.size()];
+        List<Integer> browserIndexes = new ArrayList<>();
+        for (int i = 0; i < productUrls.size(); i++) {
+            results[i] = tryHttpFirst(productUrls.get(i), categoryName, run);
+            if (results[i] == null) {
+                browserIndexes.add(i);
             } else {
-                product.setImageUrl(imgUrl);
+                announce(results[i], categoryName, run);
             }
+        }
 
-            // Availability
-            String availability = safeToString(data.get("availability"));
-            availability = cleanText(availability);
-            product.setAvailability(availability == null || availability.isEmpty() ? "In Stock" : availability);
+        List<String> browserUrls = new ArrayList<>();
+        for (int index : browserIndexes) {
+            browserUrls.add(productUrls.get(index));
+        }
 
-            return product;
+        Map<String, Long> opened = new HashMap<>();
+        List<CompletableFuture<Product>> loaded = new TabPipeline(driver, tabsPerDriver)
+                .stopWhen(run::isCancelled)
+                .throttleWith(politenessScheduler)
+                .onOpen(url -> opened.put(url, System.nanoTime()))
+                .run(browserUrls, url -> timePage(captureLoadedProduct(driver, url, categoryName)
+                        .thenApply(product -> announce(product, categoryName, run)), url, opened.get(url), categoryName, run));
+        List<Product> parsed = joinAll(loaded);
+        for (int i = 0; i < browserIndexes.size(); i++) {
+            results[browserIndexes.get(i)] = parsed.get(i);
+        }
+
+        return Arrays.asList(results);
+    }
 
+    private CompletableFuture<Product> scrapeProductDetails(WebDriver driver, String productUrl, String categoryName, CrawlRun run) {
+        Product product = tryHttpFirst(productUrl, categoryName, run);
+        if (product != null) {
+            return CompletableFuture.completedFuture(product);
+        }
+
+        long start = System.nanoTime();
+        try {
+            logger.debug("Visiting product: {}", productUrl);
+            navigate(driver, productUrl);
         } catch (Exception e) {
             logger.error("Error scraping product details: {}", productUrl, e);
-            return null;
+            return timePage(CompletableFuture.completedFuture(null), productUrl, start, categoryName, run);
         }
+        return timePage(captureLoadedProduct(driver, productUrl, categoryName), productUrl, start, categoryName, run);
     }
 
     /**
-     * Extract all data using one JavaScript execution to speed up scraping.
-     * Returns a Map<String,Object> with keys: name, price, description, image, availability
+     * Report the page to the run once its product is extracted, timed from navigation start
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> extractAllDataAtOnce(JavascriptExecutor js) {
-        Map<String, Object> result = new HashMap<>();
+    private static CompletableFuture<Product> timePage(CompletableFuture<Product> page, String productUrl, long start,
+                                                       String categoryName, CrawlRun run) {
+        return page.whenComplete((product, error) -> {
+            try {
+                run.pageFetched(categoryName, productUrl, System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                logger.error("Listener failed for page {}", productUrl, e);
+            }
+        });
+    }
+
+    /**
+     * Tell the run's listeners about a product. Also runs on parse threads; a failing listener
+     * is logged so it cannot fail the page's future or abort the category.
+     */
+    private static Product announce(Product product, String categoryName, CrawlRun run) {
+        if (product != null) {
+            try {
+                run.productScraped(categoryName, product);
+            } catch (RuntimeException e) {
+                logger.error("Listener failed for product {}", product.getProductUrl(), e);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Wait for pending parses; null futures (pages that never loaded) and failed ones give null products
+     */
+    private static List<Product> joinAll(List<CompletableFuture<Product>> futures) {
+        List<Product> products = new ArrayList<>(futures.size());
+        for (CompletableFuture<Product> future : futures) {
+            products.add(future == null ? null : future.handle((product, error) -> {
+                if (error != null) {
+                    logger.error("Product page failed", error);
+                    return null;
+                }
+                return product;
+            }).join());
+        }
+        return products;
+    }
+
+    /**
+     * driver.get, paced by the per-host politeness scheduler
+     */
+    private void navigate(WebDriver driver, String url) {
+        resourceBlocker.startPage(driver);
+        networkCapture.startPage(driver, url);
+        PolitenessScheduler.Permit permit = politenessScheduler.acquire(url);
         try {
-            String script =
-                    "var data = {};" +
+            crawlMetrics.time(CrawlMetrics.NAVIGATION, () -> driver.get(url));
+        } finally {
+            politenessScheduler.releaseAfterNavigation(permit, driver);
+        }
+    }
 
-                            // name
-                            "var nameEl = document.querySelector('h1.text-brandBlack.font-bold, h2.text-brandBlack.font-bold, h2[class*=\\'text-xl\\']');" +
-                            "if(!nameEl) nameEl = document.querySelector('h1, h2');" +
-                            "data.name = nameEl ? (nameEl.textContent || nameEl.innerText).trim() : '';" +
+    /**
+     * Snapshot the rendered page into the replay corpus when recording
+     */
+    private void recordPage(WebDriver driver) {
+        if (replayRecorder.isEnabled()) {
+            replayRecorder.record(driver.getCurrentUrl(), driver.getPageSource());
+        }
+    }
 
-                            // price
-                            // price
-                            "var priceEl = document.querySelector(\"span.text-red200.font-bold, span.font-bold.text-xl, span[class*='font-bold'][class*='text-xl'], div[class*='price']\");" +
-                            "data.price = priceEl ? (priceEl.textContent || priceEl.innerText).trim() : '';" +
+    /**
+     * Extract product data from the page the driver is currently on, from its captured JSON
+     * responses when network capture finds the product there, else from the DOM
+     */
+    private Product extractLoadedProduct(WebDriver driver, String productUrl, String categoryName) {
+        try {
+            waitUtil.awaitReady(driver, "product", "h1, h2");
+            recordPage(driver);
 
+            Product captured = networkCapture.takeProduct(driver, productUrl, categoryName);
+            if (captured != null) {
+                return captured;
+            }
 
+            // Extract all data with a single JS call
+            Map<String, Object> data = crawlMetrics.time(CrawlMetrics.EXTRACTION,
+                    () -> extractAllDataAtOnce((JavascriptExecutor) driver), "page", "product");
+            Product product = ProductFields.buildProduct(data, categoryName);
+            product.setProductUrl(productUrl);
+            return product;
 
-                            // description - check several spots; use textContent (works even if hidden)
-                            "var d = ''; " +
-                            "var descSelectors = ['#description-panel span.font-normal', 'div.p-4 span.font-normal', \"div[class*='description']\", \"div[class*='prose']\", \"section[id*='description']\", 'div.product-description', 'div.product__description'];" +
-                            "for(var i=0;i<descSelectors.length && d.length<10;i++){ " +
-                            "  var el = document.querySelector(descSelectors[i]); " +
-                            "  if(el){ " +
-                            "    var t = el.textContent || el.innerText || ''; " +
-                            "    if(t && t.trim().length>0) { d = t.trim(); break; } " +
-                            "  } " +
-                            "} " +
-// safeguard: remove leading 'Description' if still present
-                            "d = d.replace(/^Description\\s*/i, '').trim();" +
-                            "data.description = d || '';"+
+        } catch (WebDriverException e) {
+            // Let the tab pipeline see crashed tabs
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error scraping product details: {}", productUrl, e);
+            return null;
+        }
+    }
 
+    /**
+     * Browser stage for the page the driver is currently on. Products found in the page's
+     * captured JSON responses need no parsing. Otherwise, with parse offloading, only the
+     * rendered HTML is captured here and parsed on the parse pool; without it the page is
+     * extracted in the browser.
+     */
+    private CompletableFuture<Product> captureLoadedProduct(WebDriver driver, String productUrl, String categoryName) {
+        if (!htmlParsePool.isEnabled()) {
+            return CompletableFuture.completedFuture(extractLoadedProduct(driver, productUrl, categoryName));
+        }
+        try {
+            waitUtil.awaitReady(driver, "product", "h1, h2");
+            Product captured = networkCapture.takeProduct(driver, productUrl, categoryName);
+            if (captured != null) {
+                recordPage(driver);
+                return CompletableFuture.completedFuture(captured);
+            }
 
-            // image - prefer og:image then first non-logo image
-                            "var img = ''; " +
-                            "var metaOg = document.querySelector(\"meta[property='og:image'], meta[name='og:image']\");" +
-                            "if(metaOg && metaOg.content) img = metaOg.content;" +
-                            "if(!img){ var imgs = document.querySelectorAll('img[src]'); for(var j=0;j<imgs.length;j++){ var s = imgs[j].src || imgs[j].getAttribute('data-src') || imgs[j].getAttribute('srcset'); if(!s) continue; s = s.toString(); if(s.indexOf('logo')>-1||s.indexOf('icon')>-1||s.indexOf('freshcoLogo')>-1||s.indexOf('/header/')>-1) continue; img = s; break; } }" +
-                            "data.image = img || '';" +
+            String html = crawlMetrics.time(CrawlMetrics.EXTRACTION, driver::getPageSource, "page", "product-capture");
+            if (replayRecorder.isEnabled()) {
+                replayRecorder.record(driver.getCurrentUrl(), html);
+            }
+            return htmlParsePool.parse(html, productUrl, categoryName);
 
-                            // availability - try a few selectors
-                            "var avail = ''; var availEl = document.querySelector('button.add-to-cart, div[class*=\"availability\"], span[class*=\"availability\"], strong');" +
-                            "if(availEl) avail = (availEl.textContent || availEl.innerText || '').trim(); " +
-                            "data.availability = (avail && avail.toLowerCase().indexOf('out')>=0) ? 'Out of Stock' : (avail ? avail : 'In Stock');" +
+        } catch (WebDriverException e) {
+            // Let the tab pipeline see crashed tabs
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error capturing product page: {}", productUrl, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
-                            "return data;";
+    /**
+     * In http fetch mode, try the page without a browser first. Records which path the
+     * page takes and returns null when it has to be loaded in Chrome.
+     */
+    private Product tryHttpFirst(String productUrl, String categoryName, CrawlRun run) {
+        if (!"http".equalsIgnoreCase(fetchMode)) {
+            run.recordFetchPath("selenium");
+            return null;
+        }
 
-            Object jsResult = js.executeScript(script);
+        long start = System.nanoTime();
+        Product product = fetchProductOverHttp(productUrl, categoryName);
+        if (product != null) {
+            run.recordFetchPath("http");
+            run.pageFetched(categoryName, productUrl, System.nanoTime() - start);
+            return product;
+        }
+        logger.debug("HTTP fetch incomplete, falling back to Selenium: {}", productUrl);
+        run.recordFetchPath("selenium-fallback");
+        return null;
+    }
+
+    /**
+     * Fetch a product page without a browser. Returns null when name or price
+     * are missing from the server-rendered HTML so the caller can fall back to Selenium.
+     */
+    private Product fetchProductOverHttp(String productUrl, String categoryName) {
+        HttpFetchService.HttpPage page = httpFetchService.fetchPage(productUrl);
+        if (page == null) {
+            return null;
+        }
+        if (crawlStateStore.isEnabled()) {
+            crawlStateStore.recordValidators(productUrl, page.etag(), page.lastModified());
+        }
+        if (replayRecorder.isEnabled()) {
+            replayRecorder.record(productUrl, page.document().outerHtml());
+        }
+
+        Map<String, Object> data = productHtmlParser.extract(page.document());
+        if (ProductFields.cleanText(ProductFields.safeToString(data.get("name"))).isEmpty()
+                || ProductFields.cleanText(ProductFields.safeToString(data.get("price"))).isEmpty()) {
+            return null;
+        }
+        Product product = ProductFields.buildProduct(data, categoryName);
+        product.setProductUrl(productUrl);
+        return product;
+    }
+
+    /**
+     * Extract all data using one JavaScript execution to speed up scraping.
+     * Returns a Map<String,Object> with keys: name, price, description, image, availability
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> extractAllDataAtOnce(JavascriptExecutor js) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            Object jsResult = scriptRegistry.execute(js, ScriptRegistry.EXTRACT_PRODUCT);
 
             if (jsResult instanceof Map) {
                 // typical: Selenium returns a Map (LinkedHashMap)
@@ -286,26 +1085,30 @@ public class ScraperService {
         return result;
     }
 
-    private String safeToString(Object o) {
-        if (o == null) return "";
-        return String.valueOf(o);
+    /**
+     * Read the product tiles on a listing page that earlier calls have not returned yet, and
+     * the page height, in one script execution; with scroll set, the same call then scrolls to
+     * the bottom. Each tile map has keys: url, name, price, description, image, availability
+     */
+    @SuppressWarnings("unchecked")
+    private ListingScan scanListing(JavascriptExecutor js, boolean scroll) {
+        Object jsResult = crawlMetrics.time(CrawlMetrics.EXTRACTION,
+                () -> scriptRegistry.execute(js, ScriptRegistry.SCAN_LISTING, PRODUCT_LINK_SELECTOR, scroll),
+                "page", "listing");
+        if (jsResult instanceof Map<?, ?> scan && scan.get("tiles") instanceof List<?> tiles) {
+            long height = scan.get("height") instanceof Number number ? number.longValue() : 0;
+            return new ListingScan((List<Map<String, Object>>) tiles, height);
+        }
+        return new ListingScan(new ArrayList<>(), 0);
     }
 
-    private String cleanText(String text) {
-        if (text == null) return "";
-        return text.replaceAll("\\s+", " ").trim();
+    private record ListingScan(List<Map<String, Object>> tiles, long height) {
     }
 
     /**
-     * Map URL path to category name
+     * Product tiles of a category; complete when nothing was cut off by a scroll, page or product limit
      */
-    private String extractCategoryName(String categoryUrl) {
-        for (Map.Entry<String, String> entry : categories.entrySet()) {
-            if (entry.getValue().equals(categoryUrl)) {
-                return entry.getKey();
-            }
-        }
-        return "Unknown";
+    private record CategoryTiles(List<Map<String, Object>> tiles, boolean complete) {
     }
 
     private void handleCookiePopup(WebDriver driver) {
@@ -315,37 +1118,108 @@ public class ScraperService {
             );
             if (!cookieButtons.isEmpty()) {
                 waitUtil.safeClick(driver, cookieButtons.get(0));
-                waitUtil.sleep(300);
+                waitUtil.awaitReady(driver, "cookie-dismiss", null);
             }
         } catch (Exception e) {
             logger.debug("No cookie popup found");
         }
     }
 
-    private void scrollToLoadAllProducts(WebDriver driver) {
+    /**
+     * Scroll and follow pagination until no new product tiles appear. Tiles are collected
+     * as they render, so grids that recycle off-screen tiles are still fully covered.
+     * Keyed by normalized product URL, in page order.
+     */
+    private CategoryTiles collectCategoryTiles(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Map<String, Map<String, Object>> tiles = new LinkedHashMap<>();
+        Set<String> visitedPages = new HashSet<>();
+        visitedPages.add(UrlFrontier.normalize(driver.getCurrentUrl()));
+        int pages = 1;
+        boolean complete = true;
+
+        while (true) {
+            complete &= scrollUntilExhausted(driver, tiles);
+            recordPage(driver);
+
+            Object next = scriptRegistry.execute(js, ScriptRegistry.NEXT_PAGE);
+            if (!(next instanceof String nextUrl) || !visitedPages.add(UrlFrontier.normalize(nextUrl))) {
+                break;
+            }
+            if (pages >= maxCategoryPages) {
+                complete = false;
+                break;
+            }
+            logger.info("Following pagination to page {}: {}", pages + 1, nextUrl);
+            navigate(driver, nextUrl);
+            waitUtil.awaitReady(driver, "category", PRODUCT_LINK_SELECTOR);
+            pages++;
+        }
+
+        logger.info("Collected {} unique product tiles over {} page(s)", tiles.size(), pages);
+        return new CategoryTiles(new ArrayList<>(tiles.values()), complete);
+    }
+
+    /**
+     * Returns false when the scroll limit or an error stopped the page before it ran out of tiles
+     */
+    private boolean scrollUntilExhausted(WebDriver driver, Map<String, Map<String, Object>> tiles) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
-            long lastHeight = (long) js.executeScript("return document.body.scrollHeight");
-            int scrollAttempts = 0;
-
-            while (scrollAttempts < 3) {
-                js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                waitUtil.sleep(500);
-                long newHeight = (long) js.executeScript("return document.body.scrollHeight");
-                if (newHeight == lastHeight) break;
-                lastHeight = newHeight;
-                scrollAttempts++;
+            // Each scan reads the tiles and height and scrolls on, so a step is one round trip
+            ListingScan scan = scanListing(js, maxScrollsPerPage > 0);
+            addTiles(tiles, scan.tiles());
+            long lastHeight = scan.height();
+            int idleRounds = 0;
+
+            for (int scroll = 0; scroll < maxScrollsPerPage && idleRounds < SCROLL_IDLE_ROUNDS; scroll++) {
+                waitUtil.awaitReady(driver, "scroll", null);
+
+                scan = scanListing(js, scroll + 1 < maxScrollsPerPage);
+                int added = addTiles(tiles, scan.tiles());
+                idleRounds = added == 0 && scan.height() == lastHeight ? idleRounds + 1 : 0;
+                lastHeight = scan.height();
             }
 
             js.executeScript("window.scrollTo(0, 0);");
-            waitUtil.sleep(300);
+            return idleRounds >= SCROLL_IDLE_ROUNDS;
 
         } catch (Exception e) {
             logger.error("Error during scrolling", e);
+            return false;
+        }
+    }
+
+    private int addTiles(Map<String, Map<String, Object>> tiles, List<Map<String, Object>> found) {
+        int added = 0;
+        for (Map<String, Object> tile : found) {
+            String url = UrlFrontier.normalize(ProductFields.safeToString(tile.get("url")));
+            if (!url.isEmpty() && !tiles.containsKey(url)) {
+                Map<String, Object> normalized = new HashMap<>(tile);
+                normalized.put("url", url);
+                tiles.put(url, normalized);
+                added++;
+            }
         }
+        return added;
     }
 
+    /**
+     * Categories to crawl: leaf categories from the sitemaps in sitemap discovery mode,
+     * falling back to the built-in map when the sitemaps list none
+     */
     public Map<String, String> getCategories() {
-        return new HashMap<>(categories);
+        if (isSitemapDiscovery()) {
+            Map<String, String> discovered = sitemapDiscoveryService.getDiscovery().getCategories();
+            if (!discovered.isEmpty()) {
+                return new LinkedHashMap<>(discovered);
+            }
+            logger.warn("Sitemap discovery found no categories, using the built-in category map");
+        }
+        return new HashMap<>(staticCategories);
+    }
+
+    private boolean isSitemapDiscovery() {
+        return "sitemap".equalsIgnoreCase(discoveryMode);
     }
 }
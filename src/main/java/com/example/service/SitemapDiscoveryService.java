@@ -0,0 +1,255 @@
+package com.example.service;
+
+import com.example.model.SiteDiscovery;
+import com.example.util.UrlFrontier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Enumerates categories and product URLs from robots.txt and sitemap.xml instead of
+ * scrolling rendered listings. Sitemaps and sitemap indexes are read with a streaming
+ * StAX parser, so even large (and gzipped) files never sit in memory as a DOM.
+ */
+@Service
+public class SitemapDiscoveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SitemapDiscoveryService.class);
+
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final int MAX_INDEX_DEPTH = 3;
+
+    @Autowired
+    private HttpFetchService httpFetchService;
+
+    @Value("${app.scraper.base-url}")
+    private String baseUrl;
+
+    /**
+     * Sitemaps to start from; robots.txt and /sitemap.xml are used when empty
+     */
+    @Value("${app.scraper.discovery.sitemap-urls:}")
+    private List<String> sitemapUrls;
+
+    @Value("${app.scraper.discovery.category-path-prefix:/products/category/}")
+    private String categoryPathPrefix;
+
+    @Value("${app.scraper.discovery.product-path-prefix:/products/}")
+    private String productPathPrefix;
+
+    @Value("${app.scraper.discovery.refresh-minutes:60}")
+    private long refreshMinutes;
+
+    private final XMLInputFactory xmlInputFactory = newXmlInputFactory();
+
+    private volatile SiteDiscovery cached;
+
+    /**
+     * Last discovery result, re-read from the sitemaps once it is older than refresh-minutes
+     */
+    public SiteDiscovery getDiscovery() {
+        SiteDiscovery discovery = cached;
+        if (discovery != null
+                && System.currentTimeMillis() - discovery.getDiscoveredAt() < TimeUnit.MINUTES.toMillis(refreshMinutes)) {
+            return discovery;
+        }
+        return discover();
+    }
+
+    /**
+     * Read all sitemaps now and replace the cached result
+     */
+    public synchronized SiteDiscovery discover() {
+        long start = System.currentTimeMillis();
+        SiteDiscovery discovery = new SiteDiscovery();
+        Set<String> categoryPaths = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+
+        for (String sitemapUrl : startingSitemaps()) {
+            readSitemap(sitemapUrl, 0, visited, discovery, categoryPaths);
+        }
+        buildCategories(categoryPaths, discovery);
+
+        discovery.setDiscoveredAt(System.currentTimeMillis());
+        discovery.setDurationMs(discovery.getDiscoveredAt() - start);
+        logger.info("Sitemap discovery: {} categories, {} product URLs from {} sitemaps in {} ms",
+                discovery.getCategories().size(), discovery.getProductUrls().size(),
+                discovery.getSitemapsRead(), discovery.getDurationMs());
+
+        cached = discovery;
+        return discovery;
+    }
+
+    private List<String> startingSitemaps() {
+        List<String> configured = sitemapUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+
+        List<String> fromRobots = new ArrayList<>();
+        try (InputStream robots = httpFetchService.openStream(baseUrl + "/robots.txt")) {
+            if (robots != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(robots, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.regionMatches(true, 0, "Sitemap:", 0, 8)) {
+                        fromRobots.add(line.substring(8).trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not read robots.txt: {}", e.getMessage());
+        }
+
+        return fromRobots.isEmpty() ? List.of(baseUrl + "/sitemap.xml") : fromRobots;
+    }
+
+    /**
+     * Stream one sitemap; index files are followed recursively once the parent is closed
+     */
+    private void readSitemap(String url, int depth, Set<String> visited,
+                             SiteDiscovery discovery, Set<String> categoryPaths) {
+        if (depth > MAX_INDEX_DEPTH || !visited.add(url)) {
+            return;
+        }
+
+        List<String> children = new ArrayList<>();
+        try (InputStream body = httpFetchService.openStream(url)) {
+            if (body == null) {
+                logger.warn("Sitemap not available: {}", url);
+                return;
+            }
+
+            XMLStreamReader xml = xmlInputFactory.createXMLStreamReader(gunzipIfNeeded(body));
+            try {
+                boolean index = false;
+                while (xml.hasNext()) {
+                    if (xml.next() != XMLStreamConstants.START_ELEMENT || !isSitemapElement(xml)) {
+                        continue;
+                    }
+                    String element = xml.getLocalName();
+                    if ("sitemapindex".equals(element)) {
+                        index = true;
+                    } else if ("loc".equals(element)) {
+                        String loc = xml.getElementText().trim();
+                        if (index) {
+                            children.add(loc);
+                        } else {
+                            classify(loc, discovery, categoryPaths);
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+            discovery.setSitemapsRead(discovery.getSitemapsRead() + 1);
+
+        } catch (IOException | XMLStreamException e) {
+            logger.warn("Failed to read sitemap {}: {}", url, e.getMessage());
+        }
+
+        for (String child : children) {
+            readSitemap(child, depth + 1, visited, discovery, categoryPaths);
+        }
+    }
+
+    private boolean isSitemapElement(XMLStreamReader xml) {
+        // Skips image:loc, video:loc and other extension elements
+        String namespace = xml.getNamespaceURI();
+        return namespace == null || namespace.isEmpty() || SITEMAP_NAMESPACE.equals(namespace);
+    }
+
+    private void classify(String loc, SiteDiscovery discovery, Set<String> categoryPaths) {
+        String path;
+        try {
+            path = URI.create(loc).getRawPath();
+        } catch (IllegalArgumentException e) {
+            logger.debug("Skipping malformed sitemap URL: {}", loc);
+            return;
+        }
+        if (path == null) {
+            return;
+        }
+
+        if (path.startsWith(categoryPathPrefix)) {
+            categoryPaths.add(path.endsWith("/") ? path.substring(0, path.length() - 1) : path);
+        } else if (path.startsWith(productPathPrefix)) {
+            discovery.getProductUrls().add(UrlFrontier.normalize(loc));
+        }
+    }
+
+    /**
+     * Turn category paths into the tree and the flat map of leaf categories to scrape.
+     * A category with sub-categories is not scraped itself; its children cover its products.
+     */
+    @SuppressWarnings("unchecked")
+    private void buildCategories(Set<String> categoryPaths, SiteDiscovery discovery) {
+        Set<String> parents = new HashSet<>();
+        for (String path : categoryPaths) {
+            for (int slash = path.lastIndexOf('/'); slash > categoryPathPrefix.length() - 1; slash = path.lastIndexOf('/', slash - 1)) {
+                parents.add(path.substring(0, slash));
+            }
+        }
+
+        for (String path : categoryPaths) {
+            if (parents.contains(path)) {
+                continue;
+            }
+
+            List<String> names = new ArrayList<>();
+            for (String segment : path.substring(categoryPathPrefix.length()).split("/")) {
+                names.add(displayName(segment));
+            }
+            discovery.getCategories().put(String.join(" > ", names), path);
+
+            Map<String, Object> node = discovery.getCategoryTree();
+            for (int i = 0; i < names.size() - 1; i++) {
+                node = (Map<String, Object>) node.computeIfAbsent(names.get(i), k -> new LinkedHashMap<String, Object>());
+            }
+            node.put(names.get(names.size() - 1), path);
+        }
+    }
+
+    /**
+     * "Fresh__Fruits__%26__Vegetables" -> "Fresh Fruits & Vegetables"
+     */
+    private String displayName(String segment) {
+        String decoded = URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+        return decoded.replace("__", " ").trim();
+    }
+
+    private InputStream gunzipIfNeeded(InputStream body) throws IOException {
+        // .xml.gz files are usually served as plain binaries, not with Content-Encoding
+        BufferedInputStream buffered = new BufferedInputStream(body);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.service;
+
+import org.openqa.selenium.*;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads pages in several tabs of one driver so navigation overlaps extraction.
+ * Up to {@code tabs} pages are in flight; while the oldest one is extracted the
+ * others keep loading. A tab that crashes is closed and its URL retried once in a new tab;
+ * a page that times out or fails in a working tab is dropped without a retry.
+ */
+public class TabPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TabPipeline.class);
+
+    private final WebDriver driver;
+    private final int tabs;
+    private BooleanSupplier stopRequested = () -> false;
+    private PolitenessScheduler scheduler;
+    private Consumer<String> onOpen = url -> {
+    };
+
+    public TabPipeline(WebDriver driver, int tabs) {
+        this.driver = driver;
+        this.tabs = Math.max(1, tabs);
+    }
+
+    /**
+     * Stop opening new tabs once the condition becomes true; unfinished pages come back as null
+     */
+    public TabPipeline stopWhen(BooleanSupplier stopRequested) {
+        this.stopRequested = stopRequested;
+        return this;
+    }
+
+    /**
+     * Pace tab navigations through the per-host politeness scheduler
+     */
+    public TabPipeline throttleWith(PolitenessScheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * Called with each URL as its tab starts loading, retries included
+     */
+    public TabPipeline onOpen(Consumer<String> onOpen) {
+        this.onOpen = onOpen;
+        return this;
+    }
+
+    /**
+     * Load every URL and run the extractor with the driver switched to its tab.
+     * Returns results in input order; failed pages are null.
+     */
+    public <T> List<T> run(List<String> urls, Function<String, T> extractor) {
+        List<T> results = new ArrayList<>(Collections.nCopies(urls.size(), null));
+        String homeHandle = driver.getWindowHandle();
+        Deque<Slot> inFlight = new ArrayDeque<>();
+        // Pages waiting for a tab, retries first
+        Deque<Slot> pending = new ArrayDeque<>();
+        for (int i = 0; i < urls.size(); i++) {
+            pending.addLast(new Slot(null, i, urls.get(i), 0, null));
+        }
+
+        try {
+            while ((!pending.isEmpty() || !inFlight.isEmpty()) && !stopRequested.getAsBoolean()) {
+                fill(homeHandle, pending, inFlight);
+
+                Slot slot = inFlight.pollFirst();
+                if (slot.handle == null) {
+                    retryOrDrop(slot, pending);
+                    continue;
+                }
+
+                try {
+                    driver.switchTo().window(slot.handle);
+                    results.set(slot.index, extractor.apply(slot.url));
+                    releasePermit(slot, true);
+                    close(slot.handle, homeHandle);
+                } catch (WebDriverException e) {
+                    releasePermit(slot, false);
+                    close(slot.handle, homeHandle);
+                    if (isCrash(e)) {
+                        logger.warn("Tab for {} crashed: {}", slot.url, e.getMessage());
+                        retryOrDrop(slot, pending);
+                    } else {
+                        // A slow or broken page, not a lost tab: a fresh tab would fail the same way
+                        logger.warn("Page {} failed: {}", slot.url, e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            for (Slot slot : inFlight) {
+                releasePermit(slot, false);
+                close(slot.handle, homeHandle);
+            }
+            switchHome(homeHandle);
+        }
+
+        return results;
+    }
+
+    /**
+     * Open tabs up to the pipeline depth. Only the first tab may wait for a politeness permit:
+     * every permit is held until its tab is extracted, so waiting for another while holding
+     * some would deadlock once the host's concurrency window is smaller than the depth.
+     */
+    private void fill(String homeHandle, Deque<Slot> pending, Deque<Slot> inFlight) {
+        while (inFlight.size() < tabs && !pending.isEmpty()) {
+            Slot next = pending.peekFirst();
+            PolitenessScheduler.Permit permit = null;
+            if (scheduler != null) {
+                permit = inFlight.isEmpty() ? scheduler.acquire(next.url) : scheduler.tryAcquire(next.url);
+                if (permit == null) {
+                    return;
+                }
+            }
+            pending.pollFirst();
+            inFlight.addLast(open(homeHandle, next, permit));
+        }
+    }
+
+    /**
+     * Start loading a URL in a new tab without waiting for it.
+     * window.open returns immediately, unlike driver.get on the current tab.
+     */
+    private Slot open(String homeHandle, Slot page, PolitenessScheduler.Permit permit) {
+        try {
+            switchHome(homeHandle);
+            Set<String> before = driver.getWindowHandles();
+            onOpen.accept(page.url);
+            ((JavascriptExecutor) driver).executeScript("window.open(arguments[0], '_blank');", page.url);
+
+            Set<String> after = new HashSet<>(driver.getWindowHandles());
+            after.removeAll(before);
+            if (after.size() == 1) {
+                return new Slot(after.iterator().next(), page.index, page.url, page.attempt, permit);
+            }
+            logger.warn("Could not identify new tab for {}", page.url);
+        } catch (WebDriverException e) {
+            logger.warn("Could not open tab for {}: {}", page.url, e.getMessage());
+        }
+        if (permit != null) {
+            scheduler.release(permit, PolitenessScheduler.UNKNOWN);
+        }
+        return new Slot(null, page.index, page.url, page.attempt, null);
+    }
+
+    /**
+     * Report the page's outcome to the scheduler; the driver must be on the slot's tab when loaded
+     */
+    private void releasePermit(Slot slot, boolean loaded) {
+        if (slot.permit == null) {
+            return;
+        }
+        if (loaded) {
+            scheduler.releaseAfterNavigation(slot.permit, driver);
+        } else {
+            scheduler.release(slot.permit, PolitenessScheduler.UNKNOWN);
+        }
+    }
+
+    /**
+     * Whether the tab or the browser session is gone, as opposed to a page that timed out or
+     * failed a script while the tab itself still works
+     */
+    static boolean isCrash(WebDriverException e) {
+        if (e instanceof NoSuchSessionException || e instanceof NoSuchWindowException
+                || e instanceof SessionNotCreatedException || e instanceof UnreachableBrowserException) {
+            return true;
+        }
+        String message = e.getMessage();
+        return message != null && (message.contains("tab crashed") || message.contains("target crashed")
+                || message.contains("disconnected") || message.contains("target window already closed"));
+    }
+
+    private void retryOrDrop(Slot slot, Deque<Slot> pending) {
+        if (slot.attempt == 0) {
+            pending.addFirst(new Slot(null, slot.index, slot.url, 1, null));
+        } else {
+            logger.error("Giving up on {} after tab recovery", slot.url);
+        }
+    }
+
+    private void close(String handle, String homeHandle) {
+        if (handle == null || handle.equals(homeHandle)) {
+            return;
+        }
+        try {
+            driver.switchTo().window(handle).close();
+        } catch (WebDriverException e) {
+            logger.debug("Tab already gone: {}", e.getMessage());
+        }
+    }
+
+    private void switchHome(String homeHandle) {
+        driver.switchTo().window(homeHandle);
+    }
+
+    private record Slot(String handle, int index, String url, int attempt, PolitenessScheduler.Permit permit) {
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.util;
+
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only journal of one crawl run, one JSON record per line: the run's category map,
+ * every scraped product, the URLs each category claimed and the product URLs of each
+ * completed category. Every record is flushed as it is written, so after a crash the journal
+ * holds everything up to the last product, and a resumed run can skip the finished work.
+ * Only URLs and record offsets are held in memory; products are read back from the journal.
+ */
+public class CrawlCheckpoint implements CrawlRun.Listener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlCheckpoint.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path file;
+    private final String runId;
+    private final Map<String, String> categories = new LinkedHashMap<>();
+    // Product URL -> offset of its product record
+    private final Map<String, Long> products = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> claimedUrls = new ConcurrentHashMap<>();
+    // Category -> offset of its category record
+    private final Map<String, Long> completedCategories = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> pendingUrls = new ConcurrentHashMap<>();
+
+    private BufferedWriter writer;
+    private RandomAccessFile reader;
+    private long length;
+    private boolean finished;
+
+    private CrawlCheckpoint(Path file, String runId) {
+        this.file = file;
+        this.runId = runId;
+    }
+
+    /**
+     * Start a new journal for a run over the given categories
+     */
+    public static CrawlCheckpoint create(Path file, String runId, Map<String, String> categories) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint(file, runId);
+        checkpoint.categories.putAll(categories);
+        checkpoint.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        Map<String, Object> header = record("run");
+        header.put("runId", runId);
+        header.put("startedAt", System.currentTimeMillis());
+        header.put("categories", categories);
+        checkpoint.append(header);
+        return checkpoint;
+    }
+
+    /**
+     * Replay an existing journal and reopen it for appending. A record cut off by a crash is ignored.
+     */
+    public static CrawlCheckpoint open(Path file) throws IOException {
+        CrawlCheckpoint checkpoint = read(file);
+        terminateLastLine(file);
+        checkpoint.length = Files.size(file);
+        checkpoint.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        return checkpoint;
+    }
+
+    /**
+     * Replay a journal without opening it for writing. Records are streamed; only their offsets are kept.
+     */
+    public static CrawlCheckpoint read(Path file) throws IOException {
+        CrawlCheckpoint checkpoint = null;
+        int lineNumber = 0;
+        long offset = 0;
+
+        try (BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line; (line = lines.readLine()) != null; offset += line.getBytes(StandardCharsets.UTF_8).length + 1) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    logger.warn("Skipping unreadable checkpoint record {}:{}", file, lineNumber);
+                    continue;
+                }
+
+                String type = node.path("type").asText();
+                if ("run".equals(type)) {
+                    checkpoint = new CrawlCheckpoint(file, node.path("runId").asText());
+                    checkpoint.categories.putAll(objectMapper.convertValue(node.path("categories"),
+                            new TypeReference<LinkedHashMap<String, String>>() { }));
+                } else if (checkpoint == null) {
+                    throw new IOException("Checkpoint " + file + " has no run header");
+                } else {
+                    checkpoint.apply(type, node, offset);
+                }
+            }
+        }
+
+        if (checkpoint == null) {
+            throw new IOException("Checkpoint " + file + " is empty");
+        }
+        return checkpoint;
+    }
+
+    private void apply(String type, JsonNode node, long offset) {
+        String category = node.path("category").asText();
+        switch (type) {
+            case "product" -> products.put(node.path("product").path("productUrl").asText(), offset);
+            case "claimed" -> claimedUrls.computeIfAbsent(category, k -> ConcurrentHashMap.newKeySet())
+                    .addAll(objectMapper.convertValue(node.path("urls"), new TypeReference<List<String>>() { }));
+            case "category" -> completedCategories.put(category, offset);
+            case "finished" -> finished = true;
+            default -> logger.debug("Ignoring checkpoint record of type {}", type);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * The categories of the original run, in crawl order
+     */
+    public Map<String, String> getCategories() {
+        return new LinkedHashMap<>(categories);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isCompleted(String category) {
+        return completedCategories.containsKey(category);
+    }
+
+    public Set<String> getCompletedCategories() {
+        return new TreeSet<>(completedCategories.keySet());
+    }
+
+    /**
+     * Products of a completed category, in the order they were exported, read back from the journal
+     */
+    public List<Product> getCompletedProducts(String category) {
+        Long offset = completedCategories.get(category);
+        if (offset == null) {
+            return new ArrayList<>();
+        }
+        List<Product> restored = new ArrayList<>();
+        for (JsonNode url : readRecord(offset).path("urls")) {
+            Product product = getProduct(url.asText());
+            if (product != null) {
+                restored.add(product);
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Product URLs claimed by a category, so a resumed run's frontier matches the original
+     */
+    public Set<String> getClaimedUrls(String category) {
+        return claimedUrls.getOrDefault(category, Collections.emptySet());
+    }
+
+    /**
+     * A product scraped earlier in this run, read back from the journal, or null
+     */
+    public Product getProduct(String url) {
+        Long offset = url != null ? products.get(url) : null;
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(readRecord(offset).path("product"), Product.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Unreadable product record in checkpoint " + file, e);
+        }
+    }
+
+    public int getProductCount() {
+        return products.size();
+    }
+
+    public void recordClaimed(String category, Collection<String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        claimedUrls.computeIfAbsent(category, k -> ConcurrentHashMap.newKeySet()).addAll(urls);
+        Map<String, Object> claimed = record("claimed");
+        claimed.put("category", category);
+        claimed.put("urls", urls);
+        append(claimed);
+    }
+
+    /**
+     * The product URLs a category is about to scrape; it only counts as completed once all of them are journaled
+     */
+    public void expect(String category, List<String> urls) {
+        pendingUrls.put(category, new ArrayList<>(urls));
+    }
+
+    /**
+     * Journal a category's final product list as product URLs. Returns false, and leaves the
+     * category to be scraped again on resume, when some of its expected products were never scraped.
+     */
+    public boolean recordCategory(String category, List<Product> categoryProducts) {
+        List<String> missing = new ArrayList<>();
+        for (String url : pendingUrls.getOrDefault(category, Collections.emptyList())) {
+            if (!products.containsKey(url)) {
+                missing.add(url);
+            }
+        }
+        pendingUrls.remove(category);
+        if (!missing.isEmpty()) {
+            logger.warn("Category {} is missing {} products; it stays open in checkpoint {}", category, missing.size(), runId);
+            return false;
+        }
+
+        List<String> urls = new ArrayList<>(categoryProducts.size());
+        for (Product product : categoryProducts) {
+            // Products the run never announced (e.g. built from listing tiles) are journaled now
+            productScraped(category, product);
+            if (product.getProductUrl() != null) {
+                urls.add(product.getProductUrl());
+            }
+        }
+        Map<String, Object> completed = record("category");
+        completed.put("category", category);
+        completed.put("urls", urls);
+        completedCategories.put(category, append(completed));
+        return true;
+    }
+
+    public void recordFinished() {
+        finished = true;
+        append(record("finished"));
+    }
+
+    @Override
+    public synchronized void productScraped(String category, Product product) {
+        String url = product.getProductUrl();
+        if (url == null || products.containsKey(url)) {
+            return;
+        }
+        Map<String, Object> scraped = record("product");
+        scraped.put("category", category);
+        scraped.put("product", product);
+        long offset = append(scraped);
+        if (offset >= 0) {
+            products.put(url, offset);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Error closing checkpoint {}: {}", file, e.getMessage());
+        }
+        writer = null;
+        reader = null;
+    }
+
+    /**
+     * Write one record; returns its offset in the journal, or -1 once the journal is closed
+     */
+    private synchronized long append(Map<String, Object> entry) {
+        if (writer == null) {
+            return -1;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(entry);
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            long offset = length;
+            length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Read back the record starting at the given offset
+     */
+    private synchronized JsonNode readRecord(long offset) {
+        try {
+            if (reader == null) {
+                reader = new RandomAccessFile(file.toFile(), "r");
+            }
+            reader.seek(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            read:
+            for (int n; (n = reader.read(buffer)) > 0; ) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, 0, i);
+                        break read;
+                    }
+                }
+                line.write(buffer, 0, n);
+            }
+            return objectMapper.readTree(line.toString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read checkpoint " + file, e);
+        }
+    }
+
+    private static Map<String, Object> record(String type) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("type", type);
+        return entry;
+    }
+
+    /**
+     * A crash can leave half a record without its newline; start appending on a fresh line
+     */
+    private static void terminateLastLine(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() > 0) {
+                raf.seek(raf.length() - 1);
+                if (raf.read() != '\n') {
+                    raf.write('\n');
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.util;
+
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import io.micrometer.core.instrument.*;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation for the crawl. Every stage is one timer, scraper.stage,
+ * tagged with the stage name, so dashboards can show where a crawl spends its time.
+ * Throughput is one gauge per active run, tagged with the run id and removed when the run ends.
+ * Exposed through Actuator at /actuator/prometheus.
+ */
+@Component
+public class CrawlMetrics {
+
+    public static final String DRIVER_STARTUP = "driver-startup";
+    public static final String NAVIGATION = "navigation";
+    public static final String READINESS = "readiness";
+    public static final String PAGE_LOAD = "page-load";
+    public static final String SLEEP = "sleep";
+    public static final String POLITENESS_WAIT = "politeness-wait";
+    public static final String EXTRACTION = "extraction";
+    public static final String CSV_EXPORT = "csv-export";
+
+    private final MeterRegistry registry;
+    private final Counter productsScraped;
+    // Stage name followed by the extra tags
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> runThroughput = new ConcurrentHashMap<>();
+
+    public CrawlMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.productsScraped = Counter.builder("scraper.products.scraped")
+                .description("Products scraped across all crawl runs")
+                .register(registry);
+    }
+
+    /**
+     * Time a stage; extra tags come in key/value pairs
+     */
+    public <T> T time(String stage, Supplier<T> work, String... tags) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start, tags);
+        }
+    }
+
+    public void time(String stage, Runnable work, String... tags) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        }, tags);
+    }
+
+    public void record(String stage, long nanos, String... tags) {
+        List<String> key = new ArrayList<>(tags.length + 1);
+        key.add(stage);
+        Collections.addAll(key, tags);
+        timers.computeIfAbsent(key, k -> Timer.builder("scraper.stage")
+                        .description("Time spent per crawl stage")
+                        .tag("stage", stage)
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void categoryFinished(String category, boolean success) {
+        registry.counter("scraper.categories", "category", category, "outcome", success ? "success" : "failure")
+                .increment();
+    }
+
+    /**
+     * Count the run's products and report its throughput until {@link #untrack(CrawlRun)}
+     */
+    public void track(CrawlRun run) {
+        // A resumed run keeps its id, so it takes over the earlier run's gauge
+        untrack(run);
+        runThroughput.put(run.getId(), Gauge.builder("scraper.crawl.products.per.second", run, CrawlMetrics::throughput)
+                .description("Products per second of an active crawl run")
+                .tag("run", run.getId())
+                .strongReference(true)
+                .register(registry));
+        run.addListener(new CrawlRun.Listener() {
+            @Override
+            public void productScraped(String category, Product product) {
+                productsScraped.increment();
+            }
+        });
+    }
+
+    public <T> void gauge(String name, T target, ToDoubleFunction<T> value, String... tags) {
+        Gauge.builder(name, target, value).tags(tags).register(registry);
+    }
+
+    /**
+     * Drop the run's throughput gauge once it has finished
+     */
+    public void untrack(CrawlRun run) {
+        Gauge gauge = runThroughput.remove(run.getId());
+        if (gauge != null) {
+            registry.remove(gauge);
+        }
+    }
+
+    private static double throughput(CrawlRun run) {
+        long end = run.getFinishedAt() > 0 ? run.getFinishedAt() : System.currentTimeMillis();
+        double seconds = (end - run.getStartedAt()) / 1000.0;
+        return seconds > 0 ? run.getProductsScraped() / seconds : 0;
+    }
+}
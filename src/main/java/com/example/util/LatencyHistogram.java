@@ -0,0 +1,98 @@
+package com.example.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket latency histogram in milliseconds. The most recent samples are also kept
+ * exactly, for percentiles and for timeouts learned from them.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MS = {25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    private static final int DEFAULT_WINDOW = 128;
+    private static final int MIN_SAMPLES = 10;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMs = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+    private final long[] recent;
+    private int samples;
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * window: how many of the latest samples percentiles are computed over
+     */
+    public LatencyHistogram(int window) {
+        this.recent = new long[Math.max(1, window)];
+    }
+
+    public void record(long millis) {
+        synchronized (recent) {
+            recent[samples++ % recent.length] = millis;
+        }
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalMs.addAndGet(millis);
+        maxMs.accumulateAndGet(millis, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Nearest-rank percentile (0..1) of the recent window; 0 when nothing was recorded
+     */
+    public long percentile(double quantile) {
+        long[] window;
+        synchronized (recent) {
+            window = Arrays.copyOf(recent, Math.min(samples, recent.length));
+        }
+        if (window.length == 0) {
+            return 0;
+        }
+        Arrays.sort(window);
+        int rank = (int) Math.ceil(window.length * Math.max(0, Math.min(1, quantile))) - 1;
+        return window[Math.max(0, rank)];
+    }
+
+    /**
+     * Twice the recent p95, clamped to [minMs, maxMs]; maxMs until there are enough samples to learn from
+     */
+    public long learnedTimeout(long minMs, long maxMs) {
+        synchronized (recent) {
+            if (samples < MIN_SAMPLES) {
+                return maxMs;
+            }
+        }
+        return Math.max(minMs, Math.min(maxMs, percentile(0.95) * 2));
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            counts.put("le_" + BUCKET_BOUNDS_MS[i] + "ms", buckets.get(i));
+        }
+        counts.put("gt_" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms", buckets.get(BUCKET_BOUNDS_MS.length));
+
+        long n = count.get();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", n);
+        snapshot.put("meanMs", n == 0 ? 0 : totalMs.get() / n);
+        snapshot.put("maxMs", maxMs.get());
+        snapshot.put("buckets", counts);
+        return snapshot;
+    }
+}
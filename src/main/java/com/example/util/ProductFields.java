@@ -0,0 +1,63 @@
+package com.example.util;
+
+import com.example.model.Product;
+
+import java.util.Map;
+
+/**
+ * Turns raw extracted field values into a cleaned-up Product
+ */
+public final class ProductFields {
+
+    private ProductFields() {
+    }
+
+    /**
+     * Build a Product from extracted fields, applying defaults and cleanup
+     */
+    public static Product buildProduct(Map<String, Object> data, String categoryName) {
+        Product product = Product.builder().build();
+        product.setCategory(categoryName);
+
+        // Name
+        String name = safeToString(data.get("name"));
+        product.setName(name.isEmpty() ? "N/A" : cleanText(name));
+
+        // Price
+        String price = safeToString(data.get("price"));
+        product.setPrice(price.isEmpty() ? "N/A" : cleanText(price));
+
+        // Description: if empty -> "No Description Available"
+        String desc = safeToString(data.get("description"));
+        desc = cleanText(desc);
+        product.setDescription(desc.isEmpty() ? "No Description Available" : desc);
+
+        // Image: prefer value returned; filter logos; if empty -> "N/A"
+        String imgUrl = safeToString(data.get("image")).trim();
+        product.setImageUrl(isPlaceholderImage(imgUrl) ? "N/A" : imgUrl);
+
+        // Availability
+        String availability = safeToString(data.get("availability"));
+        availability = cleanText(availability);
+        product.setAvailability(availability.isEmpty() ? "In Stock" : availability);
+
+        return product;
+    }
+
+    /**
+     * Site logos and icons picked up instead of a product image
+     */
+    public static boolean isPlaceholderImage(String imgUrl) {
+        return imgUrl.isEmpty() || imgUrl.contains("freshcoLogo") || imgUrl.contains("logo") || imgUrl.contains("icon");
+    }
+
+    public static String safeToString(Object o) {
+        if (o == null) return "";
+        return String.valueOf(o);
+    }
+
+    public static String cleanText(String text) {
+        if (text == null) return "";
+        return text.replaceAll("\\s+", " ").trim();
+    }
+}
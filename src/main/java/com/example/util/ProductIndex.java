@@ -0,0 +1,333 @@
+package com.example.util;
+
+import com.example.model.Availability;
+import com.example.model.Product;
+import com.example.model.ProductBatch;
+import com.example.model.ProductQuery;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, read-only index over one crawl's products. Name and description tokens map to
+ * sorted posting lists, prices are kept as a sorted array for range lookups, and every
+ * category and availability value has a bitmap of its rows. A query is a few bitmap ANDs
+ * plus a walk over the matching rows of the current page.
+ */
+public final class ProductIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Tokens in more than 1/16 of the rows also get a bitmap, so common words AND in a few microseconds
+    private static final int DENSE_TOKEN_DIVISOR = 16;
+
+    // Price sorts of fewer matches than 1/64 of the priced rows sort the matches instead of scanning
+    private static final int SORT_SCAN_DIVISOR = 64;
+
+    /**
+     * Matching rows on the requested page, and how many rows matched in total
+     */
+    public record Result(int total, List<Product> products) {
+    }
+
+    private final ProductBatch products;
+    private final Map<String, int[]> postings;
+    private final Map<String, BitSet> denseTokens = new HashMap<>();
+    private final int[] rowsByPrice;
+    private final int[] sortedCents;
+    private final Map<String, BitSet> categories;
+    private final Map<Availability, BitSet> availability;
+    private final long builtAt = System.currentTimeMillis();
+
+    private ProductIndex(ProductBatch products) {
+        this.products = products;
+        int size = products.size();
+
+        Map<String, Postings> tokens = new HashMap<>();
+        Map<String, BitSet> byCategory = new HashMap<>();
+        Map<Availability, BitSet> byAvailability = new EnumMap<>(Availability.class);
+        List<Integer> priced = new ArrayList<>();
+
+        for (int row = 0; row < size; row++) {
+            for (String token : tokenize(products.getName(row) + " " + products.getDescription(row))) {
+                tokens.computeIfAbsent(token, k -> new Postings()).add(row);
+            }
+            byCategory.computeIfAbsent(key(products.getCategory(row)), k -> new BitSet(size)).set(row);
+            byAvailability.computeIfAbsent(products.getAvailability(row), k -> new BitSet(size)).set(row);
+            if (products.hasPrice(row)) {
+                priced.add(row);
+            }
+        }
+
+        this.postings = new HashMap<>(tokens.size() * 2);
+        tokens.forEach((token, rows) -> {
+            int[] list = rows.toArray();
+            postings.put(token, list);
+            if (list.length > size / DENSE_TOKEN_DIVISOR) {
+                denseTokens.put(token, toBitSet(list, size));
+            }
+        });
+        this.categories = byCategory;
+        this.availability = byAvailability;
+
+        priced.sort(Comparator.comparingInt(products::getPriceCents));
+        this.rowsByPrice = priced.stream().mapToInt(Integer::intValue).toArray();
+        this.sortedCents = new int[rowsByPrice.length];
+        for (int i = 0; i < rowsByPrice.length; i++) {
+            sortedCents[i] = products.getPriceCents(rowsByPrice[i]);
+        }
+    }
+
+    public static ProductIndex build(List<Product> products) {
+        if (products instanceof ProductBatch batch) {
+            return new ProductIndex(batch);
+        }
+        ProductBatch batch = new ProductBatch(products.size());
+        batch.addAll(products);
+        return new ProductIndex(batch);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * The indexed products, in row order
+     */
+    public List<Product> getProducts() {
+        return Collections.unmodifiableList(products);
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getTokenCount() {
+        return postings.size();
+    }
+
+    /**
+     * Product count per category
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String category : products.getCategories()) {
+            counts.put(String.valueOf(category), categories.get(key(category)).cardinality());
+        }
+        return counts;
+    }
+
+    public Result search(ProductQuery query) {
+        BitSet match = new BitSet(size());
+        match.set(0, size());
+
+        if (query.getText() != null && !query.getText().isBlank()) {
+            match.and(textMatches(query.getText()));
+        }
+        if (query.getCategory() != null) {
+            match.and(categories.getOrDefault(key(query.getCategory()), new BitSet()));
+        }
+        if (query.getAvailability() != null) {
+            match.and(availability.getOrDefault(query.getAvailability(), new BitSet()));
+        }
+        if (query.getMinCents() != null || query.getMaxCents() != null) {
+            filterByPrice(match, query.getMinCents(), query.getMaxCents());
+        }
+
+        int from = query.getPage() * query.getSize();
+        List<Integer> rows = orderedRows(match, query.getSort(), from + query.getSize());
+        List<Product> page = new ArrayList<>();
+        for (int i = from; i < rows.size(); i++) {
+            page.add(products.get(rows.get(i)));
+        }
+        return new Result(match.cardinality(), page);
+    }
+
+    /**
+     * Rows containing every query token
+     */
+    private BitSet textMatches(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (!postings.containsKey(token)) {
+                return new BitSet();
+            }
+            terms.add(token);
+        }
+        if (terms.isEmpty()) {
+            BitSet all = new BitSet(size());
+            all.set(0, size());
+            return all;
+        }
+
+        // Start from the rarest token so the other lists only confirm candidates
+        terms.sort(Comparator.comparingInt(token -> postings.get(token).length));
+        BitSet first = denseTokens.get(terms.get(0));
+        BitSet result = first != null ? (BitSet) first.clone() : toBitSet(postings.get(terms.get(0)), size());
+        for (int i = 1; i < terms.size() && !result.isEmpty(); i++) {
+            BitSet dense = denseTokens.get(terms.get(i));
+            result.and(dense != null ? dense : toBitSet(postings.get(terms.get(i)), size()));
+        }
+        return result;
+    }
+
+    /**
+     * Keep matching rows priced within the bounds. Few candidates are checked one by one;
+     * otherwise the rows of the price range are looked up in the sorted price array.
+     */
+    private void filterByPrice(BitSet match, Integer minCents, Integer maxCents) {
+        int from = minCents == null ? 0 : lowerBound(minCents);
+        int to = maxCents == null || maxCents == Integer.MAX_VALUE ? sortedCents.length : lowerBound(maxCents + 1);
+
+        if (match.cardinality() < to - from) {
+            for (int row = match.nextSetBit(0); row >= 0; row = match.nextSetBit(row + 1)) {
+                if (!products.hasPrice(row) || products.getPriceCents(row) < (minCents == null ? Integer.MIN_VALUE + 1 : minCents)
+                        || (maxCents != null && products.getPriceCents(row) > maxCents)) {
+                    match.clear(row);
+                }
+            }
+            return;
+        }
+
+        BitSet inRange = new BitSet(size());
+        for (int i = from; i < to; i++) {
+            inRange.set(rowsByPrice[i]);
+        }
+        match.and(inRange);
+    }
+
+    /**
+     * First position whose price is at least cents
+     */
+    private int lowerBound(int cents) {
+        int low = 0;
+        int high = sortedCents.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedCents[mid] < cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Matching rows in result order, stopping once limit rows are collected.
+     * Price sorts put unpriced rows last, so every match has a place and total stays exact.
+     */
+    private List<Integer> orderedRows(BitSet match, ProductQuery.Sort sort, int limit) {
+        int matches = match.cardinality();
+        List<Integer> rows = new ArrayList<>(Math.min(limit, matches));
+        if ((sort == ProductQuery.Sort.PRICE_ASC || sort == ProductQuery.Sort.PRICE_DESC)
+                && matches < rowsByPrice.length / SORT_SCAN_DIVISOR) {
+            return sortByPrice(match, matches, sort == ProductQuery.Sort.PRICE_DESC, limit);
+        }
+        switch (sort) {
+            case PRICE_ASC -> {
+                for (int i = 0; i < rowsByPrice.length && rows.size() < limit; i++) {
+                    if (match.get(rowsByPrice[i])) {
+                        rows.add(rowsByPrice[i]);
+                    }
+                }
+                addUnpriced(match, rows, limit);
+            }
+            case PRICE_DESC -> {
+                for (int i = rowsByPrice.length - 1; i >= 0 && rows.size() < limit; i--) {
+                    if (match.get(rowsByPrice[i])) {
+                        rows.add(rowsByPrice[i]);
+                    }
+                }
+                addUnpriced(match, rows, limit);
+            }
+            case NAME -> {
+                match.stream().forEach(rows::add);
+                rows.sort(Comparator.comparing(row -> String.valueOf(products.getName(row)), String.CASE_INSENSITIVE_ORDER));
+                return rows.subList(0, Math.min(limit, rows.size()));
+            }
+            default -> {
+                for (int row = match.nextSetBit(0); row >= 0 && rows.size() < limit; row = match.nextSetBit(row + 1)) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Sort a small match set directly instead of scanning the whole price order for it
+     */
+    private List<Integer> sortByPrice(BitSet match, int matches, boolean descending, int limit) {
+        long[] keyed = new long[matches];
+        int count = 0;
+        for (int row = match.nextSetBit(0); row >= 0; row = match.nextSetBit(row + 1)) {
+            if (products.hasPrice(row)) {
+                keyed[count++] = ((long) products.getPriceCents(row) << 32) | row;
+            }
+        }
+        Arrays.sort(keyed, 0, count);
+
+        List<Integer> rows = new ArrayList<>(Math.min(limit, matches));
+        for (int i = 0; i < count && rows.size() < limit; i++) {
+            rows.add((int) keyed[descending ? count - 1 - i : i]);
+        }
+        addUnpriced(match, rows, limit);
+        return rows;
+    }
+
+    /**
+     * Append matching rows without a price, in row order, after the priced ones
+     */
+    private void addUnpriced(BitSet match, List<Integer> rows, int limit) {
+        for (int row = match.nextSetBit(0); row >= 0 && rows.size() < limit; row = match.nextSetBit(row + 1)) {
+            if (!products.hasPrice(row)) {
+                rows.add(row);
+            }
+        }
+    }
+
+    private static BitSet toBitSet(int[] rows, int size) {
+        BitSet bits = new BitSet(size);
+        for (int row : rows) {
+            bits.set(row);
+        }
+        return bits;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String key(String category) {
+        return String.valueOf(category).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable list of ascending row ids; a row is added once however often its token repeats
+     */
+    private static final class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a recorded page corpus over HTTP so crawls can run without the live site.
+ * Every response can be delayed by a base latency plus uniform jitter, and a share of
+ * requests can be failed with 503 to exercise retries and politeness back-off.
+ */
+public class ReplayServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayServer.class);
+
+    /**
+     * Tab-separated corpus index: request path and query, then the page file relative to the corpus
+     */
+    public static final String INDEX_FILE = "index.tsv";
+
+    private final Path corpusDir;
+    private final Map<String, Path> pages = new HashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedFailures = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+
+    private long latencyMs;
+    private long jitterMs;
+    private double failureRate;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ReplayServer(Path corpusDir) {
+        this.corpusDir = corpusDir;
+    }
+
+    public ReplayServer latency(long latencyMs, long jitterMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        return this;
+    }
+
+    /**
+     * Share of requests (0..1) answered with 503 Service Unavailable
+     */
+    public ReplayServer failureRate(double failureRate) {
+        this.failureRate = Math.max(0, Math.min(1, failureRate));
+        return this;
+    }
+
+    /**
+     * Load the corpus index and start listening; port 0 picks a free port
+     */
+    public ReplayServer start(int port) throws IOException {
+        loadIndex();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "replay-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        logger.info("Replaying {} recorded pages from {} at {} (latency {}±{} ms, failure rate {})",
+                pages.size(), corpusDir, getBaseUrl(), latencyMs, jitterMs, failureRate);
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("injectedFailures", injectedFailures.get());
+        stats.put("notFound", notFound.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        Path index = corpusDir.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            throw new IOException("No replay corpus index at " + index);
+        }
+        // Later lines win, so re-recorded pages replace older captures
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] columns = line.split("\t");
+            if (columns.length == 2) {
+                pages.put(columns[0], corpusDir.resolve(columns[1]));
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            delay();
+
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                injectedFailures.incrementAndGet();
+                send(exchange, 503, "text/plain", "Injected failure".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            String key = exchange.getRequestURI().getRawPath();
+            if (exchange.getRequestURI().getRawQuery() != null) {
+                key += "?" + exchange.getRequestURI().getRawQuery();
+            }
+            Path page = pages.get(key);
+            if (page == null) {
+                notFound.incrementAndGet();
+                send(exchange, 404, "text/plain", "Not recorded".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            send(exchange, 200, "text/html; charset=utf-8", Files.readAllBytes(page));
+        }
+    }
+
+    private void delay() {
+        long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0;
+        long sleepMs = Math.max(0, latencyMs + jitter);
+        if (sleepMs > 0) {
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
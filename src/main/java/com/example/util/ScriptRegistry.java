@@ -0,0 +1,180 @@
+package com.example.util;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Browser scripts, loaded once from classpath resources and pinned per driver. Chrome
+ * installs a pinned script through CDP in the current and every new document, so a call
+ * sends a short handle instead of the full source. Pins are keyed by script version
+ * (a hash of the source), so a changed script is pinned afresh rather than served stale.
+ * Drivers that cannot pin, and scripts whose pin a tab cannot see, fall back to sending the source.
+ */
+@Component
+public class ScriptRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptRegistry.class);
+
+    public static final String EXTRACT_PRODUCT = "extract-product";
+    public static final String SCAN_LISTING = "scan-listing";
+    public static final String NEXT_PAGE = "next-page";
+    public static final String READINESS_PROBE = "readiness-probe";
+
+    private static final String RESOURCE_DIR = "scripts/";
+
+    public record Script(String name, String version, String source) {
+
+        /**
+         * Pin key: a changed script is pinned afresh
+         */
+        String id() {
+            return name + "@" + version;
+        }
+    }
+
+    @Value("${app.scraper.scripts.pin:true}")
+    private boolean pinEnabled;
+
+    private final Map<String, Script> scripts = new ConcurrentHashMap<>();
+    // Weak keys: a driver's pins go away with the driver
+    private final Map<JavascriptExecutor, DriverPins> pins = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicLong pinnedCalls = new AtomicLong();
+    private final AtomicLong sourceCalls = new AtomicLong();
+    private final AtomicLong pinFailures = new AtomicLong();
+
+    /**
+     * Run a script by name, through the driver's pin when there is one. A pin missing from the
+     * current document is replaced once; a script whose fresh pin is missing too (a tab outside
+     * the driver's DevTools session) is sent as source on that driver from then on.
+     */
+    public Object execute(JavascriptExecutor js, String name, Object... args) {
+        Script script = get(name);
+        if (pinEnabled) {
+            DriverPins driverPins = driverPins(js);
+            for (int attempt = 0; attempt < 2; attempt++) {
+                ScriptKey key = pinFor(js, driverPins, script);
+                if (key == null) {
+                    break;
+                }
+                try {
+                    Object result = js.executeScript(key, args);
+                    pinnedCalls.incrementAndGet();
+                    return result;
+                } catch (JavascriptException e) {
+                    if (!isMissingPin(e)) {
+                        throw e;
+                    }
+                    pinFailures.incrementAndGet();
+                    dropPin(js, driverPins, script);
+                    if (attempt > 0) {
+                        driverPins.sourceOnly.add(script.id());
+                        logger.debug("Pinned {} missing in the current tab even after re-pinning, sending its source", script.name());
+                    }
+                }
+            }
+        }
+        sourceCalls.incrementAndGet();
+        return js.executeScript(script.source(), args);
+    }
+
+    public Script get(String name) {
+        return scripts.computeIfAbsent(name, ScriptRegistry::load);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, String> versions = new TreeMap<>();
+        scripts.values().forEach(script -> versions.put(script.name(), script.version()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pinEnabled", pinEnabled);
+        stats.put("scripts", versions);
+        stats.put("pinnedCalls", pinnedCalls.get());
+        stats.put("sourceCalls", sourceCalls.get());
+        stats.put("pinFailures", pinFailures.get());
+        return stats;
+    }
+
+    private ScriptKey pinFor(JavascriptExecutor js, DriverPins driverPins, Script script) {
+        if (driverPins.unsupported || driverPins.sourceOnly.contains(script.id())) {
+            return null;
+        }
+
+        ScriptKey key = driverPins.keys.get(script.id());
+        if (key == null) {
+            try {
+                key = js.pin(script.source());
+                driverPins.keys.put(script.id(), key);
+            } catch (RuntimeException e) {
+                // No DevTools connection (e.g. a remote driver); send sources from now on
+                driverPins.unsupported = true;
+                pinFailures.incrementAndGet();
+                logger.info("Script pinning unavailable for this driver, sending script sources: {}", e.getMessage());
+                return null;
+            }
+        }
+        return key;
+    }
+
+    private void dropPin(JavascriptExecutor js, DriverPins driverPins, Script script) {
+        ScriptKey stale = driverPins.keys.remove(script.id());
+        if (stale == null) {
+            return;
+        }
+        try {
+            js.unpin(stale);
+        } catch (RuntimeException e) {
+            logger.debug("Could not unpin {}: {}", script.name(), e.getMessage());
+        }
+    }
+
+    private DriverPins driverPins(JavascriptExecutor js) {
+        synchronized (pins) {
+            return pins.computeIfAbsent(js, k -> new DriverPins());
+        }
+    }
+
+    /**
+     * Chrome's error when the pinned function is not defined in the current document
+     */
+    private static boolean isMissingPin(JavascriptException e) {
+        String message = e.getMessage();
+        return message != null && (message.contains("seleniumPinnedScript") || message.contains("reading 'apply'"));
+    }
+
+    private static Script load(String name) {
+        String resource = RESOURCE_DIR + name + ".js";
+        try (InputStream in = ScriptRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown script: " + name);
+            }
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return new Script(name, HexFormat.of().formatHex(digest, 0, 6), source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load script " + resource, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class DriverPins {
+        private final Map<String, ScriptKey> keys = new ConcurrentHashMap<>();
+        private final Set<String> sourceOnly = ConcurrentHashMap.newKeySet();
+        private volatile boolean unsupported;
+    }
+}
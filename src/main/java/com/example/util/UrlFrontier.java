@@ -0,0 +1,145 @@
+package com.example.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seen-set of product URLs shared by every category of a crawl run, keyed by
+ * normalized URL so the same product reached through different links is visited once.
+ * URLs discovered outside the listings (e.g. from sitemaps) can be queued; whatever no
+ * category claims is drained from the queue at the end of the run.
+ */
+public class UrlFrontier {
+
+    private static final Set<String> TRACKING_PARAMS = Set.of("gclid", "fbclid", "msclkid", "ref", "ref_src", "source");
+
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    // Every URL offered to the frontier, claimed or not: the product is still listed somewhere
+    private final Set<String> listed = ConcurrentHashMap.newKeySet();
+    private final Queue<String> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    /**
+     * Claim a URL for this run; false when it (or an equivalent URL) was claimed before
+     */
+    public boolean claim(String url) {
+        String normalized = normalize(url);
+        listed.add(normalized);
+        if (seen.add(normalized)) {
+            return true;
+        }
+        duplicates.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Give up a claim whose product was not scraped, so another category may still pick it up
+     */
+    public void release(String url) {
+        seen.remove(normalize(url));
+    }
+
+    /**
+     * Note a URL a category listed but will not visit, e.g. past its product limit
+     */
+    public void markListed(String url) {
+        listed.add(normalize(url));
+    }
+
+    /**
+     * Queue a discovered URL to be scraped unless a category claims it first
+     */
+    public void enqueue(String url) {
+        listed.add(normalize(url));
+        queued.add(url);
+    }
+
+    /**
+     * Claim the next queued URL that nothing has claimed yet; null when the queue is drained
+     */
+    public String pollUnclaimed() {
+        for (String url; (url = queued.poll()) != null; ) {
+            if (seen.add(normalize(url))) {
+                return url;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether some category of this run listed the URL, even if it was not scraped
+     */
+    public boolean isListed(String url) {
+        return listed.contains(normalize(url));
+    }
+
+    public int size() {
+        return seen.size();
+    }
+
+    public int getDuplicates() {
+        return duplicates.get();
+    }
+
+    /**
+     * Canonical form of a URL: lower-case scheme and host, no default port, fragment,
+     * trailing slash or tracking parameters, remaining query parameters sorted
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getHost() == null) {
+                return url.trim();
+            }
+
+            String scheme = uri.getScheme() == null ? "https" : uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+
+            StringBuilder normalized = new StringBuilder()
+                    .append(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                normalized.append(':').append(port);
+            }
+            normalized.append(path);
+
+            String query = normalizeQuery(uri.getRawQuery());
+            if (!query.isEmpty()) {
+                normalized.append('?').append(query);
+            }
+            return normalized.toString();
+
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> params = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (!param.isEmpty() && !name.startsWith("utm_") && !TRACKING_PARAMS.contains(name)) {
+                params.add(param);
+            }
+        }
+        Collections.sort(params);
+        return String.join("&", params);
+    }
+}
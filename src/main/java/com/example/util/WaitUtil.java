@@ -3,14 +3,45 @@ package com.example.util;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class WaitUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(WaitUtil.class);
+
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final int LEARNING_WINDOW = 128;
+
+    @Value("${app.scraper.readiness.quiet-ms:150}")
+    private long quietMs;
+
+    @Value("${app.scraper.readiness.min-timeout-ms:1000}")
+    private long minTimeoutMs;
+
+    @Value("${app.scraper.readiness.max-timeout-ms:10000}")
+    private long maxTimeoutMs;
+
+    @Value("${app.scraper.readiness.settle-max-ms:1000}")
+    private long settleMaxMs;
+
+    @Autowired
+    private CrawlMetrics crawlMetrics;
+
+    @Autowired
+    private ScriptRegistry scriptRegistry;
+
+    private final Map<String, ReadinessStats> readinessStats = new ConcurrentHashMap<>();
+
     /**
      * Wait for element to be visible
      */
@@ -52,8 +83,60 @@ public class WaitUtil {
      */
     public void waitForPageLoad(WebDriver driver, int timeoutSeconds) {
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                .executeScript("return document.readyState").equals("complete"));
+        crawlMetrics.time(CrawlMetrics.PAGE_LOAD, () -> wait.until(webDriver -> ((JavascriptExecutor) webDriver)
+                .executeScript("return document.readyState").equals("complete")));
+    }
+
+    /**
+     * Wait until the page is ready: document loaded, required selector present (if any),
+     * DOM mutations quiet and no new network activity. Pages that never go quiet (carousels,
+     * polling widgets) are accepted after settle-max-ms once loaded. The timeout for each page
+     * type is learned from previously observed waits. Returns the time waited in milliseconds.
+     */
+    public long awaitReady(WebDriver driver, String pageType, String requiredSelector) {
+        ReadinessStats stats = readinessStats.computeIfAbsent(pageType, k -> new ReadinessStats());
+        long timeoutMs = stats.currentTimeout();
+        long start = System.currentTimeMillis();
+        long loadedAt = -1;
+        boolean ready = false;
+
+        while (true) {
+            long state = 0;
+            try {
+                Object result = scriptRegistry.execute((JavascriptExecutor) driver, ScriptRegistry.READINESS_PROBE, requiredSelector, quietMs);
+                state = result instanceof Number ? ((Number) result).longValue() : 0;
+            } catch (JavascriptException e) {
+                // Page is mid-navigation; probe again
+            }
+
+            long now = System.currentTimeMillis();
+            if (state >= 1 && loadedAt < 0) {
+                loadedAt = now;
+            }
+            ready = state == 2 || (state == 1 && now - loadedAt >= settleMaxMs);
+            if (ready || now - start >= timeoutMs) {
+                break;
+            }
+            pause(POLL_INTERVAL_MS);
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        stats.record(waited, ready);
+        crawlMetrics.record(CrawlMetrics.READINESS, TimeUnit.MILLISECONDS.toNanos(waited),
+                "pageType", pageType, "outcome", ready ? "ready" : "timeout");
+        if (!ready) {
+            logger.debug("Readiness timeout for {} page after {}ms", pageType, waited);
+        }
+        return waited;
+    }
+
+    /**
+     * Per page type: histogram of actual waits, learned timeout and timeout count
+     */
+    public Map<String, Object> getReadinessStats() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        readinessStats.forEach((pageType, stats) -> snapshot.put(pageType, stats.snapshot()));
+        return snapshot;
     }
 
     /**
@@ -86,6 +169,10 @@ public class WaitUtil {
      * Sleep for specified milliseconds
      */
     public void sleep(long milliseconds) {
+        crawlMetrics.time(CrawlMetrics.SLEEP, () -> pause(milliseconds));
+    }
+
+    private void pause(long milliseconds) {
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
@@ -111,4 +198,37 @@ public class WaitUtil {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Observed readiness latencies for one page type
+     */
+    private class ReadinessStats {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        // Timeouts are learned from successful waits only
+        private final LatencyHistogram readyWaits = new LatencyHistogram(LEARNING_WINDOW);
+        private long timeouts;
+
+        synchronized void record(long waitedMs, boolean ready) {
+            histogram.record(waitedMs);
+            if (ready) {
+                readyWaits.record(waitedMs);
+            } else {
+                timeouts++;
+            }
+        }
+
+        /**
+         * Twice the p95 of recent successful waits, clamped to the configured bounds
+         */
+        synchronized long currentTimeout() {
+            return readyWaits.learnedTimeout(minTimeoutMs, maxTimeoutMs);
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>(histogram.snapshot());
+            snapshot.put("timeouts", timeouts);
+            snapshot.put("learnedTimeoutMs", currentTimeout());
+            return snapshot;
+        }
+    }
+}
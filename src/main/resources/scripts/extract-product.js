@@ -0,0 +1,51 @@
+// Product page fields in one round trip: name, price, description, image, availability.
+// Mirrored in Java by ProductHtmlParser for pages fetched without a browser.
+var data = {};
+
+// name
+var nameEl = document.querySelector("h1.text-brandBlack.font-bold, h2.text-brandBlack.font-bold, h2[class*='text-xl']");
+if (!nameEl) nameEl = document.querySelector('h1, h2');
+data.name = nameEl ? (nameEl.textContent || nameEl.innerText).trim() : '';
+
+// price
+var priceEl = document.querySelector("span.text-red200.font-bold, span.font-bold.text-xl, span[class*='font-bold'][class*='text-xl'], div[class*='price']");
+data.price = priceEl ? (priceEl.textContent || priceEl.innerText).trim() : '';
+
+// description - check several spots; use textContent (works even if hidden)
+var d = '';
+var descSelectors = ['#description-panel span.font-normal', 'div.p-4 span.font-normal', "div[class*='description']", "div[class*='prose']", "section[id*='description']", 'div.product-description', 'div.product__description'];
+for (var i = 0; i < descSelectors.length && d.length < 10; i++) {
+  var el = document.querySelector(descSelectors[i]);
+  if (el) {
+    var t = el.textContent || el.innerText || '';
+    if (t && t.trim().length > 0) { d = t.trim(); break; }
+  }
+}
+// safeguard: remove leading 'Description' if still present
+d = d.replace(/^Description\s*/i, '').trim();
+data.description = d || '';
+
+// image - prefer og:image then first non-logo image
+var img = '';
+var metaOg = document.querySelector("meta[property='og:image'], meta[name='og:image']");
+if (metaOg && metaOg.content) img = metaOg.content;
+if (!img) {
+  var imgs = document.querySelectorAll('img[src]');
+  for (var j = 0; j < imgs.length; j++) {
+    var s = imgs[j].src || imgs[j].getAttribute('data-src') || imgs[j].getAttribute('srcset');
+    if (!s) continue;
+    s = s.toString();
+    if (s.indexOf('logo') > -1 || s.indexOf('icon') > -1 || s.indexOf('freshcoLogo') > -1 || s.indexOf('/header/') > -1) continue;
+    img = s;
+    break;
+  }
+}
+data.image = img || '';
+
+// availability - try a few selectors
+var avail = '';
+var availEl = document.querySelector('button.add-to-cart, div[class*="availability"], span[class*="availability"], strong');
+if (availEl) avail = (availEl.textContent || availEl.innerText || '').trim();
+data.availability = (avail && avail.toLowerCase().indexOf('out') >= 0) ? 'Out of Stock' : (avail ? avail : 'In Stock');
+
+return data;
@@ -0,0 +1,3 @@
+// URL of the next listing page, or null on the last page
+var next = document.querySelector("a[rel='next'], link[rel='next'], a[aria-label*='next' i]");
+return next && next.href ? next.href : null;
@@ -0,0 +1,38 @@
+// Installs a MutationObserver and fetch/XHR counters on first call, then returns 0 (not
+// loaded or selector missing), 1 (loaded but still changing) or 2 (loaded, DOM and network quiet).
+// Network idle means no request in flight and none finished during the quiet window;
+// Resource Timing entries only appear once a request completes, so they alone miss the
+// batch an infinite-scroll step has just asked for.
+// arguments[0]: required selector or null, arguments[1]: quiet window in ms
+var sel = arguments[0], quietMs = arguments[1], now = Date.now();
+var s = window.__crawlerReadiness;
+if (!s) {
+  s = window.__crawlerReadiness = {lastMutation: now, resources: -1, resourcesAt: now, pending: 0};
+  new MutationObserver(function () { s.lastMutation = Date.now(); })
+    .observe(document.documentElement || document,
+      {childList: true, subtree: true, characterData: true, attributes: true, attributeFilter: ['src', 'srcset', 'href']});
+
+  var done = function () { s.pending = Math.max(0, s.pending - 1); s.resourcesAt = Date.now(); };
+  if (window.fetch) {
+    var fetch = window.fetch;
+    window.fetch = function () {
+      s.pending++;
+      try {
+        return fetch.apply(this, arguments).finally(done);
+      } catch (e) { done(); throw e; }
+    };
+  }
+  var send = XMLHttpRequest.prototype.send;
+  XMLHttpRequest.prototype.send = function () {
+    s.pending++;
+    this.addEventListener('loadend', done);
+    try {
+      return send.apply(this, arguments);
+    } catch (e) { done(); throw e; }
+  };
+}
+var n = performance.getEntriesByType('resource').length;
+if (n !== s.resources) { s.resources = n; s.resourcesAt = now; }
+if (document.readyState !== 'complete' || (sel && document.querySelector(sel) === null)) return 0;
+if (s.pending > 0) return 1;
+return (now - s.lastMutation >= quietMs && now - s.resourcesAt >= quietMs) ? 2 : 1;
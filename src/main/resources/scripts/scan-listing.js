@@ -0,0 +1,39 @@
+// Listing tiles not returned by earlier calls, plus the page height, then optionally scroll
+// to the bottom to load more - one round trip per scroll step.
+// arguments[0]: product link selector, arguments[1]: scroll afterwards
+var links = document.querySelectorAll(arguments[0]);
+var seen = {}, tiles = [];
+var priceSel = "span.text-red200.font-bold, span.font-bold.text-xl, span[class*='font-bold'][class*='text-xl'], [class*='price']";
+for (var i = 0; i < links.length; i++) {
+  var a = links[i], url = a.href;
+  if (!url || seen[url] || a.hasAttribute('data-crawled')) continue;
+  seen[url] = true;
+  a.setAttribute('data-crawled', '1');
+
+  // the link is an overlay; climb to the element that holds the tile image
+  var tile = a.parentElement;
+  for (var up = 0; tile && up < 5 && !tile.querySelector('img'); up++) tile = tile.parentElement;
+  if (!tile) tile = a;
+
+  var img = tile.querySelector('img');
+  var nameEl = tile.querySelector("h2, h3, h4, [class*='name'], [class*='title']");
+  var name = nameEl ? nameEl.textContent : (a.getAttribute('aria-label') || '');
+  if (!name && img) name = img.alt || '';
+
+  var priceEl = tile.querySelector(priceSel);
+  var price = priceEl ? priceEl.textContent : '';
+  if (!price) { var m = (tile.textContent || '').match(/\$\s?\d+(?:\.\d{2})?/); price = m ? m[0] : ''; }
+
+  var image = img ? (img.currentSrc || img.src || img.getAttribute('data-src') || '') : '';
+  var text = (tile.textContent || '').toLowerCase();
+  tiles.push({url: url, name: (name || '').trim(), price: price.trim(), description: '', image: image,
+    availability: text.indexOf('out of stock') >= 0 ? 'Out of Stock' : 'In Stock'});
+}
+var height = document.body.scrollHeight;
+if (arguments[1]) {
+  window.scrollTo(0, height);
+  // The scroll is activity: make the readiness probe wait a full quiet window for the batch it triggers
+  var readiness = window.__crawlerReadiness;
+  if (readiness) readiness.lastMutation = Date.now();
+}
+return {tiles: tiles, height: height};
@@ -3,7 +3,8 @@ package com.example;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No Chrome at startup: drivers would only be pre-started for the idle pool
+@SpringBootTest(properties = "app.scraper.pool.min-idle=0")
 class FreshcoCrawlerApplicationTests {
 
 	@Test
@@ -0,0 +1,104 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResourceBlockerTest {
+
+	private final ResourceBlocker blocker = new ResourceBlocker();
+	// DevTools needs a live CDP websocket, so the driver's session is mocked
+	private final DevTools devTools = mock(DevTools.class);
+	private final WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(HasDevTools.class));
+
+	ResourceBlockerTest() {
+		ReflectionTestUtils.setField(blocker, "enabled", true);
+		ReflectionTestUtils.setField(blocker, "blockedTypes", List.of("Image", " Font", ""));
+		ReflectionTestUtils.setField(blocker, "blockedUrlPatterns", List.of("*google-analytics.com*"));
+		ReflectionTestUtils.setField(blocker, "allowPatterns", List.of("*/images/logo*"));
+		ReflectionTestUtils.setField(blocker, "browserImageSetting", false);
+		when(((HasDevTools) driver).getDevTools()).thenReturn(devTools);
+	}
+
+	@Test
+	void failsBlockedRequestsUnlessAllowListedAndCountsThemPerPage() {
+		blocker.attach(driver);
+		Map<String, Consumer<Map<String, Object>>> listeners = listeners();
+		List<Command<?>> enabled = sent();
+		assertEquals(List.of("Network.enable", "Fetch.enable"), enabled.stream().map(Command::getMethod).toList());
+		assertEquals(List.of(
+				Map.of("urlPattern", "*", "resourceType", "Image", "requestStage", "Request"),
+				Map.of("urlPattern", "*", "resourceType", "Font", "requestStage", "Request"),
+				Map.of("urlPattern", "*google-analytics.com*", "requestStage", "Request")), enabled.get(1).getParams().get("patterns"));
+
+		blocker.startPage(driver);
+		listeners.get("Fetch.requestPaused").accept(paused("1", "https://www.freshco.com/images/plums.jpg", "Image"));
+		listeners.get("Fetch.requestPaused").accept(paused("2", "https://www.freshco.com/images/logo.svg", "Image"));
+		listeners.get("Fetch.requestPaused").accept(paused("3", "https://www.google-analytics.com/analytics.js", "Script"));
+		listeners.get("Network.loadingFinished").accept(Map.of("requestId", "4", "encodedDataLength", 1200.0));
+		blocker.startPage(driver);
+
+		List<Command<?>> resolved = sent().subList(2, 5);
+		assertEquals(List.of("Fetch.failRequest", "Fetch.continueRequest", "Fetch.failRequest"),
+				resolved.stream().map(Command::getMethod).toList());
+		assertEquals(Map.of("requestId", "1", "errorReason", "BlockedByClient"), resolved.get(0).getParams());
+
+		Map<String, Object> stats = blocker.getStats();
+		assertEquals(1L, stats.get("pages"));
+		assertEquals(2L, stats.get("blockedRequests"));
+		assertEquals(45_000L + 30_000L, stats.get("estimatedBytesSaved"));
+		assertEquals(1200L, stats.get("bytesTransferred"));
+		assertEquals(Map.of("Image", 1L, "Script", 1L), stats.get("blockedByType"));
+	}
+
+	@Test
+	void leavesPagesAloneWithoutInterception() {
+		when(devTools.send(any())).thenThrow(new DevToolsException("Fetch domain unavailable"));
+		blocker.attach(driver);
+		blocker.attach(mock(WebDriver.class));
+		ReflectionTestUtils.setField(blocker, "enabled", false);
+		blocker.attach(mock(WebDriver.class, withSettings().extraInterfaces(HasDevTools.class)));
+
+		blocker.startPage(driver);
+		blocker.startPage(driver);
+
+		assertEquals(0L, blocker.getStats().get("pages"));
+		assertEquals(Map.of(), blocker.getStats().get("blockedByType"));
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Map<String, Consumer<Map<String, Object>>> listeners() {
+		ArgumentCaptor<Event> events = ArgumentCaptor.forClass(Event.class);
+		ArgumentCaptor<Consumer> handlers = ArgumentCaptor.forClass(Consumer.class);
+		verify(devTools, times(2)).addListener(events.capture(), handlers.capture());
+		Map<String, Consumer<Map<String, Object>>> listeners = new HashMap<>();
+		for (int i = 0; i < events.getAllValues().size(); i++) {
+			listeners.put(events.getAllValues().get(i).getMethod(), handlers.getAllValues().get(i));
+		}
+		return listeners;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private List<Command<?>> sent() {
+		ArgumentCaptor<Command> commands = ArgumentCaptor.forClass(Command.class);
+		verify(devTools, atLeastOnce()).send(commands.capture());
+		return new ArrayList<>((List) commands.getAllValues());
+	}
+
+	private static Map<String, Object> paused(String requestId, String url, String resourceType) {
+		return Map.of("requestId", requestId, "request", Map.of("url", url), "resourceType", resourceType);
+	}
+}
@@ -0,0 +1,176 @@
+package com.example.config;
+
+import com.example.util.CrawlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebDriverPoolTest {
+
+	private final FakeSeleniumConfig seleniumConfig = new FakeSeleniumConfig();
+	private final WebDriverPool pool = new WebDriverPool();
+
+	private void configure(int maxSize, int maxUses, long maxAgeMinutes) {
+		ReflectionTestUtils.setField(pool, "seleniumConfig", seleniumConfig);
+		ReflectionTestUtils.setField(pool, "crawlMetrics", new CrawlMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(pool, "maxSize", maxSize);
+		ReflectionTestUtils.setField(pool, "minIdle", 0);
+		ReflectionTestUtils.setField(pool, "maxUses", maxUses);
+		ReflectionTestUtils.setField(pool, "maxAgeMinutes", maxAgeMinutes);
+		ReflectionTestUtils.setField(pool, "borrowTimeoutSeconds", 0L);
+		pool.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void reusesTheMostRecentlyReturnedDriverAfterWipingIt() {
+		configure(2, 50, 30);
+		WebDriver first = pool.borrow();
+		WebDriver second = pool.borrow();
+		pool.release(first);
+		pool.release(second);
+
+		assertSame(second, pool.borrow());
+		assertSame(first, pool.borrow());
+		assertEquals(2, seleniumConfig.drivers.size());
+		assertTrue(seleniumConfig.drivers.get(1).cookiesDeleted > 0);
+		assertEquals("about:blank", seleniumConfig.drivers.get(1).url);
+	}
+
+	@Test
+	void recyclesDriversAfterMaxUsesOrMaxAge() {
+		configure(1, 2, 30);
+		WebDriver driver = pool.borrow();
+		pool.release(driver);
+		assertSame(driver, pool.borrow());
+		// Second use reached max-uses: quit on return, a new driver next time
+		pool.release(driver);
+		assertTrue(seleniumConfig.drivers.get(0).quit);
+		WebDriver replacement = pool.borrow();
+		assertEquals(2, seleniumConfig.drivers.size());
+
+		ReflectionTestUtils.setField(pool, "maxAgeMinutes", 0L);
+		pool.release(replacement);
+		assertTrue(seleniumConfig.drivers.get(1).quit);
+		assertEquals(2, pool.getStats().get("destroyed"));
+	}
+
+	@Test
+	void replacesUnhealthyIdleDriversAndTimesOutWhenExhausted() {
+		configure(1, 50, 30);
+		WebDriver driver = pool.borrow();
+		assertThrows(IllegalStateException.class, pool::borrow);
+
+		pool.release(driver);
+		seleniumConfig.drivers.get(0).crashed = true;
+		WebDriver replacement = pool.borrow();
+
+		assertEquals(2, seleniumConfig.drivers.size());
+		assertSame(seleniumConfig.drivers.get(1).proxy, replacement);
+		assertTrue(seleniumConfig.drivers.get(0).quit);
+	}
+
+	@Test
+	void refusesToBorrowOnceShutDown() {
+		configure(2, 50, 30);
+		WebDriver driver = pool.borrow();
+		pool.shutdown();
+
+		assertThrows(IllegalStateException.class, pool::borrow);
+		assertTrue(seleniumConfig.drivers.get(0).quit);
+		// A late return after shutdown does not quit the driver again or start another
+		pool.release(driver);
+		assertEquals(1, seleniumConfig.drivers.size());
+		assertEquals(1, pool.getStats().get("destroyed"));
+	}
+
+	/**
+	 * Hands out fake drivers instead of launching Chrome
+	 */
+	static class FakeSeleniumConfig extends SeleniumConfig {
+		final List<FakeDriver> drivers = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void resolveDriverBinary() {
+		}
+
+		@Override
+		public WebDriver createDriver() {
+			FakeDriver driver = new FakeDriver();
+			drivers.add(driver);
+			return driver.proxy;
+		}
+	}
+
+	/**
+	 * One window; fails every call once crashed or quit
+	 */
+	static class FakeDriver {
+		final WebDriver proxy;
+		volatile boolean crashed;
+		volatile boolean quit;
+		int cookiesDeleted;
+		String url;
+
+		FakeDriver() {
+			proxy = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (self, method, args) -> {
+						switch (method.getName()) {
+							case "hashCode":
+								return System.identityHashCode(self);
+							case "equals":
+								return self == args[0];
+							case "toString":
+								return "FakeDriver";
+							case "quit":
+								quit = true;
+								return null;
+							default:
+								break;
+						}
+						if (crashed || quit) {
+							throw new NoSuchSessionException("invalid session id");
+						}
+						return switch (method.getName()) {
+							case "getWindowHandle" -> "main";
+							case "getWindowHandles" -> new LinkedHashSet<>(List.of("main"));
+							case "switchTo" -> nested(WebDriver.TargetLocator.class, "window", self);
+							case "manage" -> nested(WebDriver.Options.class, "deleteAllCookies", null);
+							case "get" -> {
+								url = (String) args[0];
+								yield null;
+							}
+							case "executeScript" -> null;
+							default -> throw new UnsupportedOperationException(method.getName());
+						};
+					});
+		}
+
+		private Object nested(Class<?> type, String supported, Object result) {
+			return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+				if (!method.getName().equals(supported)) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+				if (supported.equals("deleteAllCookies")) {
+					cookiesDeleted++;
+				}
+				return result;
+			});
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductBatchTest {
+
+	@Test
+	void returnsProductsExactlyAsAdded() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			products.add(Product.builder()
+					.name("Product " + i)
+					.price(i % 100 == 0 ? "Price unavailable" : "$" + (i % 50) + "." + (i % 10) + "9")
+					.description("No Description Available")
+					.imageUrl(i % 10 == 0 ? "N/A" : "https://media.sobeys.com/products/" + i + "/front.jpg")
+					.availability(i % 7 == 0 ? "Out of Stock" : i % 11 == 0 ? "Only 3 left" : "In Stock")
+					.category(i % 2 == 0 ? "Fruits & Vegetables" : "Bakery")
+					.productUrl(i % 3 == 0 ? null : "https://www.freshco.com/products/product-" + i)
+					.build());
+		}
+
+		ProductBatch batch = new ProductBatch(16);
+		batch.addAll(products);
+
+		assertEquals(products, batch);
+		assertEquals(List.of("Fruits & Vegetables", "Bakery"), batch.getCategories());
+	}
+
+	@Test
+	void exposesTypedColumns() {
+		ProductBatch batch = new ProductBatch();
+		batch.add(Product.builder().name("Plums Red Small").price("$1,299.05").availability("Sold out")
+				.category("Fruits").build());
+		batch.add(Product.builder().name("Bagels").price("N/A").availability("In Stock").category("Bakery").build());
+
+		assertTrue(batch.hasPrice(0));
+		assertEquals(129905, batch.getPriceCents(0));
+		assertEquals("CAD", batch.getCurrency(0));
+		assertEquals("$1,299.05", batch.getPriceText(0));
+		assertEquals(Availability.OUT_OF_STOCK, batch.getAvailability(0));
+		assertEquals("Sold out", batch.getAvailabilityText(0));
+
+		assertFalse(batch.hasPrice(1));
+		assertNull(batch.getPrice(1));
+		assertEquals("N/A", batch.getPriceText(1));
+		assertEquals(Availability.IN_STOCK, batch.getAvailability(1));
+		assertEquals(1, batch.getCategoryId(1));
+	}
+
+	@Test
+	void parsesNegatedAndQualifiedAvailability() {
+		assertEquals(Availability.OUT_OF_STOCK, Availability.parse("Not in stock"));
+		assertEquals(Availability.OUT_OF_STOCK, Availability.parse("Not available"));
+		assertEquals(Availability.OUT_OF_STOCK, Availability.parse("Currently not available online"));
+		assertEquals(Availability.OUT_OF_STOCK, Availability.parse("No stock"));
+		assertEquals(Availability.OUT_OF_STOCK, Availability.parse("Unavailable"));
+		assertEquals(Availability.LOW_STOCK, Availability.parse("Only 3 left"));
+		assertEquals(Availability.LOW_STOCK, Availability.parse("Hurry, only a few left"));
+		assertEquals(Availability.IN_STOCK, Availability.parse("Available only in store"));
+		assertEquals(Availability.IN_STOCK, Availability.parse("In  Stock"));
+		assertEquals(Availability.UNKNOWN, Availability.parse("Stocking soon"));
+	}
+
+	@Test
+	void parsesPrices() {
+		assertEquals(new Price(249, "CAD"), Price.parse("$2.49"));
+		assertEquals(new Price(500, "USD"), Price.parse("US$ 5"));
+		assertEquals(new Price(450, "CAD"), Price.parse("CAD 4.5"));
+		assertNull(Price.parse("$4.99 $5.49"));
+		assertEquals("$0.05", new Price(5, "CAD").format());
+	}
+}
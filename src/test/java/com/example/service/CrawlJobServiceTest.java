@@ -0,0 +1,167 @@
+package com.example.service;
+
+import com.example.model.CrawlJob;
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlJobServiceTest {
+
+	private final FakeScraperService scraper = new FakeScraperService();
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+	private final CrawlJobService service = new CrawlJobService() {
+		@Override
+		SseEmitter newEmitter() {
+			RecordingEmitter emitter = new RecordingEmitter();
+			emitters.add(emitter);
+			return emitter;
+		}
+	};
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "scraperService", scraper);
+		ReflectionTestUtils.setField(service, "maxConcurrent", 1);
+		ReflectionTestUtils.setField(service, "queueCapacity", 1);
+		ReflectionTestUtils.setField(service, "retainedJobs", 100);
+		ReflectionTestUtils.setField(service, "sseTimeoutMinutes", 1L);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		scraper.proceed.countDown();
+		service.shutdown();
+	}
+
+	@Test
+	void streamsProgressOfARunningJobToItsSubscribers() throws Exception {
+		CrawlJob job = service.submit("Fruits");
+		assertTrue(scraper.started.await(5, TimeUnit.SECONDS));
+		service.subscribe(job.getId());
+
+		scraper.proceed.countDown();
+		job.getFuture().get(5, TimeUnit.SECONDS);
+
+		assertEquals(CrawlJob.Status.COMPLETED, job.getStatus());
+		assertEquals(2, job.toMap().get("totalProducts"));
+		RecordingEmitter emitter = emitters.get(0);
+		assertEquals(List.of("status", "category-started", "product", "product", "category-completed", "status"), emitter.events);
+		assertTrue(emitter.completed);
+
+		// Subscribing to a finished job sends its final status and ends the stream
+		service.subscribe(job.getId());
+		assertEquals(List.of("status"), emitters.get(1).events);
+		assertTrue(emitters.get(1).completed);
+	}
+
+	@Test
+	void cancelsQueuedJobsAndRejectsJobsBeyondTheQueue() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> service.submit("Toys"));
+
+		CrawlJob running = service.submit("Fruits");
+		assertTrue(scraper.started.await(5, TimeUnit.SECONDS));
+		CrawlJob queued = service.submit("Bakery");
+		assertThrows(RejectedExecutionException.class, () -> service.submit("Fruits"));
+		assertEquals(2, service.getJobs().size());
+
+		service.cancel(queued.getId());
+		assertEquals(CrawlJob.Status.CANCELLED, queued.getStatus());
+		// The cancelled job gave its queue slot back while the first one is still running
+		CrawlJob failing = service.submit("Bakery");
+
+		scraper.proceed.countDown();
+		running.getFuture().get(5, TimeUnit.SECONDS);
+		assertEquals(CrawlJob.Status.COMPLETED, running.getStatus());
+		assertEquals(List.of("Fruits"), scraper.crawled);
+
+		failing.getFuture().get(5, TimeUnit.SECONDS);
+		assertEquals(CrawlJob.Status.FAILED, failing.getStatus());
+		assertEquals("Listing failed for Bakery", failing.toMap().get("error"));
+	}
+
+	/**
+	 * Crawls two products per category once released; Bakery always fails
+	 */
+	static class FakeScraperService extends ScraperService {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final List<String> crawled = new CopyOnWriteArrayList<>();
+
+		@Override
+		public Map<String, String> getCategories() {
+			return Map.of("Fruits", "/products/category/Fruits", "Bakery", "/products/category/Bakery");
+		}
+
+		@Override
+		public List<Product> scrapeSingleCategory(String categoryName, CrawlRun run) {
+			started.countDown();
+			try {
+				proceed.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (categoryName.equals("Bakery")) {
+				throw new IllegalStateException("Listing failed for Bakery");
+			}
+			crawled.add(categoryName);
+			run.categoryStarted(categoryName);
+			List<Product> products = List.of(product("Plums"), product("Kiwis"));
+			products.forEach(product -> run.productScraped(categoryName, product));
+			run.categoryCompleted(categoryName, products.size());
+			return products;
+		}
+
+		private static Product product(String name) {
+			Product product = new Product();
+			product.setName(name);
+			product.setPrice("$1.99");
+			return product;
+		}
+	}
+
+	/**
+	 * Keeps the names of the events sent and whether the stream was completed
+	 */
+	static class RecordingEmitter extends SseEmitter {
+		private static final Pattern EVENT = Pattern.compile("event:(\\S+)");
+
+		final List<String> events = new CopyOnWriteArrayList<>();
+		volatile boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				Matcher matcher = EVENT.matcher(String.valueOf(part.getData()));
+				if (matcher.find()) {
+					events.add(matcher.group(1));
+				}
+			}
+			super.send(builder);
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+			super.complete();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.model.CrawlStateEntry;
+import com.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlStateStoreTest {
+
+	private static final String URL = "https://www.freshco.com/products/red-plums-1lb-20145873";
+
+	@TempDir
+	Path dir;
+
+	private final CrawlStateStore store = new CrawlStateStore();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(store, "storePath", dir.resolve("state/crawl-state.mv").toString());
+		ReflectionTestUtils.setField(store, "revalidateHours", 24L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void skipsFreshEntriesAcrossRunsAndRefetchesChangedTiles() {
+		Map<String, Object> tile = tile("$3.99");
+		String fingerprint = store.fingerprint(tile);
+		store.recordFetched(URL, fingerprint, product("$3.99"));
+		// The next run reopens the store from disk
+		store.close();
+
+		CrawlStateEntry entry = store.get(URL);
+		assertEquals("$3.99", entry.getProduct().getPrice());
+		assertEquals(fingerprint, store.fingerprint(tile("$3.99")));
+		assertTrue(store.isFresh(entry, fingerprint));
+
+		String changed = store.fingerprint(tile("$2.99"));
+		assertNotEquals(fingerprint, changed);
+		assertFalse(store.isFresh(entry, changed));
+		assertFalse(store.isUnchanged(entry, changed));
+		assertFalse(store.isFresh(store.get("https://www.freshco.com/products/unknown"), fingerprint));
+	}
+
+	@Test
+	void revalidatesStaleEntriesWithTheirValidators() {
+		String fingerprint = store.fingerprint(tile("$3.99"));
+		store.recordFetched(URL, fingerprint, product("$3.99"));
+		store.recordValidators(URL, "\"v1\"", "Wed, 14 Oct 2026 10:00:00 GMT");
+		ReflectionTestUtils.setField(store, "revalidateHours", 0L);
+
+		CrawlStateEntry stale = store.get(URL);
+		assertFalse(store.isFresh(stale, fingerprint));
+		assertTrue(store.isUnchanged(stale, fingerprint));
+		assertEquals("\"v1\"", stale.getEtag());
+
+		// Seen on the listing only: the page still counts as last fetched earlier
+		long fetched = stale.getLastFetched();
+		stale.setLastFetched(fetched - 1000);
+		store.recordSeen(stale, false);
+		assertEquals(fetched - 1000, store.get(URL).getLastFetched());
+
+		// A 304 on the conditional request revalidates it
+		ReflectionTestUtils.setField(store, "revalidateHours", 24L);
+		store.recordSeen(store.get(URL), true);
+		CrawlStateEntry revalidated = store.get(URL);
+		assertTrue(revalidated.getLastFetched() >= fetched);
+		assertTrue(store.isFresh(revalidated, fingerprint));
+		assertEquals("$3.99", revalidated.getProduct().getPrice());
+		assertEquals(1, store.size());
+	}
+
+	private static Map<String, Object> tile(String price) {
+		Map<String, Object> tile = new HashMap<>();
+		tile.put("name", "Red Plums, 1 lb");
+		tile.put("price", price);
+		tile.put("image", "https://www.freshco.com/images/plums.jpg");
+		tile.put("availability", "In Stock");
+		return tile;
+	}
+
+	private static Product product(String price) {
+		Product product = new Product();
+		product.setName("Red Plums, 1 lb");
+		product.setPrice(price);
+		product.setProductUrl(URL);
+		return product;
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.service;
+
+import com.example.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvExportStreamTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void writesThroughTempFileAndRenamesOnComplete() throws Exception {
+		Path target = dir.resolve("products.csv");
+		Path temp;
+
+		try (CsvExportStream stream = new CsvExportStream(target, 2, 3)) {
+			temp = stream.getTempFile();
+			for (int i = 0; i < 10; i++) {
+				stream.write(Product.builder().name("P" + i).price("$1.00").category("Bakery").build());
+			}
+			assertTrue(Files.exists(temp));
+			assertFalse(Files.exists(target));
+
+			assertEquals(target.toString(), stream.complete());
+		}
+
+		List<String> lines = Files.readAllLines(target);
+		assertEquals(11, lines.size());
+		assertEquals("Product Name,Price,Description,Image URL,Availability,Category", lines.get(0));
+		assertFalse(Files.exists(temp));
+	}
+
+	@Test
+	void abortKeepsPartialTempFile() throws Exception {
+		Path target = dir.resolve("products.csv");
+		Path temp;
+
+		try (CsvExportStream stream = new CsvExportStream(target, 10, 1)) {
+			temp = stream.getTempFile();
+			stream.write(Product.builder().name("Bread").build());
+		}
+
+		assertFalse(Files.exists(target));
+		assertEquals(2, Files.readAllLines(temp).size());
+	}
+
+	@Test
+	void concurrentStreamsToOneTargetKeepSeparateTempFiles() throws Exception {
+		Path target = dir.resolve("products.csv");
+
+		try (CsvExportStream first = new CsvExportStream(target, 10, 1);
+			 CsvExportStream second = new CsvExportStream(target, 10, 1)) {
+			assertNotEquals(first.getTempFile(), second.getTempFile());
+			first.write(Product.builder().name("Bread").build());
+			second.write(Product.builder().name("Plums").build());
+			second.write(Product.builder().name("Kiwis").build());
+
+			first.complete();
+			assertEquals(2, Files.readAllLines(target).size());
+			second.complete();
+		}
+
+		assertEquals(3, Files.readAllLines(target).size());
+		try (var files = Files.list(dir)) {
+			assertEquals(List.of(target), files.toList());
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.service;
+
+import com.example.model.Product;
+import com.example.util.CrawlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HtmlParsePoolTest {
+
+	private final HtmlParsePool pool = new HtmlParsePool();
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void parsesCapturedPagesOnWorkerThreads() {
+		configure(2, 1);
+
+		List<CompletableFuture<Product>> futures = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			futures.add(pool.parse(page("Plums " + i, "$" + i + ".99"), "https://www.freshco.com/products/plums-" + i, "Fruits"));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			Product product = futures.get(i).join();
+			assertEquals("Plums " + i, product.getName());
+			assertEquals("$" + i + ".99", product.getPrice());
+			assertEquals("Fruits", product.getCategory());
+			assertEquals("https://www.freshco.com/products/plums-" + i, product.getProductUrl());
+			assertEquals("https://www.freshco.com/images/plums.jpg", product.getImageUrl());
+		}
+		Map<String, Object> stats = pool.getStats();
+		assertEquals(40L, stats.get("parsed"));
+		assertEquals(0L, stats.get("failed"));
+	}
+
+	@Test
+	void parsesOnTheCallerWhenTheQueueIsFullAndFailsToNull() {
+		CountDownLatch release = new CountDownLatch(1);
+		configure(1, 1, new ProductHtmlParser() {
+			@Override
+			public Map<String, Object> extract(Document doc) {
+				if (Thread.currentThread().getName().startsWith("html-parse-")) {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				if (doc.title().equals("broken")) {
+					throw new IllegalStateException("unexpected markup");
+				}
+				return super.extract(doc);
+			}
+		});
+
+		// The worker holds the first page and the queue the second, so the third is parsed right here
+		CompletableFuture<Product> first = pool.parse(page("Plums", "$4.99"), "https://www.freshco.com/products/plums", "Fruits");
+		CompletableFuture<Product> queued = pool.parse(page("Kiwis", "$0.99"), "https://www.freshco.com/products/kiwis", "Fruits");
+		CompletableFuture<Product> byCaller = pool.parse("<html><head><title>broken</title></head></html>",
+				"https://www.freshco.com/products/broken", "Fruits");
+
+		assertTrue(byCaller.isDone());
+		assertNull(byCaller.join());
+		release.countDown();
+		assertEquals("Plums", first.join().getName());
+		assertEquals("Kiwis", queued.join().getName());
+
+		Map<String, Object> stats = pool.getStats();
+		assertTrue((Long) stats.get("parsedByCaller") > 0);
+		assertEquals(1L, stats.get("failed"));
+		assertEquals(2L, stats.get("parsed"));
+	}
+
+	private void configure(int workers, int queueCapacity) {
+		configure(workers, queueCapacity, new ProductHtmlParser());
+	}
+
+	private void configure(int workers, int queueCapacity, ProductHtmlParser parser) {
+		ReflectionTestUtils.setField(pool, "enabled", true);
+		ReflectionTestUtils.setField(pool, "workers", workers);
+		ReflectionTestUtils.setField(pool, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(pool, "productHtmlParser", parser);
+		ReflectionTestUtils.setField(pool, "crawlMetrics", new CrawlMetrics(new SimpleMeterRegistry()));
+		pool.init();
+	}
+
+	private static String page(String name, String price) {
+		return "<html><body><img src=\"/images/plums.jpg\"><h2 class=\"text-brandBlack font-bold\">" + name + "</h2>"
+				+ "<span class=\"text-red200 font-bold\">" + price + "</span></body></html>";
+	}
+}
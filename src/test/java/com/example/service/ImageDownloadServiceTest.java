@@ -0,0 +1,166 @@
+package com.example.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageDownloadServiceTest {
+
+	private static final byte[] PLUMS = image(1, 600_000);
+	private static final byte[] BREAD = image(2, 600_000);
+
+	@TempDir
+	Path imageDir;
+
+	private final ImageDownloadService service = new ImageDownloadService();
+	private final AtomicInteger conditionalRequests = new AtomicInteger();
+	private final ExecutorService handlers = Executors.newCachedThreadPool();
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/images/plums.png", exchange -> serve(exchange, PLUMS));
+		// Same picture published under a second URL
+		server.createContext("/cdn/plums-copy.png", exchange -> serve(exchange, PLUMS));
+		server.createContext("/images/bread.png", exchange -> serve(exchange, BREAD));
+		server.createContext("/slow/", exchange -> {
+			try {
+				Thread.sleep(3_000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			serve(exchange, BREAD);
+		});
+		server.setExecutor(handlers);
+		server.start();
+
+		ReflectionTestUtils.setField(service, "enabled", true);
+		ReflectionTestUtils.setField(service, "imageDir", imageDir.toString());
+		ReflectionTestUtils.setField(service, "threads", 4);
+		ReflectionTestUtils.setField(service, "maxDiskMb", 1L);
+		ReflectionTestUtils.setField(service, "revalidateHours", 24L);
+		ReflectionTestUtils.setField(service, "waitSeconds", 5L);
+		ReflectionTestUtils.setField(service, "httpFetchService", new HttpFetchService(5, new PolitenessScheduler()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+		server.stop(0);
+		handlers.shutdownNow();
+	}
+
+	@Test
+	void storesIdenticalImagesOnceAndRevalidatesConditionally() throws Exception {
+		CompletableFuture<String> first = service.submit(url("/images/plums.png"));
+		CompletableFuture<String> copy = service.submit(url("/cdn/plums-copy.png"));
+		String path = first.get(5, TimeUnit.SECONDS);
+
+		assertEquals(path, copy.get(5, TimeUnit.SECONDS));
+		assertTrue(path.endsWith(".png"));
+		assertArrayEquals(PLUMS, Files.readAllBytes(Path.of(path)));
+		assertEquals(1L, service.getStats().get("downloaded"));
+		assertEquals(1L, service.getStats().get("deduplicated"));
+
+		// Fresh entries are served from disk without a request
+		assertEquals(path, service.awaitPath(url("/images/plums.png")));
+		assertEquals(1L, service.getStats().get("cached"));
+
+		ReflectionTestUtils.setField(service, "revalidateHours", 0L);
+		assertEquals(path, service.awaitPath(url("/images/plums.png")));
+		assertEquals(1, conditionalRequests.get());
+		assertEquals(1L, service.getStats().get("revalidated"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedImagesBeyondTheDiskBudget() throws Exception {
+		String plums = service.awaitPath(url("/images/plums.png"));
+		String bread = service.awaitPath(url("/images/bread.png"));
+
+		assertNotEquals(plums, bread);
+		assertFalse(Files.exists(Path.of(plums)));
+		assertTrue(Files.exists(Path.of(bread)));
+		Map<String, Object> stats = service.getStats();
+		assertEquals(1L, stats.get("evictedFiles"));
+		assertEquals((long) BREAD.length, stats.get("diskBytes"));
+
+		// An evicted image is downloaded again on its next use
+		assertEquals(plums, service.awaitPath(url("/images/plums.png")));
+		assertTrue(Files.exists(Path.of(plums)));
+	}
+
+	@Test
+	void skipsMissingAndNonHttpImages() {
+		assertEquals("", service.awaitPath(url("/images/missing.png")));
+		assertEquals("", service.awaitPath("data:image/png;base64,AAAA"));
+		assertEquals("", service.awaitPath(null));
+	}
+
+	@Test
+	void sharesOneWaitBudgetAcrossAnExport() throws Exception {
+		ReflectionTestUtils.setField(service, "waitSeconds", 1L);
+		String plums = service.submit(url("/images/plums.png")).get(5, TimeUnit.SECONDS);
+		Function<String, String> paths = service.pathResolver();
+
+		long start = System.nanoTime();
+		assertEquals(url("/slow/one.png"), paths.apply(url("/slow/one.png")));
+		assertEquals(url("/slow/two.png"), paths.apply(url("/slow/two.png")));
+		long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// The first slow image spends the budget; the second is not waited for at all
+		assertTrue(waitedMs >= 900 && waitedMs < 2_000, "waited " + waitedMs + " ms");
+		assertEquals(plums, paths.apply(url("/images/plums.png")));
+		assertEquals("", paths.apply("data:image/png;base64,AAAA"));
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + server.getAddress().getPort() + path;
+	}
+
+	private void serve(HttpExchange exchange, byte[] body) throws IOException {
+		String etag = "\"" + Arrays.hashCode(body) + "\"";
+		exchange.getResponseHeaders().add("ETag", etag);
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			conditionalRequests.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		exchange.getResponseHeaders().add("Content-Type", "image/png");
+		exchange.sendResponseHeaders(200, body.length);
+		exchange.getResponseBody().write(body);
+		exchange.close();
+	}
+
+	private static byte[] image(int seed, int size) {
+		byte[] bytes = new byte[size];
+		for (int i = 0; i < size; i++) {
+			bytes[i] = (byte) (i * 31 + seed);
+		}
+		return bytes;
+	}
+}
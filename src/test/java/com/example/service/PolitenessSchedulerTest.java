@@ -0,0 +1,78 @@
+package com.example.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PolitenessSchedulerTest {
+
+	private static final String PAGE = "https://www.freshco.com/products/a";
+
+	@Test
+	void backsOffOnFailedRequestsButNotOnUnknownOutcomes() {
+		PolitenessScheduler scheduler = TabPipelineTest.scheduler(4);
+
+		scheduler.release(scheduler.acquire(PAGE), PolitenessScheduler.UNKNOWN);
+		assertEquals(4.0, host(scheduler, "www.freshco.com").get("concurrencyWindow"));
+		assertEquals(1000.0, host(scheduler, "www.freshco.com").get("requestsPerSecond"));
+		assertEquals(0L, host(scheduler, "www.freshco.com").get("congestionSignals"));
+
+		scheduler.release(scheduler.acquire(PAGE), PolitenessScheduler.FAILED);
+		assertEquals(2.0, host(scheduler, "www.freshco.com").get("concurrencyWindow"));
+		assertEquals(500.0, host(scheduler, "www.freshco.com").get("requestsPerSecond"));
+		assertEquals(1L, host(scheduler, "www.freshco.com").get("congestionSignals"));
+		assertEquals(0, host(scheduler, "www.freshco.com").get("inFlight"));
+	}
+
+	@Test
+	void refusedConnectionsCountAsCongestion() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		PolitenessScheduler scheduler = TabPipelineTest.scheduler(4);
+
+		assertNull(new HttpFetchService(5, scheduler).fetchPage("http://localhost:" + port + "/products/a"));
+
+		assertEquals(1L, host(scheduler, "localhost").get("congestionSignals"));
+		assertEquals(0, host(scheduler, "localhost").get("inFlight"));
+	}
+
+	@Test
+	void holdsTheResourcePermitUntilTheBodyIsClosed() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/images/plums.png", exchange -> {
+			exchange.sendResponseHeaders(200, 3);
+			exchange.getResponseBody().write(new byte[]{1, 2, 3});
+			exchange.close();
+		});
+		server.start();
+		PolitenessScheduler scheduler = TabPipelineTest.scheduler(4);
+		HttpFetchService http = new HttpFetchService(5, scheduler);
+
+		try {
+			HttpFetchService.HttpResource resource = http.fetchResource(
+					"http://localhost:" + server.getAddress().getPort() + "/images/plums.png", null, null);
+			assertEquals(1, host(scheduler, "localhost").get("inFlight"));
+			try (resource; InputStream body = resource.body()) {
+				assertEquals(3, body.readAllBytes().length);
+			}
+			assertEquals(0, host(scheduler, "localhost").get("inFlight"));
+			assertEquals(1L, host(scheduler, "localhost").get("requests"));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> host(PolitenessScheduler scheduler, String host) {
+		return (Map<String, Object>) scheduler.getSnapshot().get(host);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.model.HistoryRun;
+import com.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceHistoryStoreTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final PriceHistoryStore store = new PriceHistoryStore();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(store, "storePath", tempDir.resolve("history.mv").toString());
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void recordsOnlyChangedProducts() {
+		HistoryRun first = store.recordRun("run-1", List.of(
+				product("plums", "$4.99", "In Stock", "Fruits"),
+				product("bread", "$3.99", "In Stock", "Bakery")), List.of("Fruits", "Bakery"));
+		HistoryRun second = store.recordRun("run-2", List.of(
+				product("plums", "$4.99", "In Stock", "Fruits"),
+				product("bread", "$3.49", "In Stock", "Bakery")), List.of("Fruits", "Bakery"));
+
+		assertEquals(2, first.getChangeCount());
+		assertEquals(1, second.getChangeCount());
+		assertEquals(1, store.getProductHistory("https://shop.test/products/plums").size());
+		assertEquals(2, store.getProductHistory("https://shop.test/products/bread").size());
+	}
+
+	@Test
+	void diffsAnyTwoRuns() {
+		store.recordRun("run-1", List.of(
+				product("plums", "$4.99", "In Stock", "Fruits"),
+				product("apples", "$2.49", "In Stock", "Fruits"),
+				product("bread", "$3.99", "In Stock", "Bakery")), List.of("Fruits", "Bakery"));
+		store.recordRun("run-2", List.of(
+				product("plums", "$4.49", "In Stock", "Fruits"),
+				product("bread", "$3.99", "Out of Stock", "Bakery")), List.of("Fruits", "Bakery"));
+		// A single-category run must not mark the other categories' products as removed
+		store.recordRun("run-3", List.of(
+				product("plums", "$4.49", "In Stock", "Fruits"),
+				product("kiwis", "$0.99", "In Stock", "Fruits")), List.of("Fruits"));
+
+		Map<String, Object> diff = store.diff(store.findRun("run-1"), store.findRun("latest"), 10);
+		assertEquals(Map.of("added", 1, "removed", 1, "priceChanged", 1, "availabilityChanged", 1), diff.get("counts"));
+		assertEquals(-50L, change(diff, "priceChanged").get("priceChangeCents"));
+		assertEquals("kiwis", change(diff, "added").get("name"));
+		assertEquals("apples", change(diff, "removed").get("name"));
+
+		Map<String, Object> lastRun = store.diff(store.findRun("previous"), store.findRun("3"), 10);
+		assertEquals(Map.of("added", 1, "removed", 0, "priceChanged", 0, "availabilityChanged", 0), lastRun.get("counts"));
+	}
+
+	@Test
+	void removesOnlyProductsAFullCrawlNoLongerLists() {
+		store.recordRun("run-1", List.of(
+				product("plums", "$4.99", "In Stock", "Fruits"),
+				product("apples", "$2.49", "In Stock", "Fruits"),
+				product("kiwis", "$0.99", "In Stock", "Fruits"),
+				product("bread", "$3.99", "In Stock", "Bakery")), List.of("Fruits", "Bakery"));
+		// Bakery failed; apples moved to a category whose page failed
+		HistoryRun second = store.recordRun("run-2", List.of(
+				product("plums", "$4.99", "In Stock", "Fruits")), List.of("Fruits"),
+				key -> key.endsWith("/apples"));
+
+		assertEquals(1, second.getChangeCount());
+		Map<String, Object> diff = store.diff(store.findRun("run-1"), store.findRun("run-2"), 10);
+		assertEquals(Map.of("added", 0, "removed", 1, "priceChanged", 0, "availabilityChanged", 0), diff.get("counts"));
+		assertEquals("kiwis", change(diff, "removed").get("name"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> change(Map<String, Object> diff, String kind) {
+		return ((List<Map<String, Object>>) diff.get(kind)).get(0);
+	}
+
+	private static Product product(String slug, String price, String availability, String category) {
+		return Product.builder().name(slug).price(price).availability(availability).category(category)
+				.productUrl("https://shop.test/products/" + slug).build();
+	}
+}
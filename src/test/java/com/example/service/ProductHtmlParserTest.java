@@ -0,0 +1,50 @@
+package com.example.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductHtmlParserTest {
+
+	private final ProductHtmlParser parser = new ProductHtmlParser();
+
+	@Test
+	void extractsFieldsFromServerRenderedProductPage() {
+		Document doc = Jsoup.parse("""
+				<html><head><meta property="og:image" content="https://media.sobeys.com/plums.jpg"></head>
+				<body>
+				  <img src="/header/freshcoLogo.svg">
+				  <h2 class="text-brandBlack font-bold">Plums Red Small</h2>
+				  <p><span class="text-red200 font-bold">$4.99</span><span class="font-extrabold text-xl">$5.49</span></p>
+				  <div id="description-panel"><span class="font-normal">Description  Fresh, juicy red plums.</span></div>
+				</body></html>""", "https://www.freshco.com/products/plums");
+
+		Map<String, Object> data = parser.extract(doc);
+
+		assertEquals("Plums Red Small", data.get("name"));
+		assertEquals("$4.99", data.get("price"));
+		assertEquals("Fresh, juicy red plums.", data.get("description"));
+		assertEquals("https://media.sobeys.com/plums.jpg", data.get("image"));
+		assertEquals("In Stock", data.get("availability"));
+	}
+
+	@Test
+	void skipsLogoImagesAndDetectsOutOfStock() {
+		Document doc = Jsoup.parse("""
+				<body>
+				  <img src="/assets/logo.png"><img src="/images/bread.jpg">
+				  <h1>Bread</h1>
+				  <button class="add-to-cart">Out of stock</button>
+				</body>""", "https://www.freshco.com/products/bread");
+
+		Map<String, Object> data = parser.extract(doc);
+
+		assertEquals("https://www.freshco.com/images/bread.jpg", data.get("image"));
+		assertEquals("Out of Stock", data.get("availability"));
+		assertEquals("", data.get("price"));
+	}
+}
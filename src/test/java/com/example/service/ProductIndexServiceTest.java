@@ -0,0 +1,42 @@
+package com.example.service;
+
+import com.example.model.Product;
+import com.example.model.ProductQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductIndexServiceTest {
+
+	private final ProductIndexService service = new ProductIndexService();
+
+	@Test
+	void mergesACategoryCrawlIntoTheIndex() {
+		service.publish(List.of(
+				product("Plums", "$4.99", "Fruits", "plums"),
+				product("Apples", "$2.49", "Fruits", "apples"),
+				product("Bread", "$3.99", "Bakery", "bread"),
+				product("Bagels", "$5.49", "Bakery", null),
+				product("Rolls", "$2.00", "Bakery", "rolls")));
+
+		// Bakery crawled in full: bread repriced, bagels found under a URL now, rolls gone from the site
+		service.merge(List.of(
+				product("Bread", "$3.49", "Bakery", "bread"),
+				product("Bagels", "$5.49", "Bakery", "bagels")), List.of("Bakery"));
+		// A Fruits crawl that lost a page must not drop apples
+		service.merge(List.of(product("Plums", "$4.49", "Fruits", "plums")), List.of());
+
+		ProductQuery query = new ProductQuery();
+		query.setSort(ProductQuery.Sort.NAME);
+		List<Product> products = service.getIndex().search(query).products();
+		assertEquals(List.of("Apples", "Bagels", "Bread", "Plums"), products.stream().map(Product::getName).toList());
+		assertEquals(List.of("$2.49", "$5.49", "$3.49", "$4.49"), products.stream().map(Product::getPrice).toList());
+	}
+
+	private static Product product(String name, String price, String category, String slug) {
+		return Product.builder().name(name).price(price).category(category)
+				.productUrl(slug != null ? "https://shop.test/products/" + slug : null).build();
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.service;
+
+import com.example.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductJsonParserTest {
+
+	private static final String PAGE = "https://www.freshco.com/products/red-plums-1lb-20145873";
+
+	private final ProductJsonParser parser = new ProductJsonParser();
+
+	@Test
+	void readsNestedPricesImagesAndSkus() throws Exception {
+		String json = """
+				{"data": {"product": {
+				  "productId": "20145873", "name": "Red Plums, 1 lb", "slug": "red-plums-1lb-20145873",
+				  "pricing": {"currency": "CAD"},
+				  "sale_price": {"value": 3.99, "currencyCode": "CAD"},
+				  "regularPrice": {"centAmount": 449},
+				  "description": "<p>Sweet and <b>juicy</b></p>",
+				  "images": [{"url": "/images/plums.jpg"}, {"url": "/images/plums-2.jpg"}],
+				  "stockStatus": "IN_STOCK",
+				  "related": [{"sku": "20150001", "name": "Green Grapes", "price": 4.5, "available": false}]
+				}}}""";
+
+		List<Product> products = parser.parse(bytes(json), "Fruits");
+
+		assertEquals(2, products.size());
+		Product grapes = products.get(0);
+		assertEquals("Green Grapes", grapes.getName());
+		assertEquals("$4.50", grapes.getPrice());
+		assertEquals("Out of Stock", grapes.getAvailability());
+
+		Product plums = parser.select(products, PAGE);
+		assertEquals("Red Plums, 1 lb", plums.getName());
+		assertEquals("$3.99", plums.getPrice());
+		assertEquals("20145873", plums.getSku());
+		assertEquals("Sweet and juicy", plums.getDescription());
+		assertEquals("In Stock", plums.getAvailability());
+		assertEquals("Fruits", plums.getCategory());
+		assertEquals("https://www.freshco.com/images/plums.jpg", plums.getImageUrl());
+		assertEquals(PAGE, plums.getProductUrl());
+	}
+
+	@Test
+	void leavesAmbiguousPagesToTheDom() throws Exception {
+		String json = """
+				[{"sku": "111111", "title": "Apples", "priceInCents": 299},
+				 {"sku": "222222", "title": "Pears", "priceInCents": 349},
+				 {"name": "Delivery fee", "price": "$4.99"}]""";
+
+		List<Product> products = parser.parse(bytes(json), "Fruits");
+
+		assertEquals(3, products.size());
+		assertEquals("$2.99", products.get(0).getPrice());
+		assertNull(parser.select(products, PAGE));
+		// The page's own SKU is not among them: a lone product from another response is not this page
+		assertNull(parser.select(products.subList(1, 3), PAGE));
+		assertEquals("Pears", parser.select(products.subList(1, 3), "https://www.freshco.com/products/pears").getName());
+		assertEquals("Apples", parser.select(products, "https://www.freshco.com/products/apples-111111").getName());
+	}
+
+	@Test
+	void leavesUnpricedMatchesToTheDom() throws Exception {
+		List<Product> products = parser.parse(bytes("{\"sku\": \"20145873\", \"name\": \"Red Plums, 1 lb\"}"), "Fruits");
+
+		assertEquals(1, products.size());
+		assertNull(parser.select(products, PAGE));
+	}
+
+	private static byte[] bytes(String json) {
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+}
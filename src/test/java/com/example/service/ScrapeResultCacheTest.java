@@ -0,0 +1,97 @@
+package com.example.service;
+
+import com.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ScrapeResultCacheTest {
+
+	private final ScrapeResultCache cache = new ScrapeResultCache();
+	private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+		cache.shutdown();
+	}
+
+	@Test
+	void concurrentRequestsShareOneCrawl() throws Exception {
+		configure(300, 0);
+		AtomicInteger crawls = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<ScrapeResultCache.Lookup> first = callers.submit(() -> cache.get("Bakery", run -> {
+			crawls.incrementAndGet();
+			started.countDown();
+			await(release);
+			return List.of(Product.builder().name("Bagels").build());
+		}, false));
+		started.await();
+		Future<ScrapeResultCache.Lookup> second = callers.submit(() -> cache.get("Bakery", run -> {
+			crawls.incrementAndGet();
+			return List.of();
+		}, false));
+
+		// Give the second caller time to join the crawl in flight
+		Thread.sleep(100);
+		release.countDown();
+
+		Set<ScrapeResultCache.Status> statuses = Set.of(first.get(5, TimeUnit.SECONDS).status(), second.get(5, TimeUnit.SECONDS).status());
+		assertEquals(Set.of(ScrapeResultCache.Status.MISS, ScrapeResultCache.Status.COALESCED), statuses);
+		assertSame(first.get().result(), second.get().result());
+		assertEquals(1, crawls.get());
+
+		ScrapeResultCache.Lookup cached = cache.get("Bakery", run -> List.of(), false);
+		assertEquals(ScrapeResultCache.Status.HIT, cached.status());
+		assertEquals("Bagels", cached.result().products().get(0).getName());
+	}
+
+	@Test
+	void servesStaleResultWhileRefreshing() throws Exception {
+		configure(0, 300);
+		cache.get("Bakery", run -> List.of(Product.builder().name("Old").build()), false);
+
+		CountDownLatch refreshed = new CountDownLatch(1);
+		ScrapeResultCache.Lookup stale = cache.get("Bakery", run -> {
+			refreshed.countDown();
+			return List.of(Product.builder().name("New").build());
+		}, false);
+
+		assertEquals(ScrapeResultCache.Status.STALE, stale.status());
+		assertEquals("Old", stale.result().products().get(0).getName());
+		refreshed.await(5, TimeUnit.SECONDS);
+		String name = "Old";
+		for (int i = 0; i < 100 && name.equals("Old"); i++) {
+			Thread.sleep(20);
+			name = cache.get("Bakery", run -> List.of(Product.builder().name("New").build()), false)
+					.result().products().get(0).getName();
+		}
+		assertEquals("New", name);
+	}
+
+	private void configure(long ttlSeconds, long staleSeconds) {
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "ttlSeconds", ttlSeconds);
+		ReflectionTestUtils.setField(cache, "staleSeconds", staleSeconds);
+		cache.init();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.service;
+
+import com.example.model.SiteDiscovery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SitemapDiscoveryServiceTest {
+
+	private static final String BASE = "https://shop.test";
+
+	private final FakeHttpFetchService http = new FakeHttpFetchService();
+	private final SitemapDiscoveryService service = new SitemapDiscoveryService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "httpFetchService", http);
+		ReflectionTestUtils.setField(service, "baseUrl", BASE);
+		ReflectionTestUtils.setField(service, "sitemapUrls", List.of());
+		ReflectionTestUtils.setField(service, "categoryPathPrefix", "/products/category/");
+		ReflectionTestUtils.setField(service, "productPathPrefix", "/products/");
+		ReflectionTestUtils.setField(service, "refreshMinutes", 60L);
+	}
+
+	@Test
+	void followsNestedIndexesIncludingGzippedSitemaps() throws Exception {
+		http.pages.put(BASE + "/robots.txt", bytes("User-agent: *\nDisallow: /cart\nSitemap: " + BASE + "/sitemap_index.xml\n"));
+		http.pages.put(BASE + "/sitemap_index.xml", bytes(index(BASE + "/sitemap-categories.xml", BASE + "/nested_index.xml")));
+		http.pages.put(BASE + "/nested_index.xml", bytes(index(BASE + "/sitemap-products.xml.gz")));
+		http.pages.put(BASE + "/sitemap-categories.xml", bytes(urlset(
+				"<url><loc>" + BASE + "/products/category/Fruits</loc></url>",
+				"<url><loc>" + BASE + "/products/category/Fruits/Citrus/</loc></url>",
+				"<url><loc>" + BASE + "/products/category/Fresh__Fruits__%26__Vegetables</loc></url>")));
+		http.pages.put(BASE + "/sitemap-products.xml.gz", gzip(urlset(
+				"<url><loc>" + BASE + "/products/plums-red/?utm_source=sitemap</loc>"
+						+ "<image:image><image:loc>" + BASE + "/products/images/plums.jpg</image:loc></image:image></url>",
+				"<url><loc> " + BASE + "/products/kiwis </loc><lastmod>2026-10-01</lastmod></url>")));
+
+		SiteDiscovery discovery = service.discover();
+
+		assertEquals(Map.of(
+				"Fruits > Citrus", "/products/category/Fruits/Citrus",
+				"Fresh Fruits & Vegetables", "/products/category/Fresh__Fruits__%26__Vegetables"), discovery.getCategories());
+		assertEquals(Map.of("Citrus", "/products/category/Fruits/Citrus"), discovery.getCategoryTree().get("Fruits"));
+		assertEquals(List.of(BASE + "/products/plums-red", BASE + "/products/kiwis"), List.copyOf(discovery.getProductUrls()));
+		assertEquals(4, discovery.getSitemapsRead());
+		assertEquals(http.opened, http.closed.size());
+	}
+
+	@Test
+	void skipsInvalidSitemapsAndKeepsWhatWasReadBeforeTheError() throws Exception {
+		ReflectionTestUtils.setField(service, "sitemapUrls", List.of(BASE + "/sitemap.xml"));
+		http.pages.put(BASE + "/sitemap.xml", bytes(index(BASE + "/broken.xml", BASE + "/missing.xml", BASE + "/sitemap.xml",
+				BASE + "/not-xml.xml", BASE + "/good.xml")));
+		String broken = urlset(
+				"<url><loc>" + BASE + "/products/apples</loc></url>",
+				"<url><loc>" + BASE + "/products/pears</loc></url>");
+		http.pages.put(BASE + "/broken.xml", bytes(broken.substring(0, broken.indexOf("/products/pears"))));
+		http.pages.put(BASE + "/not-xml.xml", bytes("<html><body>Not found</body>"));
+		http.pages.put(BASE + "/good.xml", bytes(urlset("<url><loc>" + BASE + "/products/bread</loc></url>")));
+
+		SiteDiscovery discovery = service.discover();
+
+		assertEquals(List.of(BASE + "/products/apples", BASE + "/products/bread"), List.copyOf(discovery.getProductUrls()));
+		// The index and the good sitemap; the self-reference is not read twice
+		assertEquals(2, discovery.getSitemapsRead());
+		assertEquals(1, http.requests.stream().filter((BASE + "/sitemap.xml")::equals).count());
+		assertEquals(http.opened, http.closed.size());
+	}
+
+	private static String index(String... locs) {
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+		for (String loc : locs) {
+			xml.append("<sitemap><loc>").append(loc).append("</loc></sitemap>");
+		}
+		return xml.append("</sitemapindex>").toString();
+	}
+
+	private static String urlset(String... urls) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\""
+				+ " xmlns:image=\"http://www.google.com/schemas/sitemap-image/1.1\">"
+				+ String.join("\n", urls) + "</urlset>";
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(String text) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes(text));
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Serves canned bodies and records which of the opened streams were closed
+	 */
+	static class FakeHttpFetchService extends HttpFetchService {
+		final Map<String, byte[]> pages = new HashMap<>();
+		final List<String> requests = new ArrayList<>();
+		final Set<String> closed = new HashSet<>();
+		int opened;
+
+		FakeHttpFetchService() {
+			super(5, new PolitenessScheduler());
+		}
+
+		@Override
+		public InputStream openStream(String url) {
+			requests.add(url);
+			byte[] body = pages.get(url);
+			if (body == null) {
+				return null;
+			}
+			opened++;
+			return new FilterInputStream(new ByteArrayInputStream(body)) {
+				@Override
+				public void close() throws IOException {
+					closed.add(url);
+					super.close();
+				}
+			};
+		}
+	}
+}
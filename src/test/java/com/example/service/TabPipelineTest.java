@@ -0,0 +1,187 @@
+package com.example.service;
+
+import com.example.util.CrawlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TabPipelineTest {
+
+	private static final List<String> URLS = List.of(
+			"https://www.freshco.com/products/a", "https://www.freshco.com/products/b",
+			"https://www.freshco.com/products/c", "https://www.freshco.com/products/d",
+			"https://www.freshco.com/products/e");
+
+	@Test
+	void neverWaitsForMorePermitsThanTheHostWindowAllows() {
+		FakeTabDriver driver = new FakeTabDriver();
+		PolitenessScheduler scheduler = scheduler(1);
+
+		List<String> results = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+				new TabPipeline(driver, 3).throttleWith(scheduler).run(URLS, url -> driver.currentUrl()));
+
+		assertEquals(URLS, results);
+		assertEquals(1, driver.maxOpenTabs);
+		assertEquals(List.of("home"), new ArrayList<>(driver.getWindowHandles()));
+		@SuppressWarnings("unchecked")
+		Map<String, Object> host = (Map<String, Object>) scheduler.getSnapshot().get("www.freshco.com");
+		assertEquals(0, host.get("inFlight"));
+	}
+
+	@Test
+	void retriesCrashedTabsButNotSlowPages() {
+		FakeTabDriver driver = new FakeTabDriver();
+		driver.crashed.add(URLS.get(1));
+		String slow = URLS.get(3);
+		Map<String, Integer> attempts = new HashMap<>();
+
+		List<String> results = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+				new TabPipeline(driver, 2).throttleWith(scheduler(2)).run(URLS, url -> {
+					attempts.merge(url, 1, Integer::sum);
+					if (url.equals(slow)) {
+						throw new TimeoutException("timeout: Timed out receiving message from renderer: 30.000");
+					}
+					return driver.currentUrl();
+				}));
+
+		assertEquals(Arrays.asList(URLS.get(0), URLS.get(1), URLS.get(2), null, URLS.get(4)), results);
+		assertEquals(2, attempts.get(URLS.get(1)));
+		assertEquals(1, attempts.get(slow));
+		assertEquals(List.of("home"), new ArrayList<>(driver.getWindowHandles()));
+		assertTrue(TabPipeline.isCrash(new NoSuchSessionException("invalid session id")));
+		assertFalse(TabPipeline.isCrash(new TimeoutException("Expected condition failed")));
+	}
+
+	static PolitenessScheduler scheduler(int window) {
+		PolitenessScheduler scheduler = new PolitenessScheduler();
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "initialRate", 1000.0);
+		ReflectionTestUtils.setField(scheduler, "minRate", 1.0);
+		ReflectionTestUtils.setField(scheduler, "maxRate", 1000.0);
+		ReflectionTestUtils.setField(scheduler, "burst", 100.0);
+		ReflectionTestUtils.setField(scheduler, "initialConcurrency", (double) window);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrency", (double) window);
+		ReflectionTestUtils.setField(scheduler, "slowResponseMs", 60_000L);
+		ReflectionTestUtils.setField(scheduler, "crawlMetrics", new CrawlMetrics(new SimpleMeterRegistry()));
+		return scheduler;
+	}
+
+	/**
+	 * Tabs as window handles; window.open adds one with the given URL loaded
+	 */
+	static class FakeTabDriver implements WebDriver, JavascriptExecutor {
+		final Map<String, String> tabs = new LinkedHashMap<>(Map.of("home", "about:blank"));
+		final Set<String> crashed = new HashSet<>();
+		int maxOpenTabs;
+		private String current = "home";
+		private int opened;
+
+		String currentUrl() {
+			if (crashed.remove(tabs.get(current))) {
+				throw new WebDriverException("unknown error: session deleted because of page crash\nfrom tab crashed");
+			}
+			return tabs.get(current);
+		}
+
+		@Override
+		public Object executeScript(String script, Object... args) {
+			if (script.startsWith("window.open")) {
+				tabs.put("tab-" + (++opened), (String) args[0]);
+				maxOpenTabs = Math.max(maxOpenTabs, tabs.size() - 1);
+				return null;
+			}
+			// Navigation timing for the politeness scheduler: status 200, 10 ms
+			return List.of(200L, 10L);
+		}
+
+		@Override
+		public Object executeAsyncScript(String script, Object... args) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public TargetLocator switchTo() {
+			return (TargetLocator) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{TargetLocator.class},
+					(proxy, method, args) -> {
+						if (!method.getName().equals("window")) {
+							throw new UnsupportedOperationException(method.getName());
+						}
+						if (!tabs.containsKey((String) args[0])) {
+							throw new NoSuchWindowException("no such window: " + args[0]);
+						}
+						current = (String) args[0];
+						return this;
+					});
+		}
+
+		@Override
+		public void close() {
+			tabs.remove(current);
+		}
+
+		@Override
+		public Set<String> getWindowHandles() {
+			return new LinkedHashSet<>(tabs.keySet());
+		}
+
+		@Override
+		public String getWindowHandle() {
+			return current;
+		}
+
+		@Override
+		public String getCurrentUrl() {
+			return tabs.get(current);
+		}
+
+		@Override
+		public void get(String url) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String getTitle() {
+			return "";
+		}
+
+		@Override
+		public List<WebElement> findElements(By by) {
+			return List.of();
+		}
+
+		@Override
+		public WebElement findElement(By by) {
+			throw new org.openqa.selenium.NoSuchElementException(by.toString());
+		}
+
+		@Override
+		public String getPageSource() {
+			return "";
+		}
+
+		@Override
+		public void quit() {
+			tabs.clear();
+		}
+
+		@Override
+		public Navigation navigate() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Options manage() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.util;
+
+import com.example.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlCheckpointTest {
+
+	private static final String PLUMS = "https://www.freshco.com/products/plums-red";
+	private static final String APPLES = "https://www.freshco.com/products/apples-gala";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void resumesFromTheLastCompleteRecord() throws Exception {
+		Path file = dir.resolve("run-1.jsonl");
+		Map<String, String> categories = new LinkedHashMap<>();
+		categories.put("Fruits", "/products/category/Fruits");
+		categories.put("Bakery", "/products/category/Bakery");
+
+		try (CrawlCheckpoint checkpoint = CrawlCheckpoint.create(file, "run-1", categories)) {
+			checkpoint.recordClaimed("Fruits", List.of(PLUMS, APPLES));
+			checkpoint.expect("Fruits", List.of(PLUMS, APPLES));
+			checkpoint.productScraped("Fruits", product("Plums Red", PLUMS));
+			checkpoint.productScraped("Fruits", product("Apples Gala", APPLES));
+			assertTrue(checkpoint.recordCategory("Fruits", List.of(product("Plums Red", PLUMS), product("Apples Gala", APPLES))));
+
+			checkpoint.expect("Bakery", List.of("https://www.freshco.com/products/bagels"));
+			assertFalse(checkpoint.recordCategory("Bakery", List.of()), "missing products keep the category open");
+		}
+		// Crash in the middle of a record
+		Files.writeString(file, "{\"type\":\"product\",\"categ", StandardOpenOption.APPEND);
+
+		try (CrawlCheckpoint resumed = CrawlCheckpoint.open(file)) {
+			assertEquals("run-1", resumed.getRunId());
+			assertEquals(List.of("Fruits", "Bakery"), List.copyOf(resumed.getCategories().keySet()));
+			assertEquals(Set.of("Fruits"), resumed.getCompletedCategories());
+			assertEquals(Set.of(PLUMS, APPLES), resumed.getClaimedUrls("Fruits"));
+			assertEquals(List.of("Plums Red", "Apples Gala"),
+					resumed.getCompletedProducts("Fruits").stream().map(Product::getName).toList());
+			assertEquals("Apples Gala", resumed.getProduct(APPLES).getName());
+			assertNull(resumed.getProduct("https://www.freshco.com/products/bagels"));
+
+			resumed.recordFinished();
+		}
+
+		assertTrue(CrawlCheckpoint.read(file).isFinished());
+	}
+
+	@Test
+	void readsProductsBackFromTheJournal() throws Exception {
+		Path file = dir.resolve("run-2.jsonl");
+		Product tile = product("Crème Brûlée", APPLES);
+
+		try (CrawlCheckpoint checkpoint = CrawlCheckpoint.create(file, "run-2", Map.of("Fruits", "/products/category/Fruits"))) {
+			checkpoint.productScraped("Fruits", product("Plums Red", PLUMS));
+			// A product no listener saw is journaled with its category
+			assertTrue(checkpoint.recordCategory("Fruits", List.of(product("Plums Red", PLUMS), tile)));
+
+			assertEquals("Crème Brûlée", checkpoint.getProduct(APPLES).getName());
+			checkpoint.getProduct(PLUMS).setName("changed");
+			assertEquals("Plums Red", checkpoint.getProduct(PLUMS).getName());
+		}
+
+		CrawlCheckpoint resumed = CrawlCheckpoint.read(file);
+		assertEquals(2, resumed.getProductCount());
+		assertEquals(List.of("Plums Red", "Crème Brûlée"),
+				resumed.getCompletedProducts("Fruits").stream().map(Product::getName).toList());
+		resumed.close();
+	}
+
+	private Product product(String name, String url) {
+		return Product.builder().name(name).price("$1.99").category("Fruits").productUrl(url).build();
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.util;
+
+import com.example.model.CrawlRun;
+import com.example.model.Product;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final CrawlMetrics metrics = new CrawlMetrics(registry);
+
+	@Test
+	void keepsOneThroughputGaugePerActiveRun() {
+		CrawlRun first = new CrawlRun("first");
+		CrawlRun second = new CrawlRun("second");
+		metrics.track(first);
+		metrics.track(second);
+		first.productScraped("Fruits", new Product());
+
+		assertEquals(2, registry.find("scraper.crawl.products.per.second").gauges().size());
+		assertTrue(registry.get("scraper.crawl.products.per.second").tag("run", "first").gauge().value() >= 0);
+		assertEquals(0, registry.get("scraper.crawl.products.per.second").tag("run", "second").gauge().value());
+		assertEquals(1, registry.get("scraper.products.scraped").counter().count());
+
+		first.finish();
+		metrics.untrack(first);
+
+		assertNull(registry.find("scraper.crawl.products.per.second").tag("run", "first").gauge());
+		assertEquals(1, registry.find("scraper.crawl.products.per.second").gauges().size());
+	}
+
+	@Test
+	void recordsEachStageAndTagsOnOneTimer() {
+		metrics.record(CrawlMetrics.READINESS, 1_000_000, "page", "product");
+		metrics.record(CrawlMetrics.READINESS, 3_000_000, "page", "product");
+		metrics.record(CrawlMetrics.READINESS, 2_000_000, "page", "listing");
+
+		Timer product = registry.get("scraper.stage").tags("stage", CrawlMetrics.READINESS, "page", "product").timer();
+		assertEquals(2, product.count());
+		assertEquals(1, registry.get("scraper.stage").tags("stage", CrawlMetrics.READINESS, "page", "listing").timer().count());
+		assertSame(product, registry.get("scraper.stage").tags("page", "product").timer());
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+	@Test
+	void takesNearestRankPercentilesOverTheRecentWindow() {
+		LatencyHistogram histogram = new LatencyHistogram(20);
+		assertEquals(0, histogram.percentile(0.95));
+
+		for (int ms = 100; ms >= 1; ms--) {
+			histogram.record(ms);
+		}
+		// Only the last 20 samples (20..1ms) are kept
+		assertEquals(19, histogram.percentile(0.95));
+		assertEquals(10, histogram.percentile(0.5));
+		assertEquals(1, histogram.percentile(0));
+		assertEquals(20, histogram.percentile(1));
+		assertEquals(100L, histogram.getCount());
+	}
+
+	@Test
+	void learnsTwiceTheP95ClampedToTheBounds() {
+		LatencyHistogram histogram = new LatencyHistogram(128);
+		for (int i = 0; i < 9; i++) {
+			histogram.record(300);
+		}
+		// Not enough samples yet: wait the full maximum
+		assertEquals(10_000, histogram.learnedTimeout(1000, 10_000));
+
+		histogram.record(300);
+		assertEquals(600, histogram.learnedTimeout(500, 10_000));
+		assertEquals(2000, histogram.learnedTimeout(2000, 10_000));
+		assertEquals(400, histogram.learnedTimeout(100, 400));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void countsSamplesIntoFixedBuckets() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(25);
+		histogram.record(26);
+		histogram.record(12_000);
+
+		Map<String, Object> snapshot = histogram.snapshot();
+		Map<String, Long> buckets = (Map<String, Long>) snapshot.get("buckets");
+		assertEquals(3L, snapshot.get("count"));
+		assertEquals(4017L, snapshot.get("meanMs"));
+		assertEquals(12_000L, snapshot.get("maxMs"));
+		assertEquals(1L, buckets.get("le_25ms"));
+		assertEquals(1L, buckets.get("le_50ms"));
+		assertEquals(1L, buckets.get("gt_10000ms"));
+		assertEquals(0L, buckets.get("le_10000ms"));
+	}
+}
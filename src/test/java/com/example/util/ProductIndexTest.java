@@ -0,0 +1,83 @@
+package com.example.util;
+
+import com.example.model.Availability;
+import com.example.model.Product;
+import com.example.model.ProductQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductIndexTest {
+
+	private final ProductIndex index = ProductIndex.build(List.of(
+			product("Plums Red Small", "$4.99", "Fresh, juicy red plums", "In Stock", "Fruits & Vegetables"),
+			product("Apples Gala", "$2.49", "Crisp red apples", "Out of Stock", "Fruits & Vegetables"),
+			product("Sourdough Bread", "$3.99", "Baked fresh daily", "In Stock", "Bakery"),
+			product("Bagels", "N/A", "No Description Available", "In Stock", "Bakery"),
+			product("Red Velvet Cake", "$12.00", "Layered cake", "In Stock", "Bakery")));
+
+	@Test
+	void matchesAllTokensCaseInsensitively() {
+		assertEquals(List.of("Plums Red Small", "Apples Gala", "Red Velvet Cake"), names(query("RED", null)));
+		assertEquals(List.of("Plums Red Small"), names(query("red fresh", null)));
+		assertEquals(List.of(), names(query("red durian", null)));
+	}
+
+	@Test
+	void filtersByCategoryAvailabilityAndPriceRange() {
+		ProductQuery query = query(null, ProductQuery.Sort.PRICE_ASC);
+		query.setCategory("bakery");
+		query.setAvailability(Availability.IN_STOCK);
+		query.setMinCents(399);
+		query.setMaxCents(1200);
+		assertEquals(List.of("Sourdough Bread", "Red Velvet Cake"), names(query));
+
+		ProductQuery cheapest = query(null, ProductQuery.Sort.PRICE_DESC);
+		cheapest.setMaxCents(499);
+		assertEquals(List.of("Plums Red Small", "Sourdough Bread", "Apples Gala"), names(cheapest));
+	}
+
+	@Test
+	void paginatesSortedResults() {
+		ProductQuery query = query(null, ProductQuery.Sort.NAME);
+		query.setSize(2);
+		query.setPage(1);
+
+		ProductIndex.Result result = index.search(query);
+		assertEquals(5, result.total());
+		assertEquals(List.of("Plums Red Small", "Red Velvet Cake"), result.products().stream().map(Product::getName).toList());
+	}
+
+	@Test
+	void sortsUnpricedMatchesLastAndCountsThem() {
+		ProductQuery query = query(null, ProductQuery.Sort.PRICE_DESC);
+		query.setCategory("Bakery");
+		query.setSize(2);
+		query.setPage(1);
+
+		ProductIndex.Result result = index.search(query);
+		assertEquals(3, result.total());
+		assertEquals(List.of("Bagels"), result.products().stream().map(Product::getName).toList());
+		assertEquals(List.of("Plums Red Small", "Red Velvet Cake", "Bagels"), names(query(null, ProductQuery.Sort.PRICE_ASC)).subList(2, 5));
+	}
+
+	private ProductQuery query(String text, ProductQuery.Sort sort) {
+		ProductQuery query = new ProductQuery();
+		query.setText(text);
+		if (sort != null) {
+			query.setSort(sort);
+		}
+		return query;
+	}
+
+	private List<String> names(ProductQuery query) {
+		return index.search(query).products().stream().map(Product::getName).toList();
+	}
+
+	private static Product product(String name, String price, String description, String availability, String category) {
+		return Product.builder().name(name).price(price).description(description)
+				.availability(availability).category(category).build();
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayServerTest {
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@TempDir
+	Path corpus;
+
+	@Test
+	void servesRecordedPagesByPathAndQuery() throws Exception {
+		Files.createDirectories(corpus.resolve("pages"));
+		Files.writeString(corpus.resolve("pages/a.html"), "<h2>Plums Red Small</h2>");
+		Files.writeString(corpus.resolve("pages/b.html"), "<h2>Page two</h2>");
+		Files.writeString(corpus.resolve(ReplayServer.INDEX_FILE),
+				"/products/plums\tpages/a.html\n/products/category/Fruits?page=2\tpages/b.html\n");
+
+		try (ReplayServer server = new ReplayServer(corpus).latency(20, 0).start(0)) {
+			long start = System.nanoTime();
+			HttpResponse<String> product = get(server, "/products/plums");
+			long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(200, product.statusCode());
+			assertEquals("<h2>Plums Red Small</h2>", product.body());
+			assertTrue(elapsedMs >= 20, "latency applied");
+			assertEquals("<h2>Page two</h2>", get(server, "/products/category/Fruits?page=2").body());
+			assertEquals(404, get(server, "/products/unknown").statusCode());
+		}
+	}
+
+	@Test
+	void injectsFailures() throws Exception {
+		Files.writeString(corpus.resolve(ReplayServer.INDEX_FILE), "");
+
+		try (ReplayServer server = new ReplayServer(corpus).failureRate(1).start(0)) {
+			assertEquals(503, get(server, "/products/plums").statusCode());
+			assertEquals(1L, server.getStats().get("injectedFailures"));
+		}
+	}
+
+	private HttpResponse<String> get(ReplayServer server, String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + path)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,123 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptKey;
+import org.openqa.selenium.WebDriverException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScriptRegistryTest {
+
+	private final ScriptRegistry registry = new ScriptRegistry();
+
+	ScriptRegistryTest() {
+		ReflectionTestUtils.setField(registry, "pinEnabled", true);
+	}
+
+	@Test
+	void pinsEachScriptOncePerDriver() {
+		RecordingDriver driver = new RecordingDriver();
+		for (int i = 0; i < 3; i++) {
+			registry.execute(driver, ScriptRegistry.SCAN_LISTING, "a.product", true);
+		}
+		assertEquals(List.of("a.product", true), driver.lastArgs);
+		registry.execute(driver, ScriptRegistry.NEXT_PAGE);
+
+		assertEquals(2, driver.pinned.size());
+		assertTrue(driver.pinned.get(0).contains("document.body.scrollHeight"));
+		assertEquals(List.of("pinned", "pinned", "pinned", "pinned"), driver.calls);
+		assertEquals(12, registry.get(ScriptRegistry.SCAN_LISTING).version().length());
+	}
+
+	@Test
+	void sendsSourcesWhenThePinIsMissingOrUnsupported() {
+		RecordingDriver newTab = new RecordingDriver();
+		newTab.pinMissing = true;
+		registry.execute(newTab, ScriptRegistry.EXTRACT_PRODUCT);
+		registry.execute(newTab, ScriptRegistry.EXTRACT_PRODUCT);
+		assertEquals(List.of("pinned", "pinned", "source", "source"), newTab.calls);
+		assertEquals(2, newTab.unpinned);
+
+		// Only that script is sent as source; the driver keeps pinning the others
+		newTab.pinMissing = false;
+		registry.execute(newTab, ScriptRegistry.SCAN_LISTING);
+		assertEquals("pinned", newTab.calls.get(4));
+
+		RecordingDriver remote = new RecordingDriver();
+		remote.pinUnsupported = true;
+		registry.execute(remote, ScriptRegistry.EXTRACT_PRODUCT);
+		assertEquals(List.of("source"), remote.calls);
+		assertEquals(3L, registry.getStats().get("pinFailures"));
+	}
+
+	@Test
+	void repinsAScriptWhosePinWentMissing() {
+		RecordingDriver driver = new RecordingDriver();
+		driver.missesLeft = 1;
+		registry.execute(driver, ScriptRegistry.SCAN_LISTING, "a.product", false);
+		registry.execute(driver, ScriptRegistry.SCAN_LISTING, "a.product", false);
+
+		assertEquals(List.of("pinned", "pinned", "pinned"), driver.calls);
+		assertEquals(2, driver.pinned.size());
+		assertEquals(1, driver.unpinned);
+	}
+
+	@Test
+	void rejectsUnknownScripts() {
+		assertThrows(IllegalArgumentException.class, () -> registry.get("missing"));
+	}
+
+	private static class RecordingDriver implements JavascriptExecutor {
+		private final List<String> pinned = new ArrayList<>();
+		private final List<String> calls = new ArrayList<>();
+		private List<Object> lastArgs;
+		private boolean pinMissing;
+		private int missesLeft;
+		private boolean pinUnsupported;
+		private int unpinned;
+
+		@Override
+		public ScriptKey pin(String script) {
+			if (pinUnsupported) {
+				throw new WebDriverException("DevTools not available");
+			}
+			pinned.add(script);
+			return new ScriptKey("key-" + pinned.size());
+		}
+
+		@Override
+		public void unpin(ScriptKey key) {
+			unpinned++;
+		}
+
+		@Override
+		public Object executeScript(ScriptKey key, Object... args) {
+			calls.add("pinned");
+			if (pinMissing || missesLeft-- > 0) {
+				throw new JavascriptException("TypeError: Cannot read properties of undefined (reading 'apply')");
+			}
+			lastArgs = List.of(args);
+			return null;
+		}
+
+		@Override
+		public Object executeScript(String script, Object... args) {
+			calls.add("source");
+			lastArgs = List.of(args);
+			return null;
+		}
+
+		@Override
+		public Object executeAsyncScript(String script, Object... args) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
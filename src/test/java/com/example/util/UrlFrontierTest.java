@@ -0,0 +1,58 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlFrontierTest {
+
+	@Test
+	void normalizesEquivalentProductLinks() {
+		String expected = "https://www.freshco.com/products/plums-red?size=small&variant=2";
+
+		assertEquals(expected, UrlFrontier.normalize("HTTPS://WWW.FreshCo.com:443/products/plums-red/?variant=2&size=small#reviews"));
+		assertEquals(expected, UrlFrontier.normalize("https://www.freshco.com/products/plums-red?utm_source=mail&size=small&gclid=abc&variant=2"));
+	}
+
+	@Test
+	void claimsEachProductOnceAcrossCategories() {
+		UrlFrontier frontier = new UrlFrontier();
+
+		assertTrue(frontier.claim("https://www.freshco.com/products/plums-red"));
+		assertFalse(frontier.claim("https://www.freshco.com/products/plums-red/?utm_campaign=fruit"));
+		assertTrue(frontier.claim("https://www.freshco.com/products/plums-black"));
+
+		assertEquals(2, frontier.size());
+		assertEquals(1, frontier.getDuplicates());
+	}
+
+	@Test
+	void releasedClaimsCanBeClaimedAgain() {
+		UrlFrontier frontier = new UrlFrontier();
+
+		assertTrue(frontier.claim("https://www.freshco.com/products/plums-red"));
+		frontier.release("https://www.freshco.com/products/plums-red/");
+
+		assertTrue(frontier.claim("https://www.freshco.com/products/plums-red?utm_source=mail"));
+		assertEquals(1, frontier.size());
+	}
+
+	@Test
+	void drainsOnlyQueuedUrlsNoCategoryClaimed() {
+		UrlFrontier frontier = new UrlFrontier();
+		frontier.enqueue("https://www.freshco.com/products/plums-red");
+		frontier.enqueue("https://www.freshco.com/products/plums-black");
+		frontier.enqueue("https://www.freshco.com/products/kiwis");
+
+		assertTrue(frontier.claim("https://www.freshco.com/products/plums-red/"));
+
+		assertEquals("https://www.freshco.com/products/plums-black", frontier.pollUnclaimed());
+		assertEquals("https://www.freshco.com/products/kiwis", frontier.pollUnclaimed());
+		assertNull(frontier.pollUnclaimed());
+		assertEquals(0, frontier.getDuplicates());
+		assertTrue(frontier.isListed("https://www.freshco.com/products/kiwis"));
+	}
+}